@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+import com.alibaba.cloud.sentinel.custom.SentinelParamExtractor;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.adapter.reactor.ContextConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+import com.alibaba.csp.sentinel.adapter.spring.webflux.SentinelWebFluxFilter;
+import com.alibaba.csp.sentinel.adapter.spring.webflux.callback.WebFluxCallbackManager;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import reactor.core.publisher.Mono;
+
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * A {@link SentinelWebFluxFilter} passing the hot parameters of the request to its
+ * entry. The filter runs before the handler is matched, so there are no path variables.
+ *
+ * @author agent
+ */
+public class SentinelParamWebFluxFilter extends SentinelWebFluxFilter {
+
+	private final SentinelParamExtractor paramExtractor;
+
+	public SentinelParamWebFluxFilter(SentinelParamExtractor paramExtractor) {
+		this.paramExtractor = paramExtractor;
+	}
+
+	/**
+	 * Same as {@link SentinelWebFluxFilter#filter}, but for the args of the entry.
+	 */
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		String path = exchange.getRequest().getPath().value();
+		String finalPath = WebFluxCallbackManager.getUrlCleaner().apply(exchange, path);
+		if (StringUtil.isEmpty(finalPath)) {
+			return chain.filter(exchange);
+		}
+		String origin = Optional
+				.ofNullable(WebFluxCallbackManager.getRequestOriginParser())
+				.map(parser -> parser.apply(exchange)).orElse("");
+		EntryConfig entryConfig = new EntryConfig(finalPath,
+				ResourceTypeConstants.COMMON_WEB, EntryType.IN, 1,
+				paramExtractor.extract(new ExchangeParamSource(exchange)),
+				new ContextConfig(getContextName(exchange), origin));
+		return chain.filter(exchange)
+				.transform(new SentinelReactorTransformer<>(entryConfig));
+	}
+
+	private record ExchangeParamSource(ServerWebExchange exchange)
+			implements SentinelParamExtractor.ParamSource {
+
+		@Override
+		public String getHeader(String name) {
+			return exchange.getRequest().getHeaders().getFirst(name);
+		}
+
+		@Override
+		public String getQueryParam(String name) {
+			return exchange.getRequest().getQueryParams().getFirst(name);
+		}
+
+		@Override
+		public String getClientIp() {
+			InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+			if (address == null) {
+				return null;
+			}
+			return address.getAddress() == null ? address.getHostString()
+					: address.getAddress().getHostAddress();
+		}
+
+		@Override
+		public String getPathVariable(String name) {
+			return null;
+		}
+
+	}
+
+}
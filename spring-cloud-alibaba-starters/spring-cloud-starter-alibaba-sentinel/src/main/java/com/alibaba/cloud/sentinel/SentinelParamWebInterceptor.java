@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel;
+
+import java.util.Map;
+
+import com.alibaba.cloud.sentinel.custom.SentinelParamExtractor;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.Tracer;
+import com.alibaba.csp.sentinel.adapter.spring.webmvc.SentinelWebInterceptor;
+import com.alibaba.csp.sentinel.adapter.spring.webmvc.config.SentinelWebMvcConfig;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * A {@link SentinelWebInterceptor} passing the hot parameters of the request to its
+ * entry.
+ *
+ * @author agent
+ */
+public class SentinelParamWebInterceptor extends SentinelWebInterceptor {
+
+	/**
+	 * The request attribute of the args of the entry, the entry must exit with them.
+	 */
+	private static final String ARGS_ATTRIBUTE = SentinelParamWebInterceptor.class
+			.getName() + ".args";
+
+	private final SentinelWebMvcConfig config;
+
+	private final SentinelParamExtractor paramExtractor;
+
+	public SentinelParamWebInterceptor(SentinelWebMvcConfig config,
+			SentinelParamExtractor paramExtractor) {
+		super(config);
+		this.config = config;
+		this.paramExtractor = paramExtractor;
+	}
+
+	/**
+	 * Same as {@link SentinelWebInterceptor#preHandle}, but for the args of the entry.
+	 */
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+			Object handler) throws Exception {
+		try {
+			String resourceName = getResourceName(request);
+			if (StringUtil.isEmpty(resourceName)) {
+				return true;
+			}
+			if (increaseReference(request, 1) != 1) {
+				return true;
+			}
+			String origin = parseOrigin(request);
+			ContextUtil.enter(getContextName(request), origin);
+			Object[] args = paramExtractor.extract(new ServletParamSource(request));
+			Entry entry = SphU.entry(resourceName, ResourceTypeConstants.COMMON_WEB,
+					EntryType.IN, args);
+			request.setAttribute(config.getRequestAttributeName(), entry);
+			request.setAttribute(ARGS_ATTRIBUTE, args);
+			return true;
+		}
+		catch (BlockException e) {
+			try {
+				handleBlockException(request, response, e);
+			}
+			finally {
+				ContextUtil.exit();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Same as {@link SentinelWebInterceptor#afterCompletion}, but exits the entry with
+	 * its args, so that the parameter flow control releases the threads of the values.
+	 */
+	@Override
+	public void afterCompletion(HttpServletRequest request,
+			HttpServletResponse response, Object handler, Exception ex)
+			throws Exception {
+		if (increaseReference(request, -1) != 0) {
+			return;
+		}
+		Entry entry = getEntryInRequest(request, config.getRequestAttributeName());
+		if (entry == null) {
+			RecordLog.warn("[{}] No entry found in request, key: {}",
+					getClass().getSimpleName(), config.getRequestAttributeName());
+			return;
+		}
+		if (ex != null) {
+			Tracer.traceEntry(ex, entry);
+		}
+		entry.exit(1, (Object[]) request.getAttribute(ARGS_ATTRIBUTE));
+		removeEntryInRequest(request);
+		request.removeAttribute(ARGS_ATTRIBUTE);
+		ContextUtil.exit();
+	}
+
+	/**
+	 * Count the interceptor in the request as the super class does.
+	 */
+	private int increaseReference(HttpServletRequest request, int step) {
+		String refName = config.getRequestRefName();
+		Object count = request.getAttribute(refName);
+		int newCount = (count == null ? 0 : (Integer) count) + step;
+		request.setAttribute(refName, newCount);
+		return newCount;
+	}
+
+	private record ServletParamSource(HttpServletRequest request)
+			implements SentinelParamExtractor.ParamSource {
+
+		@Override
+		public String getHeader(String name) {
+			return request.getHeader(name);
+		}
+
+		@Override
+		public String getQueryParam(String name) {
+			return request.getParameter(name);
+		}
+
+		@Override
+		public String getClientIp() {
+			return request.getRemoteAddr();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public String getPathVariable(String name) {
+			Map<String, String> variables = (Map<String, String>) request
+					.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+			return variables == null ? null : variables.get(name);
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package com.alibaba.cloud.sentinel;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -108,6 +109,26 @@ public class SentinelProperties {
 	 */
 	private Boolean webContextUnify = true;
 
+	/**
+	 * Adaptive concurrency limits of selected resources.
+	 */
+	private Adaptive adaptive = new Adaptive();
+
+	/**
+	 * Hot parameters of the web requests, passed to the entries of the web resources.
+	 */
+	private ParamFlow paramFlow = new ParamFlow();
+
+	/**
+	 * Export of the resource statistics to Micrometer.
+	 */
+	private Micrometer micrometer = new Micrometer();
+
+	/**
+	 * Guard of the number of resources created from request paths.
+	 */
+	private ResourceGuard resourceGuard = new ResourceGuard();
+
 	public Boolean getWebContextUnify() {
 		return webContextUnify;
 	}
@@ -196,6 +217,38 @@ public class SentinelProperties {
 		this.httpMethodSpecify = httpMethodSpecify;
 	}
 
+	public Adaptive getAdaptive() {
+		return adaptive;
+	}
+
+	public void setAdaptive(Adaptive adaptive) {
+		this.adaptive = adaptive;
+	}
+
+	public ParamFlow getParamFlow() {
+		return paramFlow;
+	}
+
+	public void setParamFlow(ParamFlow paramFlow) {
+		this.paramFlow = paramFlow;
+	}
+
+	public Micrometer getMicrometer() {
+		return micrometer;
+	}
+
+	public void setMicrometer(Micrometer micrometer) {
+		this.micrometer = micrometer;
+	}
+
+	public ResourceGuard getResourceGuard() {
+		return resourceGuard;
+	}
+
+	public void setResourceGuard(ResourceGuard resourceGuard) {
+		this.resourceGuard = resourceGuard;
+	}
+
 	public String getBlockPage() {
 		if (StringUtils.hasText(this.blockPage)) {
 			return this.blockPage;
@@ -393,6 +446,336 @@ public class SentinelProperties {
 
 	}
 
+	public static class Adaptive {
+
+		/**
+		 * Enable to adjust the concurrency limits of the resources automatically.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * The resources whose concurrency limit is adjusted.
+		 */
+		private List<String> resources = new ArrayList<>();
+
+		/**
+		 * Interval of adjusting the limits.
+		 */
+		private long intervalMillis = 1000;
+
+		/**
+		 * The concurrency limit before any adjustment.
+		 */
+		private int initialLimit = 20;
+
+		/**
+		 * The lower bound of the concurrency limits.
+		 */
+		private int minLimit = 1;
+
+		/**
+		 * The upper bound of the concurrency limits.
+		 */
+		private int maxLimit = 1000;
+
+		/**
+		 * Ratio of the short to the long term response time, above which the limits
+		 * shrink.
+		 */
+		private double tolerance = 1.5;
+
+		/**
+		 * Weight of a new limit against the previous one, between 0 and 1.
+		 */
+		private double smoothing = 0.2;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public List<String> getResources() {
+			return resources;
+		}
+
+		public void setResources(List<String> resources) {
+			this.resources = resources;
+		}
+
+		public long getIntervalMillis() {
+			return intervalMillis;
+		}
+
+		public void setIntervalMillis(long intervalMillis) {
+			this.intervalMillis = intervalMillis;
+		}
+
+		public int getInitialLimit() {
+			return initialLimit;
+		}
+
+		public void setInitialLimit(int initialLimit) {
+			this.initialLimit = initialLimit;
+		}
+
+		public int getMinLimit() {
+			return minLimit;
+		}
+
+		public void setMinLimit(int minLimit) {
+			this.minLimit = minLimit;
+		}
+
+		public int getMaxLimit() {
+			return maxLimit;
+		}
+
+		public void setMaxLimit(int maxLimit) {
+			this.maxLimit = maxLimit;
+		}
+
+		public double getTolerance() {
+			return tolerance;
+		}
+
+		public void setTolerance(double tolerance) {
+			this.tolerance = tolerance;
+		}
+
+		public double getSmoothing() {
+			return smoothing;
+		}
+
+		public void setSmoothing(double smoothing) {
+			this.smoothing = smoothing;
+		}
+
+	}
+
+	public static class ParamFlow {
+
+		/**
+		 * Enable to pass the parameters of the web requests to the entries of the web
+		 * resources, for the parameter flow rules.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * The parameters, in the order of the parameter indexes of the rules.
+		 */
+		private List<Param> params = new ArrayList<>();
+
+		/**
+		 * Maximum number of the most recent values tracked per parameter.
+		 */
+		private int maxHotValues = 1000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public List<Param> getParams() {
+			return params;
+		}
+
+		public void setParams(List<Param> params) {
+			this.params = params;
+		}
+
+		public int getMaxHotValues() {
+			return maxHotValues;
+		}
+
+		public void setMaxHotValues(int maxHotValues) {
+			this.maxHotValues = maxHotValues;
+		}
+
+		public static class Param {
+
+			/**
+			 * Where the value of the parameter is read from.
+			 */
+			private ParamType type;
+
+			/**
+			 * The name of the header, query parameter or path variable.
+			 */
+			private String name;
+
+			public ParamType getType() {
+				return type;
+			}
+
+			public void setType(ParamType type) {
+				this.type = type;
+			}
+
+			public String getName() {
+				return name;
+			}
+
+			public void setName(String name) {
+				this.name = name;
+			}
+
+			@Override
+			public String toString() {
+				return name == null ? String.valueOf(type) : type + ":" + name;
+			}
+
+		}
+
+		public enum ParamType {
+
+			/**
+			 * A request header.
+			 */
+			HEADER,
+
+			/**
+			 * A query parameter.
+			 */
+			QUERY_PARAM,
+
+			/**
+			 * The address of the client.
+			 */
+			CLIENT_IP,
+
+			/**
+			 * A path variable of the matched handler, Spring MVC only.
+			 */
+			PATH_VARIABLE
+
+		}
+
+	}
+
+	public static class Micrometer {
+
+		/**
+		 * Enable to export the resource statistics to the Micrometer registries. The
+		 * exporter reads the statistics in the background, so it is disabled by
+		 * default.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Enable to count the blocked requests by rule type, by a callback of every
+		 * entry of every resource.
+		 */
+		private boolean blockByRule = false;
+
+		/**
+		 * Interval of reading the statistics of the resources.
+		 */
+		private long intervalMillis = 10000;
+
+		/**
+		 * Number of the resources with the most requests to export.
+		 */
+		private int topN = 20;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public boolean isBlockByRule() {
+			return blockByRule;
+		}
+
+		public void setBlockByRule(boolean blockByRule) {
+			this.blockByRule = blockByRule;
+		}
+
+		public long getIntervalMillis() {
+			return intervalMillis;
+		}
+
+		public void setIntervalMillis(long intervalMillis) {
+			this.intervalMillis = intervalMillis;
+		}
+
+		public int getTopN() {
+			return topN;
+		}
+
+		public void setTopN(int topN) {
+			this.topN = topN;
+		}
+
+	}
+
+	public static class ResourceGuard {
+
+		/**
+		 * Enable to bound the resources of web requests, RestTemplate and WebClient
+		 * by their path.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Replace numeric, UUID and long hexadecimal path segments by a placeholder.
+		 */
+		private boolean templatePaths = true;
+
+		/**
+		 * Maximum number of paths per host or first path segment, the further paths
+		 * share an overflow resource.
+		 */
+		private int maxResourcesPerPrefix = 500;
+
+		/**
+		 * Maximum number of hosts or first path segments, the paths of further
+		 * prefixes share a global overflow resource.
+		 */
+		private int maxPrefixes = 1000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public boolean isTemplatePaths() {
+			return templatePaths;
+		}
+
+		public void setTemplatePaths(boolean templatePaths) {
+			this.templatePaths = templatePaths;
+		}
+
+		public int getMaxResourcesPerPrefix() {
+			return maxResourcesPerPrefix;
+		}
+
+		public void setMaxResourcesPerPrefix(int maxResourcesPerPrefix) {
+			this.maxResourcesPerPrefix = maxResourcesPerPrefix;
+		}
+
+		public int getMaxPrefixes() {
+			return maxPrefixes;
+		}
+
+		public void setMaxPrefixes(int maxPrefixes) {
+			this.maxPrefixes = maxPrefixes;
+		}
+
+	}
+
 	public static class Log {
 
 		/**
@@ -18,6 +18,8 @@ package com.alibaba.cloud.sentinel;
 
 import java.util.Optional;
 
+import com.alibaba.cloud.sentinel.custom.SentinelParamExtractor;
+import com.alibaba.cloud.sentinel.custom.SentinelResourceGuard;
 import com.alibaba.csp.sentinel.adapter.spring.webmvc.SentinelWebInterceptor;
 import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.BlockExceptionHandler;
 import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.DefaultBlockExceptionHandler;
@@ -27,6 +29,7 @@ import com.alibaba.csp.sentinel.adapter.spring.webmvc.config.SentinelWebMvcConfi
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -64,11 +67,19 @@ public class SentinelWebAutoConfiguration implements WebMvcConfigurer {
 	@Autowired
 	private Optional<RequestOriginParser> requestOriginParserOptional;
 
+	@Autowired
+	private Optional<SentinelResourceGuard> resourceGuardOptional;
+
 	@Bean
 	@ConditionalOnProperty(name = "spring.cloud.sentinel.filter.enabled",
 			matchIfMissing = true)
 	public SentinelWebInterceptor sentinelWebInterceptor(
-			SentinelWebMvcConfig sentinelWebMvcConfig) {
+			SentinelWebMvcConfig sentinelWebMvcConfig,
+			ObjectProvider<SentinelParamExtractor> paramExtractor) {
+		SentinelParamExtractor extractor = paramExtractor.getIfAvailable();
+		if (extractor != null) {
+			return new SentinelParamWebInterceptor(sentinelWebMvcConfig, extractor);
+		}
 		return new SentinelWebInterceptor(sentinelWebMvcConfig);
 	}
 
@@ -96,6 +107,11 @@ public class SentinelWebAutoConfiguration implements WebMvcConfigurer {
 		}
 
 		urlCleanerOptional.ifPresent(sentinelWebMvcConfig::setUrlCleaner);
+		resourceGuardOptional.ifPresent(resourceGuard -> {
+			UrlCleaner urlCleaner = sentinelWebMvcConfig.getUrlCleaner();
+			sentinelWebMvcConfig.setUrlCleaner(url -> resourceGuard
+					.guardPath(urlCleaner == null ? url : urlCleaner.clean(url)));
+		});
 		requestOriginParserOptional.ifPresent(sentinelWebMvcConfig::setOriginParser);
 		return sentinelWebMvcConfig;
 	}
@@ -19,7 +19,10 @@ package com.alibaba.cloud.sentinel;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
 
+import com.alibaba.cloud.sentinel.custom.SentinelParamExtractor;
+import com.alibaba.cloud.sentinel.custom.SentinelResourceGuard;
 import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
 import com.alibaba.csp.sentinel.adapter.spring.webflux.SentinelWebFluxFilter;
 import com.alibaba.csp.sentinel.adapter.spring.webflux.callback.BlockRequestHandler;
@@ -41,6 +44,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.server.ServerWebExchange;
 
 /**
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
@@ -62,6 +66,9 @@ public class SentinelWebFluxAutoConfiguration {
 	@Autowired
 	private Optional<BlockRequestHandler> blockRequestHandler;
 
+	@Autowired
+	private Optional<SentinelResourceGuard> resourceGuard;
+
 	public SentinelWebFluxAutoConfiguration(
 			ObjectProvider<List<ViewResolver>> viewResolvers,
 			ServerCodecConfigurer serverCodecConfigurer) {
@@ -72,6 +79,12 @@ public class SentinelWebFluxAutoConfiguration {
 	@PostConstruct
 	public void init() {
 		blockRequestHandler.ifPresent(WebFluxCallbackManager::setBlockHandler);
+		resourceGuard.ifPresent(guard -> {
+			BiFunction<ServerWebExchange, String, String> urlCleaner = WebFluxCallbackManager
+					.getUrlCleaner();
+			WebFluxCallbackManager.setUrlCleaner((exchange, url) -> guard
+					.guardPath(urlCleaner.apply(exchange, url)));
+		});
 	}
 
 	@Bean
@@ -86,8 +99,13 @@ public class SentinelWebFluxAutoConfiguration {
 	@Order(-1)
 	@ConditionalOnProperty(name = "spring.cloud.sentinel.filter.enabled",
 			matchIfMissing = true)
-	public SentinelWebFluxFilter sentinelWebFluxFilter() {
+	public SentinelWebFluxFilter sentinelWebFluxFilter(
+			ObjectProvider<SentinelParamExtractor> paramExtractor) {
 		log.info("[Sentinel Starter] register Sentinel SentinelWebFluxFilter");
+		SentinelParamExtractor extractor = paramExtractor.getIfAvailable();
+		if (extractor != null) {
+			return new SentinelParamWebFluxFilter(extractor);
+		}
 		return new SentinelWebFluxFilter();
 	}
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Protect the requests of a {@code WebClient.Builder} bean with Sentinel, the
+ * counterpart of {@link SentinelRestTemplate} for reactive clients.
+ * <p>
+ * The block handler and fallback methods are static methods with the parameters
+ * {@code (ClientRequest, ExchangeFunction, BlockException)} returning
+ * {@code Mono<ClientResponse>}, the url cleaner is a static method with a
+ * {@code String} parameter returning {@code String}.
+ *
+ * @author agent
+ */
+@Target({ ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SentinelWebClient {
+
+	String blockHandler() default "";
+
+	Class<?> blockHandlerClass() default void.class;
+
+	String fallback() default "";
+
+	Class<?> fallbackClass() default void.class;
+
+	String urlCleaner() default "";
+
+	Class<?> urlCleanerClass() default void.class;
+
+}
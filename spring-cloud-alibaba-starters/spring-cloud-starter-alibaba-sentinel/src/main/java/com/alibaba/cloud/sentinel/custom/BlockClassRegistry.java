@@ -23,6 +23,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
 /**
+ * Registry of the handler methods of {@link com.alibaba.cloud.sentinel.annotation.SentinelRestTemplate},
+ * the methods are kept in a per class table so that a lookup does not build any key.
+ *
  * @author fangjian
  */
 final class BlockClassRegistry {
@@ -31,47 +34,59 @@ final class BlockClassRegistry {
 
 	}
 
-	private static final Map<String, Method> FALLBACK_MAP = new ConcurrentHashMap<>();
+	private static final ClassValue<Map<String, Method>> FALLBACK_MAP = new MethodTable();
 
-	private static final Map<String, Method> BLOCK_HANDLER_MAP = new ConcurrentHashMap<>();
+	private static final ClassValue<Map<String, Method>> BLOCK_HANDLER_MAP = new MethodTable();
 
-	private static final Map<String, Method> URL_CLEANER_MAP = new ConcurrentHashMap<>();
+	private static final ClassValue<Map<String, Method>> URL_CLEANER_MAP = new MethodTable();
 
 	static Method lookupFallback(Class<?> clazz, String name) {
-		return FALLBACK_MAP.get(getKey(clazz, name));
+		return lookup(FALLBACK_MAP, clazz, name);
 	}
 
 	static Method lookupBlockHandler(Class<?> clazz, String name) {
-		return BLOCK_HANDLER_MAP.get(getKey(clazz, name));
+		return lookup(BLOCK_HANDLER_MAP, clazz, name);
 	}
 
 	static Method lookupUrlCleaner(Class<?> clazz, String name) {
-		return URL_CLEANER_MAP.get(getKey(clazz, name));
+		return lookup(URL_CLEANER_MAP, clazz, name);
 	}
 
 	static void updateFallbackFor(Class<?> clazz, String name, Method method) {
-		if (clazz == null || StringUtil.isBlank(name)) {
-			throw new IllegalArgumentException("Bad argument");
-		}
-		FALLBACK_MAP.put(getKey(clazz, name), method);
+		update(FALLBACK_MAP, clazz, name, method);
 	}
 
 	static void updateBlockHandlerFor(Class<?> clazz, String name, Method method) {
-		if (clazz == null || StringUtil.isBlank(name)) {
-			throw new IllegalArgumentException("Bad argument");
-		}
-		BLOCK_HANDLER_MAP.put(getKey(clazz, name), method);
+		update(BLOCK_HANDLER_MAP, clazz, name, method);
 	}
 
 	static void updateUrlCleanerFor(Class<?> clazz, String name, Method method) {
+		update(URL_CLEANER_MAP, clazz, name, method);
+	}
+
+	private static Method lookup(ClassValue<Map<String, Method>> table, Class<?> clazz,
+			String name) {
+		if (clazz == null || name == null) {
+			return null;
+		}
+		return table.get(clazz).get(name);
+	}
+
+	private static void update(ClassValue<Map<String, Method>> table, Class<?> clazz,
+			String name, Method method) {
 		if (clazz == null || StringUtil.isBlank(name)) {
 			throw new IllegalArgumentException("Bad argument");
 		}
-		URL_CLEANER_MAP.put(getKey(clazz, name), method);
+		table.get(clazz).put(name, method);
 	}
 
-	private static String getKey(Class<?> clazz, String name) {
-		return String.format("%s:%s", clazz.getCanonicalName(), name);
+	private static final class MethodTable extends ClassValue<Map<String, Method>> {
+
+		@Override
+		protected Map<String, Method> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+
 	}
 
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.cloud.sentinel.SentinelProperties;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.property.PropertyListener;
+import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Adjusts the concurrency limit of the configured resources from their statistics and
+ * publishes them as thread grade {@link FlowRule}s, next to the rules of the data
+ * sources.
+ * <p>
+ * The limit follows a gradient of the response time: it grows by the square root of
+ * the limit while the short term response time stays within {@code tolerance} times the
+ * long term one, and shrinks down to half of it when the response time rises above. It
+ * doesn't grow while less than half of it is in use, by the average concurrency of the
+ * last second.
+ * <p>
+ * The controller listens to the property holding the flow rules, so that the limits are
+ * published again as soon as a data source has replaced the rules.
+ *
+ * @author agent
+ */
+public class SentinelAdaptiveFlowController implements InitializingBean, DisposableBean {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(SentinelAdaptiveFlowController.class);
+
+	/**
+	 * Number of samples the long term response time is averaged over.
+	 */
+	private static final int LONG_RT_WINDOW = 60;
+
+	private final SentinelProperties.Adaptive properties;
+
+	private final Map<String, LimitState> states = new LinkedHashMap<>();
+
+	private List<AdaptiveFlowRule> publishedRules = new ArrayList<>();
+
+	private final PropertyListener<List<FlowRule>> rulesListener = new RulesListener();
+
+	private SentinelProperty<List<FlowRule>> listenedProperty;
+
+	private ScheduledExecutorService scheduler;
+
+	public SentinelAdaptiveFlowController(SentinelProperties.Adaptive properties) {
+		this.properties = properties;
+		for (String resource : properties.getResources()) {
+			states.put(resource, new LimitState(properties.getInitialLimit()));
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (states.isEmpty()) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(
+				new NamedThreadFactory("sentinel-adaptive-flow", true));
+		scheduler.scheduleWithFixedDelay(this::updateQuietly,
+				properties.getIntervalMillis(), properties.getIntervalMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	private void updateQuietly() {
+		try {
+			update();
+		}
+		catch (Throwable e) {
+			log.warn("[SentinelAdaptiveFlowController] failed to update the limits", e);
+		}
+	}
+
+	/**
+	 * Update the limits from the current statistics of the resources and publish them.
+	 */
+	synchronized void update() {
+		listenRules();
+		states.forEach((resource, state) -> {
+			ClusterNode node = ClusterBuilderSlot.getClusterNode(resource);
+			if (node != null && node.successQps() > 0) {
+				// a single sample of the current threads misses the peaks in between,
+				// Little's law gives the average of the last second
+				double rt = node.avgRt();
+				state.update(rt, Math.max(node.curThreadNum(),
+						node.successQps() * rt / 1000), properties);
+			}
+		});
+		publish();
+	}
+
+	/**
+	 * Listen to the current property of the flow rules, which a data source replaces
+	 * when it registers.
+	 */
+	synchronized void listenRules() {
+		SentinelProperty<List<FlowRule>> property = currentRulesProperty();
+		if (property == null || property == listenedProperty) {
+			return;
+		}
+		if (listenedProperty != null) {
+			listenedProperty.removeListener(rulesListener);
+		}
+		listenedProperty = property;
+		property.addListener(rulesListener);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static SentinelProperty<List<FlowRule>> currentRulesProperty() {
+		Field field = ReflectionUtils.findField(FlowRuleManager.class, "currentProperty");
+		if (field == null) {
+			return null;
+		}
+		ReflectionUtils.makeAccessible(field);
+		return (SentinelProperty<List<FlowRule>>) ReflectionUtils.getField(field, null);
+	}
+
+	/**
+	 * @param resource the adaptive resource
+	 * @return the current concurrency limit, or {@code -1} if it isn't adaptive
+	 */
+	public synchronized int getLimit(String resource) {
+		LimitState state = states.get(resource);
+		return state == null ? -1 : state.getRoundedLimit();
+	}
+
+	/**
+	 * Publish the limits as flow rules, keeping the other rules. The rules are published
+	 * again when a data source has replaced them.
+	 */
+	synchronized void publish() {
+		List<FlowRule> currentRules = FlowRuleManager.getRules();
+		List<AdaptiveFlowRule> rules = new ArrayList<>(states.size());
+		states.forEach((resource, state) -> rules
+				.add(new AdaptiveFlowRule(resource, state.getRoundedLimit())));
+		List<FlowRule> currentAdaptiveRules = new ArrayList<>();
+		List<FlowRule> newRules = new ArrayList<>(currentRules.size() + rules.size());
+		for (FlowRule rule : currentRules) {
+			if (rule instanceof AdaptiveFlowRule) {
+				currentAdaptiveRules.add(rule);
+			}
+			else {
+				newRules.add(rule);
+			}
+		}
+		if (rules.equals(publishedRules)
+				&& new HashSet<>(currentAdaptiveRules).equals(new HashSet<>(rules))) {
+			return;
+		}
+		newRules.addAll(rules);
+		FlowRuleManager.loadRules(newRules);
+		publishedRules = rules;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		if (listenedProperty != null) {
+			listenedProperty.removeListener(rulesListener);
+			listenedProperty = null;
+		}
+	}
+
+	/**
+	 * Publishes the limits again once the rules have been replaced, published rules
+	 * are left as they are.
+	 */
+	private final class RulesListener implements PropertyListener<List<FlowRule>> {
+
+		@Override
+		public void configUpdate(List<FlowRule> value) {
+			publish();
+		}
+
+		@Override
+		public void configLoad(List<FlowRule> value) {
+			publish();
+		}
+
+	}
+
+	/**
+	 * The concurrency limit of a resource and its long term response time.
+	 */
+	static final class LimitState {
+
+		private double limit;
+
+		private double longRt;
+
+		LimitState(double limit) {
+			this.limit = limit;
+		}
+
+		void update(double rt, double inFlight, SentinelProperties.Adaptive properties) {
+			if (rt <= 0) {
+				return;
+			}
+			longRt = longRt == 0 ? rt : longRt + (rt - longRt) / LONG_RT_WINDOW;
+			// let the long term response time recover from a long overload
+			if (longRt / rt > 2) {
+				longRt *= 0.95;
+			}
+			// the limit isn't the bottleneck, don't grow it
+			if (inFlight < limit / 2) {
+				return;
+			}
+			double gradient = Math.max(0.5,
+					Math.min(1.0, properties.getTolerance() * longRt / rt));
+			double newLimit = limit * gradient + Math.sqrt(limit);
+			newLimit = limit * (1 - properties.getSmoothing())
+					+ newLimit * properties.getSmoothing();
+			limit = Math.max(properties.getMinLimit(),
+					Math.min(properties.getMaxLimit(), newLimit));
+		}
+
+		int getRoundedLimit() {
+			return (int) Math.round(limit);
+		}
+
+	}
+
+	/**
+	 * A thread grade flow rule published by the controller.
+	 */
+	static final class AdaptiveFlowRule extends FlowRule {
+
+		AdaptiveFlowRule(String resource, int limit) {
+			super(resource);
+			setGrade(RuleConstant.FLOW_GRADE_THREAD);
+			setCount(limit);
+			setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
+		}
+
+	}
+
+}
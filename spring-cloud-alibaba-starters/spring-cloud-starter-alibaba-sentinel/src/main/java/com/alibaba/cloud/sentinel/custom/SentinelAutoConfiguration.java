@@ -36,6 +36,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import jakarta.annotation.PostConstruct;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
@@ -153,6 +154,46 @@ public class SentinelAutoConfiguration {
 		return new SentinelBeanPostProcessor(applicationContext);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnClass(name = {
+			"org.springframework.web.reactive.function.client.WebClient",
+			"com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer" })
+	@ConditionalOnProperty(name = "webclient.sentinel.enabled", havingValue = "true",
+			matchIfMissing = true)
+	public static SentinelWebClientBeanPostProcessor sentinelWebClientBeanPostProcessor(
+			ObjectProvider<SentinelResourceGuard> resourceGuard) {
+		return new SentinelWebClientBeanPostProcessor(resourceGuard);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = "spring.cloud.sentinel.adaptive.enabled",
+			havingValue = "true")
+	public SentinelAdaptiveFlowController sentinelAdaptiveFlowController() {
+		return new SentinelAdaptiveFlowController(properties.getAdaptive());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = "spring.cloud.sentinel.resource-guard.enabled",
+			havingValue = "true")
+	public SentinelResourceGuard sentinelResourceGuard() {
+		SentinelProperties.ResourceGuard resourceGuard = properties.getResourceGuard();
+		return new SentinelResourceGuard(resourceGuard.isTemplatePaths(),
+				resourceGuard.getMaxResourcesPerPrefix(), resourceGuard.getMaxPrefixes());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = "spring.cloud.sentinel.param-flow.enabled",
+			havingValue = "true")
+	public SentinelParamExtractor sentinelParamExtractor() {
+		SentinelProperties.ParamFlow paramFlow = properties.getParamFlow();
+		return new SentinelParamExtractor(paramFlow.getParams(),
+				paramFlow.getMaxHotValues());
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public SentinelDataSourceHandler sentinelDataSourceHandler(
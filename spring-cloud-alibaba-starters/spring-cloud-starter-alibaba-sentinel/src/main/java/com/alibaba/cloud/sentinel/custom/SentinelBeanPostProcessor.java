@@ -63,6 +63,8 @@ public class SentinelBeanPostProcessor implements MergedBeanDefinitionPostProces
 
 	private ConcurrentHashMap<String, SentinelRestTemplate> cache = new ConcurrentHashMap<>();
 
+	private ConcurrentHashMap<String, Handlers> handlersCache = new ConcurrentHashMap<>();
+
 	@Override
 	public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition,
 			Class<?> beanType, String beanName) {
@@ -77,28 +79,32 @@ public class SentinelBeanPostProcessor implements MergedBeanDefinitionPostProces
 						.getAnnotation(SentinelRestTemplate.class);
 			}
 			// check class and method validation
-			checkSentinelRestTemplate(sentinelRestTemplate, beanName);
+			handlersCache.put(beanName,
+					checkSentinelRestTemplate(sentinelRestTemplate, beanName));
 			cache.put(beanName, sentinelRestTemplate);
 		}
 	}
 
-	private void checkSentinelRestTemplate(SentinelRestTemplate sentinelRestTemplate,
-			String beanName) {
-		checkBlock4RestTemplate(sentinelRestTemplate.blockHandlerClass(),
+	private Handlers checkSentinelRestTemplate(
+			SentinelRestTemplate sentinelRestTemplate, String beanName) {
+		Method blockHandler = checkBlock4RestTemplate(
+				sentinelRestTemplate.blockHandlerClass(),
 				sentinelRestTemplate.blockHandler(), beanName,
 				SentinelConstants.BLOCK_TYPE);
-		checkBlock4RestTemplate(sentinelRestTemplate.fallbackClass(),
+		Method fallback = checkBlock4RestTemplate(sentinelRestTemplate.fallbackClass(),
 				sentinelRestTemplate.fallback(), beanName,
 				SentinelConstants.FALLBACK_TYPE);
-		checkBlock4RestTemplate(sentinelRestTemplate.urlCleanerClass(),
+		Method urlCleaner = checkBlock4RestTemplate(
+				sentinelRestTemplate.urlCleanerClass(),
 				sentinelRestTemplate.urlCleaner(), beanName,
 				SentinelConstants.URLCLEANER_TYPE);
+		return new Handlers(fallback, blockHandler, urlCleaner);
 	}
 
-	private void checkBlock4RestTemplate(Class<?> blockClass, String blockMethod,
+	private Method checkBlock4RestTemplate(Class<?> blockClass, String blockMethod,
 			String beanName, String type) {
 		if (blockClass == void.class && !StringUtils.hasLength(blockMethod)) {
-			return;
+			return null;
 		}
 		if (blockClass != void.class && !StringUtils.hasLength(blockMethod)) {
 			log.error(
@@ -162,6 +168,7 @@ public class SentinelBeanPostProcessor implements MergedBeanDefinitionPostProces
 		else {
 			BlockClassRegistry.updateUrlCleanerFor(blockClass, blockMethod, foundMethod);
 		}
+		return foundMethod;
 	}
 
 	private boolean checkSentinelProtect(RootBeanDefinition beanDefinition,
@@ -196,7 +203,8 @@ public class SentinelBeanPostProcessor implements MergedBeanDefinitionPostProces
 			RestTemplate restTemplate = (RestTemplate) bean;
 			String interceptorBeanName = interceptorBeanNamePrefix + "@"
 					+ bean.toString();
-			registerBean(interceptorBeanName, sentinelRestTemplate, (RestTemplate) bean);
+			registerBean(interceptorBeanName, sentinelRestTemplate, (RestTemplate) bean,
+					handlersCache.get(beanName));
 			SentinelProtectInterceptor sentinelProtectInterceptor = applicationContext
 					.getBean(interceptorBeanName, SentinelProtectInterceptor.class);
 			restTemplate.getInterceptors().add(0, sentinelProtectInterceptor);
@@ -205,7 +213,8 @@ public class SentinelBeanPostProcessor implements MergedBeanDefinitionPostProces
 	}
 
 	private void registerBean(String interceptorBeanName,
-			SentinelRestTemplate sentinelRestTemplate, RestTemplate restTemplate) {
+			SentinelRestTemplate sentinelRestTemplate, RestTemplate restTemplate,
+			Handlers handlers) {
 		// register SentinelProtectInterceptor bean
 		DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) applicationContext
 				.getAutowireCapableBeanFactory();
@@ -213,10 +222,23 @@ public class SentinelBeanPostProcessor implements MergedBeanDefinitionPostProces
 				.genericBeanDefinition(SentinelProtectInterceptor.class);
 		beanDefinitionBuilder.addConstructorArgValue(sentinelRestTemplate);
 		beanDefinitionBuilder.addConstructorArgValue(restTemplate);
+		// bind the handlers directly, nothing is looked up per request
+		beanDefinitionBuilder.addConstructorArgValue(handlers.fallback());
+		beanDefinitionBuilder.addConstructorArgValue(handlers.blockHandler());
+		beanDefinitionBuilder.addConstructorArgValue(handlers.urlCleaner());
+		beanDefinitionBuilder.addConstructorArgValue(applicationContext
+				.getBeanProvider(SentinelResourceGuard.class).getIfAvailable());
 		BeanDefinition interceptorBeanDefinition = beanDefinitionBuilder
 				.getRawBeanDefinition();
 		beanFactory.registerBeanDefinition(interceptorBeanName,
 				interceptorBeanDefinition);
 	}
 
+	/**
+	 * The resolved handler methods of a {@link SentinelRestTemplate}, each may be
+	 * {@code null}.
+	 */
+	private record Handlers(Method fallback, Method blockHandler, Method urlCleaner) {
+	}
+
 }
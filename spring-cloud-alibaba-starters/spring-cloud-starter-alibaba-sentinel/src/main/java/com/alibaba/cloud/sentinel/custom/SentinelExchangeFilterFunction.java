@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import com.alibaba.cloud.sentinel.annotation.SentinelWebClient;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeException;
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+/**
+ * {@link ExchangeFilterFunction} protecting the requests of a
+ * {@link org.springframework.web.reactive.function.client.WebClient} with the same
+ * host and host with path resources as {@link SentinelProtectInterceptor}.
+ * <p>
+ * The entries span the whole exchange, they exit when the response is emitted or the
+ * exchange fails.
+ *
+ * @author agent
+ * @see SentinelWebClient
+ */
+public class SentinelExchangeFilterFunction implements ExchangeFilterFunction {
+
+	/**
+	 * The response body when a request is blocked and no handler is configured.
+	 */
+	public static final String BLOCKED_RESPONSE_BODY = "WebClient request block by sentinel";
+
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(Mono.class,
+			ClientRequest.class, ExchangeFunction.class, BlockException.class);
+
+	private static final MethodType URL_CLEANER_TYPE = MethodType
+			.methodType(String.class, String.class);
+
+	private final MethodHandle fallbackHandle;
+
+	private final MethodHandle blockHandlerHandle;
+
+	private final SentinelResourceNameResolver resourceNameResolver;
+
+	/**
+	 * Create a filter bound to the given handler methods, any of them may be
+	 * {@code null}.
+	 * @param fallback the static fallback method for degraded requests
+	 * @param blockHandler the static block handler method for blocked requests
+	 * @param urlCleaner the static url cleaner method
+	 */
+	public SentinelExchangeFilterFunction(Method fallback, Method blockHandler,
+			Method urlCleaner) {
+		this(fallback, blockHandler, urlCleaner, null);
+	}
+
+	/**
+	 * Create a filter bound to the given handler methods and resource guard, any of them
+	 * may be {@code null}.
+	 * @param fallback the static fallback method for degraded requests
+	 * @param blockHandler the static block handler method for blocked requests
+	 * @param urlCleaner the static url cleaner method
+	 * @param resourceGuard the guard of the resource paths per host
+	 */
+	public SentinelExchangeFilterFunction(Method fallback, Method blockHandler,
+			Method urlCleaner, SentinelResourceGuard resourceGuard) {
+		this.fallbackHandle = SentinelProtectInterceptor.toHandle(fallback,
+				HANDLER_TYPE);
+		this.blockHandlerHandle = SentinelProtectInterceptor.toHandle(blockHandler,
+				HANDLER_TYPE);
+		this.resourceNameResolver = new SentinelResourceNameResolver(
+				SentinelProtectInterceptor.toHandle(urlCleaner, URL_CLEANER_TYPE),
+				resourceGuard);
+	}
+
+	public SentinelExchangeFilterFunction() {
+		this(null, null, null);
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		SentinelResourceNameResolver.ResourceNames resourceNames = resourceNameResolver
+				.resolve(request.method(), request.url());
+		Mono<ClientResponse> response = next.exchange(request);
+		if (resourceNames.entryWithPath()) {
+			response = response.transform(new SentinelReactorTransformer<>(
+					new EntryConfig(resourceNames.hostWithPathResource(),
+							EntryType.OUT)));
+		}
+		return response
+				.transform(new SentinelReactorTransformer<>(
+						new EntryConfig(resourceNames.hostResource(), EntryType.OUT)))
+				.onErrorResume(BlockException::isBlockException,
+						e -> handleBlockException(request, next, (BlockException) e));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Mono<ClientResponse> handleBlockException(ClientRequest request,
+			ExchangeFunction next, BlockException ex) {
+		// handle degrade with the fallback, flow with the block handler
+		MethodHandle handle = ex instanceof DegradeException ? fallbackHandle
+				: blockHandlerHandle;
+		if (handle == null) {
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+					.body(BLOCKED_RESPONSE_BODY).build());
+		}
+		try {
+			return (Mono<ClientResponse>) handle.invokeExact(request, next, ex);
+		}
+		catch (Throwable e) {
+			return Mono.error(e);
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.cloud.sentinel.SentinelProperties;
+import com.alibaba.cloud.sentinel.SentinelProperties.ParamFlow.ParamType;
+import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
+
+/**
+ * Extracts the configured parameters of a web request as the args of its entry, so
+ * that {@link com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule}s can limit
+ * single values of them, like a user or a client.
+ * <p>
+ * The most recent values of each parameter are tracked with their hits in a bounded
+ * LRU, to find the hot values.
+ *
+ * @author agent
+ */
+public class SentinelParamExtractor {
+
+	private final ParamType[] types;
+
+	private final String[] names;
+
+	private final String[] keys;
+
+	private final CacheMap<String, LongAdder>[] hotValues;
+
+	@SuppressWarnings("unchecked")
+	public SentinelParamExtractor(List<SentinelProperties.ParamFlow.Param> params,
+			int maxHotValues) {
+		int size = params.size();
+		this.types = new ParamType[size];
+		this.names = new String[size];
+		this.keys = new String[size];
+		this.hotValues = new CacheMap[size];
+		for (int i = 0; i < size; i++) {
+			SentinelProperties.ParamFlow.Param param = params.get(i);
+			if (param.getType() == null) {
+				throw new IllegalArgumentException(
+						"The type of the hot parameter " + i + " is required");
+			}
+			if (param.getType() != ParamType.CLIENT_IP && param.getName() == null) {
+				throw new IllegalArgumentException("The name of the hot parameter " + i
+						+ " of type " + param.getType() + " is required");
+			}
+			types[i] = param.getType();
+			names[i] = param.getName();
+			keys[i] = param.toString();
+			hotValues[i] = new ConcurrentLinkedHashMapWrapper<>(maxHotValues);
+		}
+	}
+
+	/**
+	 * @param source the request
+	 * @return the values of the parameters, {@code null} for the missing ones
+	 */
+	public Object[] extract(ParamSource source) {
+		Object[] args = new Object[types.length];
+		for (int i = 0; i < types.length; i++) {
+			String value = switch (types[i]) {
+			case HEADER -> source.getHeader(names[i]);
+			case QUERY_PARAM -> source.getQueryParam(names[i]);
+			case CLIENT_IP -> source.getClientIp();
+			case PATH_VARIABLE -> source.getPathVariable(names[i]);
+			};
+			if (value != null) {
+				record(hotValues[i], value);
+			}
+			args[i] = value;
+		}
+		return args;
+	}
+
+	private static void record(CacheMap<String, LongAdder> hotValues, String value) {
+		LongAdder hits = hotValues.get(value);
+		if (hits == null) {
+			LongAdder newHits = new LongAdder();
+			hits = hotValues.putIfAbsent(value, newHits);
+			if (hits == null) {
+				hits = newHits;
+			}
+		}
+		hits.increment();
+	}
+
+	/**
+	 * @param limit the maximum number of values per parameter
+	 * @return the tracked values with the most hits of each parameter
+	 */
+	public Map<String, Map<String, Long>> getHotValues(int limit) {
+		Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			Map<String, Long> values = new LinkedHashMap<>();
+			CacheMap<String, LongAdder> cache = hotValues[i];
+			cache.keySet(false).stream().map(value -> {
+				LongAdder hits = cache.get(value);
+				return Map.entry(value, hits == null ? 0L : hits.sum());
+			}).sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+					.limit(limit)
+					.forEach(entry -> values.put(entry.getKey(), entry.getValue()));
+			result.put(keys[i], values);
+		}
+		return result;
+	}
+
+	/**
+	 * The parameters of a web request.
+	 */
+	public interface ParamSource {
+
+		String getHeader(String name);
+
+		String getQueryParam(String name);
+
+		String getClientIp();
+
+		String getPathVariable(String name);
+
+	}
+
+}
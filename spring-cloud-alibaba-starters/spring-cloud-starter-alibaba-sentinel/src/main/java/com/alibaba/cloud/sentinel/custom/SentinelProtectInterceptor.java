@@ -17,9 +17,10 @@
 package com.alibaba.cloud.sentinel.custom;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.net.URI;
 
 import com.alibaba.cloud.sentinel.annotation.SentinelRestTemplate;
 import com.alibaba.cloud.sentinel.rest.SentinelClientHttpResponse;
@@ -34,44 +35,95 @@ import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Interceptor using by SentinelRestTemplate.
+ * <p>
+ * The handlers of the {@link SentinelRestTemplate} are resolved once, when the
+ * interceptor is created, and the resource names are resolved by a
+ * {@link SentinelResourceNameResolver}.
  *
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
  */
 public class SentinelProtectInterceptor implements ClientHttpRequestInterceptor {
 
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(
+			ClientHttpResponse.class, HttpRequest.class, byte[].class,
+			ClientHttpRequestExecution.class, BlockException.class);
+
+	private static final MethodType URL_CLEANER_TYPE = MethodType
+			.methodType(String.class, String.class);
+
 	private final SentinelRestTemplate sentinelRestTemplate;
 
 	private final RestTemplate restTemplate;
 
+	private final MethodHandle fallbackHandle;
+
+	private final MethodHandle blockHandlerHandle;
+
+	private final SentinelResourceNameResolver resourceNameResolver;
+
 	public SentinelProtectInterceptor(SentinelRestTemplate sentinelRestTemplate,
 			RestTemplate restTemplate) {
+		this(sentinelRestTemplate, restTemplate,
+				BlockClassRegistry.lookupFallback(sentinelRestTemplate.fallbackClass(),
+						sentinelRestTemplate.fallback()),
+				BlockClassRegistry.lookupBlockHandler(
+						sentinelRestTemplate.blockHandlerClass(),
+						sentinelRestTemplate.blockHandler()),
+				BlockClassRegistry.lookupUrlCleaner(
+						sentinelRestTemplate.urlCleanerClass(),
+						sentinelRestTemplate.urlCleaner()));
+	}
+
+	/**
+	 * Create an interceptor bound to the given handler methods, any of them may be
+	 * {@code null}.
+	 * @param sentinelRestTemplate the annotation of the RestTemplate
+	 * @param restTemplate the protected RestTemplate
+	 * @param fallback the static fallback method for degraded requests
+	 * @param blockHandler the static block handler method for blocked requests
+	 * @param urlCleaner the static url cleaner method
+	 */
+	public SentinelProtectInterceptor(SentinelRestTemplate sentinelRestTemplate,
+			RestTemplate restTemplate, Method fallback, Method blockHandler,
+			Method urlCleaner) {
+		this(sentinelRestTemplate, restTemplate, fallback, blockHandler, urlCleaner,
+				null);
+	}
+
+	/**
+	 * Create an interceptor bound to the given handler methods and resource guard, any
+	 * of them may be {@code null}.
+	 * @param sentinelRestTemplate the annotation of the RestTemplate
+	 * @param restTemplate the protected RestTemplate
+	 * @param fallback the static fallback method for degraded requests
+	 * @param blockHandler the static block handler method for blocked requests
+	 * @param urlCleaner the static url cleaner method
+	 * @param resourceGuard the guard of the resource paths per host
+	 */
+	public SentinelProtectInterceptor(SentinelRestTemplate sentinelRestTemplate,
+			RestTemplate restTemplate, Method fallback, Method blockHandler,
+			Method urlCleaner, SentinelResourceGuard resourceGuard) {
 		this.sentinelRestTemplate = sentinelRestTemplate;
 		this.restTemplate = restTemplate;
+		this.fallbackHandle = toHandle(fallback, HANDLER_TYPE);
+		this.blockHandlerHandle = toHandle(blockHandler, HANDLER_TYPE);
+		this.resourceNameResolver = new SentinelResourceNameResolver(
+				toHandle(urlCleaner, URL_CLEANER_TYPE), resourceGuard);
 	}
 
 	@Override
 	public ClientHttpResponse intercept(HttpRequest request, byte[] body,
 			ClientHttpRequestExecution execution) throws IOException {
-		URI uri = request.getURI();
-		String hostResource = request.getMethod().toString() + ":" + uri.getScheme()
-				+ "://" + uri.getHost()
-				+ (uri.getPort() == -1 ? "" : ":" + uri.getPort());
-		String hostWithPathResource = hostResource + uri.getPath();
-		boolean entryWithPath = true;
-		if (hostResource.equals(hostWithPathResource)) {
-			entryWithPath = false;
-		}
-		Method urlCleanerMethod = BlockClassRegistry.lookupUrlCleaner(
-				sentinelRestTemplate.urlCleanerClass(),
-				sentinelRestTemplate.urlCleaner());
-		if (urlCleanerMethod != null) {
-			hostWithPathResource = (String) methodInvoke(urlCleanerMethod,
-					hostWithPathResource);
-		}
+		SentinelResourceNameResolver.ResourceNames resourceNames = resourceNameResolver
+				.resolve(request.getMethod(), request.getURI());
+		String hostResource = resourceNames.hostResource();
+		String hostWithPathResource = resourceNames.hostWithPathResource();
+		boolean entryWithPath = resourceNames.entryWithPath();
 
 		Entry hostEntry = null;
 		Entry hostWithPathEntry = null;
@@ -117,48 +169,46 @@ public class SentinelProtectInterceptor implements ClientHttpRequestInterceptor
 
 	private ClientHttpResponse handleBlockException(HttpRequest request, byte[] body,
 			ClientHttpRequestExecution execution, BlockException ex) {
-		Object[] args = new Object[] { request, body, execution, ex };
 		// handle degrade
 		if (isDegradeFailure(ex)) {
-			Method fallbackMethod = extractFallbackMethod(sentinelRestTemplate.fallback(),
-					sentinelRestTemplate.fallbackClass());
-			if (fallbackMethod != null) {
-				return (ClientHttpResponse) methodInvoke(fallbackMethod, args);
+			if (fallbackHandle != null) {
+				return invokeHandler(fallbackHandle, request, body, execution, ex);
 			}
 			else {
 				return new SentinelClientHttpResponse();
 			}
 		}
 		// handle flow
-		Method blockHandler = extractBlockHandlerMethod(
-				sentinelRestTemplate.blockHandler(),
-				sentinelRestTemplate.blockHandlerClass());
-		if (blockHandler != null) {
-			return (ClientHttpResponse) methodInvoke(blockHandler, args);
+		if (blockHandlerHandle != null) {
+			return invokeHandler(blockHandlerHandle, request, body, execution, ex);
 		}
 		else {
 			return new SentinelClientHttpResponse();
 		}
 	}
 
-	private Object methodInvoke(Method method, Object... args) {
+	private ClientHttpResponse invokeHandler(MethodHandle handle, HttpRequest request,
+			byte[] body, ClientHttpRequestExecution execution, BlockException ex) {
 		try {
-			return method.invoke(null, args);
-		}
-		catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
+			return (ClientHttpResponse) handle.invokeExact(request, body, execution,
+					ex);
 		}
-		catch (InvocationTargetException e) {
+		catch (Throwable e) {
 			throw new RuntimeException(e);
 		}
 	}
 
-	private Method extractFallbackMethod(String fallback, Class<?> fallbackClass) {
-		return BlockClassRegistry.lookupFallback(fallbackClass, fallback);
-	}
-
-	private Method extractBlockHandlerMethod(String block, Class<?> blockClass) {
-		return BlockClassRegistry.lookupBlockHandler(blockClass, block);
+	static MethodHandle toHandle(Method method, MethodType type) {
+		if (method == null) {
+			return null;
+		}
+		try {
+			ReflectionUtils.makeAccessible(method);
+			return MethodHandles.lookup().unreflect(method).asType(type);
+		}
+		catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 
 	private boolean isDegradeFailure(BlockException ex) {
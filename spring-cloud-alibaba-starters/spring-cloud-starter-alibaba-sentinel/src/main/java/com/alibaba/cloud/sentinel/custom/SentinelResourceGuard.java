@@ -0,0 +1,263 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the number of web and client resources created from request paths. Each
+ * resource allocates a cluster node and metric windows in Sentinel, so paths with ids
+ * in them would otherwise create an unbounded number of resources.
+ * <p>
+ * Numeric, UUID and long hexadecimal path segments are replaced by a placeholder, and
+ * once a prefix, like a host or the first segment of the templated path, has reached
+ * the maximum number of paths, its new paths are counted into an overflow resource of
+ * the prefix. Once the maximum number of prefixes is reached, the paths of new prefixes
+ * share a single global overflow resource.
+ *
+ * @author agent
+ */
+public class SentinelResourceGuard {
+
+	/**
+	 * The path of the overflow resource of a prefix.
+	 */
+	public static final String OVERFLOW_PATH = "/{overflow}";
+
+	/**
+	 * The global overflow resource of the paths of the prefixes beyond the maximum.
+	 */
+	public static final String OVERFLOW_RESOURCE = "{overflow}";
+
+	/**
+	 * Default maximum number of prefixes.
+	 */
+	public static final int DEFAULT_MAX_PREFIXES = 1000;
+
+	private static final String NUMBER_SEGMENT = "{number}";
+
+	private static final String UUID_SEGMENT = "{uuid}";
+
+	private static final String HEX_SEGMENT = "{hex}";
+
+	/**
+	 * Minimum length of a hexadecimal segment to be taken as an id.
+	 */
+	private static final int MIN_HEX_ID_LENGTH = 16;
+
+	private final boolean templatePaths;
+
+	private final int maxResourcesPerPrefix;
+
+	private final int maxPrefixes;
+
+	private final Map<String, Set<String>> resources = new ConcurrentHashMap<>();
+
+	private final Map<String, LongAdder> overflowCounts = new ConcurrentHashMap<>();
+
+	public SentinelResourceGuard(boolean templatePaths, int maxResourcesPerPrefix) {
+		this(templatePaths, maxResourcesPerPrefix, DEFAULT_MAX_PREFIXES);
+	}
+
+	public SentinelResourceGuard(boolean templatePaths, int maxResourcesPerPrefix,
+			int maxPrefixes) {
+		this.templatePaths = templatePaths;
+		this.maxResourcesPerPrefix = maxResourcesPerPrefix;
+		this.maxPrefixes = maxPrefixes;
+	}
+
+	/**
+	 * Guard the path of a resource.
+	 * @param prefix the prefix the resource count is limited for
+	 * @param path the request path
+	 * @return the templated path, {@link #OVERFLOW_PATH} if the prefix is full, or
+	 * {@link #OVERFLOW_RESOURCE} if the maximum number of prefixes is reached
+	 */
+	public String guard(String prefix, String path) {
+		if (path == null || path.isEmpty()) {
+			return path;
+		}
+		return admit(prefix, templatePaths ? templatePath(path) : path);
+	}
+
+	/**
+	 * Guard the path of a web resource, limited per first segment of the templated
+	 * path.
+	 * @param path the request path
+	 * @return the templated path, the overflow path of its first segment, or
+	 * {@link #OVERFLOW_PATH} if the maximum number of prefixes is reached
+	 */
+	public String guardPath(String path) {
+		if (path == null || path.isEmpty()) {
+			return path;
+		}
+		String resourcePath = templatePaths ? templatePath(path) : path;
+		int end = resourcePath.indexOf('/', 1);
+		String prefix = end < 0 ? resourcePath : resourcePath.substring(0, end);
+		String guarded = admit(prefix, resourcePath);
+		if (OVERFLOW_RESOURCE.equals(guarded)) {
+			return OVERFLOW_PATH;
+		}
+		return OVERFLOW_PATH.equals(guarded) ? prefix + OVERFLOW_PATH : guarded;
+	}
+
+	/**
+	 * Count a request of an overflow resource, for the callers caching the result of
+	 * {@link #guard(String, String)}.
+	 * @param prefix the prefix of the resource, or {@link #OVERFLOW_RESOURCE}
+	 */
+	void countOverflow(String prefix) {
+		overflowCounts.computeIfAbsent(prefix, key -> new LongAdder()).increment();
+	}
+
+	private String admit(String prefix, String resourcePath) {
+		Set<String> paths = resources.get(prefix);
+		if (paths == null) {
+			synchronized (resources) {
+				paths = resources.get(prefix);
+				if (paths == null) {
+					if (resources.size() >= maxPrefixes) {
+						countOverflow(OVERFLOW_RESOURCE);
+						return OVERFLOW_RESOURCE;
+					}
+					paths = ConcurrentHashMap.newKeySet();
+					resources.put(prefix, paths);
+				}
+			}
+		}
+		if (paths.contains(resourcePath)) {
+			return resourcePath;
+		}
+		synchronized (paths) {
+			if (paths.size() < maxResourcesPerPrefix) {
+				paths.add(resourcePath);
+				return resourcePath;
+			}
+		}
+		countOverflow(prefix);
+		return OVERFLOW_PATH;
+	}
+
+	/**
+	 * @return the number of admitted resource paths
+	 */
+	public int getResourceCount() {
+		int count = 0;
+		for (Set<String> paths : resources.values()) {
+			count += paths.size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of guarded paths mapped to the overflow resources, per prefix
+	 * and for {@link #OVERFLOW_RESOURCE}
+	 */
+	public Map<String, Long> getOverflowCounts() {
+		Map<String, Long> result = new TreeMap<>();
+		overflowCounts.forEach((prefix, count) -> result.put(prefix, count.sum()));
+		return result;
+	}
+
+	/**
+	 * Replace the numeric, UUID and long hexadecimal segments of a path.
+	 * @param path the request path
+	 * @return the templated path, the same instance if nothing is replaced
+	 */
+	public static String templatePath(String path) {
+		StringBuilder result = null;
+		int start = 0;
+		int length = path.length();
+		while (start <= length) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = length;
+			}
+			String placeholder = placeholder(path, start, end);
+			if (placeholder != null) {
+				if (result == null) {
+					result = new StringBuilder(length).append(path, 0, start);
+				}
+				result.append(placeholder);
+			}
+			else if (result != null) {
+				result.append(path, start, end);
+			}
+			if (result != null && end < length) {
+				result.append('/');
+			}
+			start = end + 1;
+		}
+		return result == null ? path : result.toString();
+	}
+
+	private static String placeholder(String path, int start, int end) {
+		int length = end - start;
+		if (length == 0) {
+			return null;
+		}
+		int digitCount = 0;
+		boolean hex = true;
+		for (int i = start; i < end; i++) {
+			char c = path.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digitCount++;
+			}
+			else if (!isHexDigit(c)) {
+				hex = false;
+			}
+		}
+		if (digitCount == length) {
+			return NUMBER_SEGMENT;
+		}
+		// a hexadecimal id has digits, unlike a long word of the letters a to f
+		if (hex && digitCount > 0 && length >= MIN_HEX_ID_LENGTH) {
+			return HEX_SEGMENT;
+		}
+		return isUuid(path, start, end) ? UUID_SEGMENT : null;
+	}
+
+	private static boolean isUuid(String path, int start, int end) {
+		if (end - start != 36) {
+			return false;
+		}
+		for (int i = 0; i < 36; i++) {
+			char c = path.charAt(start + i);
+			if (i == 8 || i == 13 || i == 18 || i == 23) {
+				if (c != '-') {
+					return false;
+				}
+			}
+			else if (!isHexDigit(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Unlike {@link Character#digit(char, int)}, only accepts ASCII digits and letters.
+	 */
+	private static boolean isHexDigit(char c) {
+		return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+	}
+
+}
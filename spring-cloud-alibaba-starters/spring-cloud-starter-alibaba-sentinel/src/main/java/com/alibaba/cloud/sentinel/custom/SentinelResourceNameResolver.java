@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.lang.invoke.MethodHandle;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Resolves the {@code httpmethod:schema://host:port} and
+ * {@code httpmethod:schema://host:port/path} resource names of outbound requests.
+ * <p>
+ * The url cleaner is applied before the resource guard, so the guard limits the
+ * cleaned names. The names of the recently requested hosts and paths are cached,
+ * assuming the url cleaner returns the same name for the same path.
+ *
+ * @author agent
+ */
+final class SentinelResourceNameResolver {
+
+	/**
+	 * Maximum number of cached resource names, the cache is cleared once reached.
+	 */
+	private static final int RESOURCE_CACHE_SIZE = 1024;
+
+	private final MethodHandle urlCleanerHandle;
+
+	private final SentinelResourceGuard resourceGuard;
+
+	private final Map<ResourceKey, ResourceNames> resourceCache = new ConcurrentHashMap<>();
+
+	/**
+	 * @param urlCleanerHandle a {@code (String)String} url cleaner, may be {@code null}
+	 * @param resourceGuard the guard of the paths per host, may be {@code null}
+	 */
+	SentinelResourceNameResolver(MethodHandle urlCleanerHandle,
+			SentinelResourceGuard resourceGuard) {
+		this.urlCleanerHandle = urlCleanerHandle;
+		this.resourceGuard = resourceGuard;
+	}
+
+	ResourceNames resolve(HttpMethod method, URI uri) {
+		ResourceKey key = new ResourceKey(method, uri.getScheme(), uri.getHost(),
+				uri.getPort(), uri.getPath());
+		ResourceNames resourceNames = resourceCache.get(key);
+		if (resourceNames == null) {
+			resourceNames = createResourceNames(key);
+			if (resourceCache.size() >= RESOURCE_CACHE_SIZE) {
+				resourceCache.clear();
+			}
+			resourceCache.put(key, resourceNames);
+		}
+		else if (resourceNames.overflowPrefix() != null) {
+			// the guard counts the overflow of the first request only
+			resourceGuard.countOverflow(resourceNames.overflowPrefix());
+		}
+		return resourceNames;
+	}
+
+	private ResourceNames createResourceNames(ResourceKey key) {
+		String hostResource = key.method().toString() + ":" + key.scheme() + "://"
+				+ key.host() + (key.port() == -1 ? "" : ":" + key.port());
+		String hostWithPathResource = hostResource + key.path();
+		boolean entryWithPath = true;
+		if (hostResource.equals(hostWithPathResource)) {
+			entryWithPath = false;
+		}
+		if (urlCleanerHandle != null) {
+			try {
+				hostWithPathResource = (String) urlCleanerHandle
+						.invokeExact(hostWithPathResource);
+			}
+			catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		}
+		String overflowPrefix = null;
+		if (resourceGuard != null && entryWithPath) {
+			// the cleaned name is guarded, a cleaner may keep or change the host
+			boolean withHost = hostWithPathResource.startsWith(hostResource);
+			String path = withHost
+					? hostWithPathResource.substring(hostResource.length())
+					: hostWithPathResource;
+			String guarded = resourceGuard.guard(hostResource, path);
+			if (SentinelResourceGuard.OVERFLOW_RESOURCE.equals(guarded)) {
+				hostWithPathResource = guarded;
+				overflowPrefix = guarded;
+			}
+			else if (SentinelResourceGuard.OVERFLOW_PATH.equals(guarded)) {
+				hostWithPathResource = hostResource + guarded;
+				overflowPrefix = hostResource;
+			}
+			else if (!path.isEmpty()) {
+				hostWithPathResource = withHost ? hostResource + guarded : guarded;
+			}
+		}
+		return new ResourceNames(hostResource, hostWithPathResource, entryWithPath,
+				overflowPrefix);
+	}
+
+	private record ResourceKey(HttpMethod method, String scheme, String host, int port,
+			String path) {
+	}
+
+	/**
+	 * The resource names of a request.
+	 * @param hostResource the resource of the host
+	 * @param hostWithPathResource the resource of the host and path
+	 * @param entryWithPath whether the request has a path to enter
+	 * @param overflowPrefix the guard prefix of an overflow resource, otherwise
+	 * {@code null}
+	 */
+	record ResourceNames(String hostResource, String hostWithPathResource,
+			boolean entryWithPath, String overflowPrefix) {
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.cloud.sentinel.SentinelConstants;
+import com.alibaba.cloud.sentinel.annotation.SentinelWebClient;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.StandardMethodMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * PostProcessor handle @SentinelWebClient Annotation, add a
+ * {@link SentinelExchangeFilterFunction} to the WebClient.Builder.
+ *
+ * @author agent
+ * @see SentinelWebClient
+ * @see SentinelExchangeFilterFunction
+ */
+public class SentinelWebClientBeanPostProcessor
+		implements MergedBeanDefinitionPostProcessor {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(SentinelWebClientBeanPostProcessor.class);
+
+	private final ConcurrentHashMap<String, SentinelExchangeFilterFunction> cache = new ConcurrentHashMap<>();
+
+	private final ObjectProvider<SentinelResourceGuard> resourceGuard;
+
+	public SentinelWebClientBeanPostProcessor(
+			ObjectProvider<SentinelResourceGuard> resourceGuard) {
+		this.resourceGuard = resourceGuard;
+	}
+
+	public SentinelWebClientBeanPostProcessor() {
+		this(null);
+	}
+
+	@Override
+	public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition,
+			Class<?> beanType, String beanName) {
+		if (checkSentinelProtect(beanDefinition, beanType, beanName)) {
+			SentinelWebClient sentinelWebClient;
+			if (beanDefinition.getSource() instanceof StandardMethodMetadata sentinelSource) {
+				sentinelWebClient = sentinelSource.getIntrospectedMethod()
+						.getAnnotation(SentinelWebClient.class);
+			}
+			else {
+				sentinelWebClient = beanDefinition.getResolvedFactoryMethod()
+						.getAnnotation(SentinelWebClient.class);
+			}
+			// check class and method validation
+			Method blockHandler = checkBlock4WebClient(
+					sentinelWebClient.blockHandlerClass(),
+					sentinelWebClient.blockHandler(), beanName,
+					SentinelConstants.BLOCK_TYPE);
+			Method fallback = checkBlock4WebClient(sentinelWebClient.fallbackClass(),
+					sentinelWebClient.fallback(), beanName,
+					SentinelConstants.FALLBACK_TYPE);
+			Method urlCleaner = checkBlock4WebClient(
+					sentinelWebClient.urlCleanerClass(), sentinelWebClient.urlCleaner(),
+					beanName, SentinelConstants.URLCLEANER_TYPE);
+			cache.put(beanName, new SentinelExchangeFilterFunction(fallback,
+					blockHandler, urlCleaner,
+					resourceGuard == null ? null : resourceGuard.getIfAvailable()));
+		}
+	}
+
+	private Method checkBlock4WebClient(Class<?> blockClass, String blockMethod,
+			String beanName, String type) {
+		if (blockClass == void.class && !StringUtils.hasLength(blockMethod)) {
+			return null;
+		}
+		if (blockClass == void.class || !StringUtils.hasLength(blockMethod)) {
+			log.error("{} class and method attributes must be both set in bean[{}]",
+					type, beanName);
+			throw new IllegalArgumentException(type
+					+ " class and method attributes must be both set in bean["
+					+ beanName + "]");
+		}
+		Class<?>[] args;
+		Class<?> standardReturnType;
+		if (type.equals(SentinelConstants.URLCLEANER_TYPE)) {
+			args = new Class<?>[] {String.class};
+			standardReturnType = String.class;
+		}
+		else {
+			args = new Class<?>[] {ClientRequest.class, ExchangeFunction.class,
+					BlockException.class};
+			standardReturnType = Mono.class;
+		}
+		String argsStr = Arrays.toString(
+				Arrays.stream(args).map(Class::getSimpleName).toArray());
+		Method foundMethod = ClassUtils.getStaticMethod(blockClass, blockMethod, args);
+		if (foundMethod == null
+				|| !standardReturnType.isAssignableFrom(foundMethod.getReturnType())) {
+			log.error(
+					"{} static method returning {} can not be found in bean[{}]: {}#{}{}",
+					type, standardReturnType.getSimpleName(), beanName,
+					blockClass.getName(), blockMethod, argsStr);
+			throw new IllegalArgumentException(type + " static method returning "
+					+ standardReturnType.getSimpleName() + " can not be found in bean["
+					+ beanName + "]: " + blockClass.getName() + "#" + blockMethod
+					+ argsStr);
+		}
+		return foundMethod;
+	}
+
+	private boolean checkSentinelProtect(RootBeanDefinition beanDefinition,
+			Class<?> beanType, String beanName) {
+		return beanName != null && beanType != null
+				&& WebClient.Builder.class.isAssignableFrom(beanType)
+				&& beanDefinition.getSource() instanceof MethodMetadata methodMetadata
+				&& methodMetadata.isAnnotated(SentinelWebClient.class.getName());
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName)
+			throws BeansException {
+		SentinelExchangeFilterFunction filter = beanName == null ? null
+				: cache.get(beanName);
+		if (filter != null && bean instanceof WebClient.Builder builder) {
+			// the sentinel filter is the outermost one, as for RestTemplate
+			builder.filters(filters -> filters.add(0, filter));
+		}
+		return bean;
+	}
+
+}
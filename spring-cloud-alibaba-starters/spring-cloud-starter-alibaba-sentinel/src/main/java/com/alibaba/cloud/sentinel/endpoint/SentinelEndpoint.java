@@ -20,6 +20,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.alibaba.cloud.sentinel.SentinelProperties;
+import com.alibaba.cloud.sentinel.custom.SentinelParamExtractor;
+import com.alibaba.cloud.sentinel.custom.SentinelResourceGuard;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.LogBase;
 import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
@@ -43,10 +45,28 @@ import static com.alibaba.cloud.sentinel.SentinelConstants.BLOCK_PAGE_URL_CONF_K
 @Endpoint(id = "sentinel")
 public class SentinelEndpoint {
 
+	private static final int HOT_VALUES_LIMIT = 10;
+
 	private final SentinelProperties sentinelProperties;
 
+	private final SentinelResourceGuard resourceGuard;
+
+	private final SentinelParamExtractor paramExtractor;
+
 	public SentinelEndpoint(SentinelProperties sentinelProperties) {
+		this(sentinelProperties, null, null);
+	}
+
+	public SentinelEndpoint(SentinelProperties sentinelProperties,
+			SentinelResourceGuard resourceGuard) {
+		this(sentinelProperties, resourceGuard, null);
+	}
+
+	public SentinelEndpoint(SentinelProperties sentinelProperties,
+			SentinelResourceGuard resourceGuard, SentinelParamExtractor paramExtractor) {
 		this.sentinelProperties = sentinelProperties;
+		this.resourceGuard = resourceGuard;
+		this.paramExtractor = paramExtractor;
 	}
 
 	@ReadOperation
@@ -68,6 +88,15 @@ public class SentinelEndpoint {
 			result.put("coldFactor", sentinelProperties.getFlow().getColdFactor());
 			result.put("filter", sentinelProperties.getFilter());
 			result.put("datasource", sentinelProperties.getDatasource());
+			if (resourceGuard != null) {
+				final Map<String, Object> guard = new HashMap<>();
+				guard.put("resourceCount", resourceGuard.getResourceCount());
+				guard.put("overflowCounts", resourceGuard.getOverflowCounts());
+				result.put("resourceGuard", guard);
+			}
+			if (paramExtractor != null) {
+				result.put("hotParams", paramExtractor.getHotValues(HOT_VALUES_LIMIT));
+			}
 
 			final Map<String, Object> rules = new HashMap<>();
 			result.put("rules", rules);
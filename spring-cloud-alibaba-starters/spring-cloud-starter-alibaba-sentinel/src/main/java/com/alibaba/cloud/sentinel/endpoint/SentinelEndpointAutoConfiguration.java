@@ -17,7 +17,11 @@
 package com.alibaba.cloud.sentinel.endpoint;
 
 import com.alibaba.cloud.sentinel.SentinelProperties;
+import com.alibaba.cloud.sentinel.custom.SentinelParamExtractor;
+import com.alibaba.cloud.sentinel.custom.SentinelResourceGuard;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
@@ -37,8 +41,11 @@ public class SentinelEndpointAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	@ConditionalOnAvailableEndpoint
-	public SentinelEndpoint sentinelEndPoint(SentinelProperties sentinelProperties) {
-		return new SentinelEndpoint(sentinelProperties);
+	public SentinelEndpoint sentinelEndPoint(SentinelProperties sentinelProperties,
+			ObjectProvider<SentinelResourceGuard> resourceGuard,
+			ObjectProvider<SentinelParamExtractor> paramExtractor) {
+		return new SentinelEndpoint(sentinelProperties, resourceGuard.getIfAvailable(),
+				paramExtractor.getIfAvailable());
 	}
 
 	@Bean
@@ -46,8 +53,13 @@ public class SentinelEndpointAutoConfiguration {
 	@ConditionalOnEnabledHealthIndicator("sentinel")
 	public SentinelHealthIndicator sentinelHealthIndicator(
 			DefaultListableBeanFactory beanFactory,
-			SentinelProperties sentinelProperties) {
-		return new SentinelHealthIndicator(beanFactory, sentinelProperties);
+			SentinelProperties sentinelProperties,
+			@Value("${management.health.sentinel.data-source-max-age:"
+					+ SentinelHealthIndicator.DEFAULT_DATA_SOURCE_MAX_AGE_MILLIS
+					+ "}") long dataSourceMaxAgeMillis) {
+		return new SentinelHealthIndicator(beanFactory, sentinelProperties,
+				SentinelHealthIndicator.DEFAULT_REFRESH_INTERVAL_MILLIS,
+				dataSourceMaxAgeMillis);
 	}
 
 }
@@ -19,14 +19,24 @@ package com.alibaba.cloud.sentinel.endpoint;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.alibaba.cloud.sentinel.SentinelProperties;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.datasource.AbstractDataSource;
 import com.alibaba.csp.sentinel.heartbeat.HeartbeatSenderProvider;
+import com.alibaba.csp.sentinel.property.PropertyListener;
+import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.transport.HeartbeatSender;
 import com.alibaba.csp.sentinel.transport.config.TransportConfig;
 import com.alibaba.csp.sentinel.transport.endpoint.Endpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.boot.actuate.health.AbstractHealthIndicator;
 import org.springframework.boot.actuate.health.Health;
@@ -42,13 +52,21 @@ import org.springframework.util.CollectionUtils;
  * Check the status of Sentinel Dashboard by sending a heartbeat message to it. If return
  * true, it's OK.
  *
- * Check the status of Sentinel DataSource by calling loadConfig method of
- * {@link AbstractDataSource}. If no Exception thrown, it's OK.
+ * Check the status of Sentinel DataSource by listening to the updates of its property.
+ * A DataSource which has received a config or loaded one within
+ * {@code dataSourceMaxAgeMillis} is OK. Otherwise it's stale and checked again by
+ * calling loadConfig method of {@link AbstractDataSource}. If no Exception thrown, it's
+ * OK.
  *
  * If Dashboard and DataSource are both OK, the health status is UP.
  * </p>
  *
  * <p>
+ * The checks run in the background, every {@code refreshIntervalMillis}, and a health
+ * request returns the last result, only the first request runs the checks itself.
+ * </p>
+ *
+ * <p>
  * Note: If Sentinel isn't enabled, the health status is up. If Sentinel Dashboard isn't
  * configured, it's OK and mark the status of Dashboard with UNKNOWN. More informations
  * are provided in details.
@@ -56,27 +74,98 @@ import org.springframework.util.CollectionUtils;
  *
  * @author cdfive
  */
-public class SentinelHealthIndicator extends AbstractHealthIndicator {
+public class SentinelHealthIndicator extends AbstractHealthIndicator
+		implements DisposableBean {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(SentinelHealthIndicator.class);
+
+	/**
+	 * Default interval of the background checks.
+	 */
+	public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 10000;
+
+	/**
+	 * Default age of the last successful config of a DataSource, after which it's
+	 * checked again.
+	 */
+	public static final long DEFAULT_DATA_SOURCE_MAX_AGE_MILLIS = 60000;
 
 	private DefaultListableBeanFactory beanFactory;
 
 	private SentinelProperties sentinelProperties;
 
+	private final long refreshIntervalMillis;
+
+	private final long dataSourceMaxAgeMillis;
+
+	private final Map<String, DataSourceListener> dataSourceListeners = new ConcurrentHashMap<>();
+
+	private volatile Snapshot snapshot;
+
+	private ScheduledExecutorService scheduler;
+
 	public SentinelHealthIndicator(DefaultListableBeanFactory beanFactory,
 			SentinelProperties sentinelProperties) {
+		this(beanFactory, sentinelProperties, DEFAULT_REFRESH_INTERVAL_MILLIS);
+	}
+
+	public SentinelHealthIndicator(DefaultListableBeanFactory beanFactory,
+			SentinelProperties sentinelProperties, long refreshIntervalMillis) {
+		this(beanFactory, sentinelProperties, refreshIntervalMillis,
+				DEFAULT_DATA_SOURCE_MAX_AGE_MILLIS);
+	}
+
+	public SentinelHealthIndicator(DefaultListableBeanFactory beanFactory,
+			SentinelProperties sentinelProperties, long refreshIntervalMillis,
+			long dataSourceMaxAgeMillis) {
 		this.beanFactory = beanFactory;
 		this.sentinelProperties = sentinelProperties;
+		this.refreshIntervalMillis = refreshIntervalMillis;
+		this.dataSourceMaxAgeMillis = dataSourceMaxAgeMillis;
 	}
 
 	@Override
 	protected void doHealthCheck(Health.Builder builder) throws Exception {
+		Snapshot snapshot = this.snapshot;
+		if (snapshot == null) {
+			snapshot = initialize();
+		}
+		builder.status(snapshot.status()).withDetails(snapshot.details());
+	}
+
+	private synchronized Snapshot initialize() {
+		if (this.snapshot == null) {
+			refresh();
+			scheduler = Executors.newSingleThreadScheduledExecutor(
+					new NamedThreadFactory("sentinel-health-refresh", true));
+			scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+					refreshIntervalMillis, refreshIntervalMillis,
+					TimeUnit.MILLISECONDS);
+		}
+		return this.snapshot;
+	}
+
+	private void refreshQuietly() {
+		try {
+			refresh();
+		}
+		catch (Throwable e) {
+			log.warn("[SentinelHealthIndicator] failed to refresh the health", e);
+		}
+	}
+
+	/**
+	 * Run the checks and replace the cached health.
+	 */
+	void refresh() {
 		Map<String, Object> detailMap = new HashMap<>();
 
 		// If sentinel isn't enabled, set the status up and set the enabled to false in
 		// detail
 		if (!sentinelProperties.isEnabled()) {
 			detailMap.put("enabled", false);
-			builder.up().withDetails(detailMap);
+			this.snapshot = new Snapshot(Status.UP, detailMap);
 			return;
 		}
 
@@ -96,7 +185,13 @@ public class SentinelHealthIndicator extends AbstractHealthIndicator {
 			// result
 			HeartbeatSender heartbeatSender = HeartbeatSenderProvider
 					.getHeartbeatSender();
-			boolean result = heartbeatSender.sendHeartbeat();
+			boolean result;
+			try {
+				result = heartbeatSender.sendHeartbeat();
+			}
+			catch (Exception e) {
+				result = false;
+			}
 			if (result) {
 				detailMap.put("dashboard", Status.UP);
 			}
@@ -115,7 +210,8 @@ public class SentinelHealthIndicator extends AbstractHealthIndicator {
 		Map<String, Object> dataSourceDetailMap = new HashMap<>();
 		detailMap.put("dataSource", dataSourceDetailMap);
 
-		// Get all DataSources and each call loadConfig to check if it's OK
+		// A DataSource which has received or loaded a config within the max age is OK,
+		// the stale ones each call loadConfig to check if it's OK
 		// If no Exception thrown, it's OK
 		// Note:
 		// Even if the dynamic config center is down, the loadConfig() might return
@@ -128,8 +224,16 @@ public class SentinelHealthIndicator extends AbstractHealthIndicator {
 				.entrySet()) {
 			String dataSourceBeanName = dataSourceMapEntry.getKey();
 			AbstractDataSource dataSource = dataSourceMapEntry.getValue();
+			DataSourceListener listener = dataSourceListeners.computeIfAbsent(
+					dataSourceBeanName, name -> DataSourceListener.register(dataSource));
+			if (listener.lastSuccessTime > 0 && System.currentTimeMillis()
+					- listener.lastSuccessTime <= dataSourceMaxAgeMillis) {
+				dataSourceDetailMap.put(dataSourceBeanName, Status.UP);
+				continue;
+			}
 			try {
 				dataSource.loadConfig();
+				listener.lastSuccessTime = System.currentTimeMillis();
 				dataSourceDetailMap.put(dataSourceBeanName, Status.UP);
 			}
 			catch (Exception e) {
@@ -142,12 +246,50 @@ public class SentinelHealthIndicator extends AbstractHealthIndicator {
 		}
 
 		// If Dashboard and DataSource are both OK, the health status is UP
-		if (dashboardUp && dataSourceUp) {
-			builder.up().withDetails(detailMap);
+		this.snapshot = new Snapshot(
+				dashboardUp && dataSourceUp ? Status.UP : Status.UNKNOWN, detailMap);
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
 		}
-		else {
-			builder.unknown().withDetails(detailMap);
+	}
+
+	private record Snapshot(Status status, Map<String, Object> details) {
+	}
+
+	/**
+	 * Records the last time a DataSource received or loaded a config.
+	 */
+	private static final class DataSourceListener implements PropertyListener<Object> {
+
+		private volatile long lastSuccessTime;
+
+		@SuppressWarnings("unchecked")
+		static DataSourceListener register(AbstractDataSource dataSource) {
+			DataSourceListener listener = new DataSourceListener();
+			SentinelProperty<Object> property = dataSource.getProperty();
+			if (property != null) {
+				property.addListener(listener);
+			}
+			return listener;
 		}
+
+		@Override
+		public void configUpdate(Object value) {
+			if (value != null) {
+				lastSuccessTime = System.currentTimeMillis();
+			}
+		}
+
+		@Override
+		public void configLoad(Object value) {
+			// called with the current value once the listener is added, which doesn't
+			// tell when the DataSource loaded it
+		}
+
 	}
 
 }
@@ -16,11 +16,13 @@
 
 package com.alibaba.cloud.sentinel.feign;
 
-import java.util.HashMap;
+import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import feign.Contract;
+import feign.Feign;
 import feign.MethodMetadata;
 
 /**
@@ -38,7 +40,7 @@ public class SentinelContractHolder implements Contract {
 	 * map key is constructed by ClassFullName + configKey. configKey is constructed by
 	 * {@link feign.Feign#configKey}
 	 */
-	public final static Map<String, MethodMetadata> METADATA_MAP = new HashMap<>();
+	public final static Map<String, MethodMetadata> METADATA_MAP = new ConcurrentHashMap<>();
 
 	public SentinelContractHolder(Contract delegate) {
 		this.delegate = delegate;
@@ -52,4 +54,15 @@ public class SentinelContractHolder implements Contract {
 		return metadatas;
 	}
 
+	/**
+	 * Get the metadata of a method of the target type.
+	 * @param targetType the feign client interface
+	 * @param method the invoked method
+	 * @return the metadata, or {@code null} if the type has not been parsed
+	 */
+	public static MethodMetadata getMetadata(Class<?> targetType, Method method) {
+		return METADATA_MAP
+				.get(targetType.getName() + Feign.configKey(targetType, method));
+	}
+
 }
@@ -21,6 +21,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.Map;
 
+import feign.AsyncFeign;
 import feign.Contract;
 import feign.Feign;
 import feign.InvocationHandlerFactory;
@@ -38,7 +39,7 @@ import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
- * {@link Feign.Builder}.
+ * {@link Feign.Builder} and {@link AsyncFeign.AsyncBuilder} guarded by Sentinel.
  *
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
  */
@@ -54,6 +55,10 @@ public final class SentinelFeign {
 		return new Builder();
 	}
 
+	public static <C> AsyncBuilder<C> asyncBuilder() {
+		return new AsyncBuilder<>();
+	}
+
 	public static final class Builder extends Feign.Builder
 			implements ApplicationContextAware {
 
@@ -172,4 +177,48 @@ public final class SentinelFeign {
 
 	}
 
+	/**
+	 * {@link AsyncFeign.AsyncBuilder} guarding the methods returning a
+	 * {@link java.util.concurrent.CompletableFuture} with Sentinel. Spring Cloud
+	 * OpenFeign doesn't create async clients, so the fallback factory is set on the
+	 * builder.
+	 */
+	public static final class AsyncBuilder<C> extends AsyncFeign.AsyncBuilder<C> {
+
+		private Contract contract = new Contract.Default();
+
+		private FallbackFactory<?> fallbackFactory;
+
+		/**
+		 * @param fallbackFactory the fallback factory of the target, may be null
+		 * @return this builder
+		 */
+		public AsyncBuilder<C> fallbackFactory(FallbackFactory<?> fallbackFactory) {
+			this.fallbackFactory = fallbackFactory;
+			return this;
+		}
+
+		@Override
+		public AsyncBuilder<C> invocationHandlerFactory(
+				InvocationHandlerFactory invocationHandlerFactory) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public AsyncBuilder<C> contract(Contract contract) {
+			this.contract = contract;
+			return this;
+		}
+
+		@Override
+		public AsyncFeign<C> build() {
+			super.invocationHandlerFactory((target,
+					dispatch) -> new SentinelInvocationHandler(target, dispatch,
+							fallbackFactory));
+			super.contract(new SentinelContractHolder(contract));
+			return super.build();
+		}
+
+	}
+
 }
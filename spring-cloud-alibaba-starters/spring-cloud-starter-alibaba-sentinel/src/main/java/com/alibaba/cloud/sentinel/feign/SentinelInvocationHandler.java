@@ -16,20 +16,27 @@
 
 package com.alibaba.cloud.sentinel.feign;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
 import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphU;
 import com.alibaba.csp.sentinel.Tracer;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
-import feign.Feign;
 import feign.InvocationHandlerFactory.MethodHandler;
 import feign.MethodMetadata;
 import feign.Target;
@@ -40,112 +47,202 @@ import static feign.Util.checkNotNull;
 
 /**
  * {@link InvocationHandler} handle invocation that protected by Sentinel.
+ * <p>
+ * The resource name, method handler and fallback of each method are resolved once,
+ * when the handler is created. Methods returning a {@link CompletionStage} are guarded
+ * by an {@link AsyncEntry} which exits when the returned stage completes, the fallback
+ * is invoked when it completes exceptionally. Cancelling the future returned to the
+ * caller cancels the stage of the remote call.
  *
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
  */
 public class SentinelInvocationHandler implements InvocationHandler {
 
+	private static final MethodType FALLBACK_TYPE = MethodType.methodType(Object.class,
+			Object.class, Object[].class);
+
 	private final Target<?> target;
 
 	private final Map<Method, MethodHandler> dispatch;
 
 	private FallbackFactory fallbackFactory;
 
-	private Map<Method, Method> fallbackMethodMap;
+	private final Map<Method, MethodDescriptor> descriptors;
 
 	SentinelInvocationHandler(Target<?> target, Map<Method, MethodHandler> dispatch,
 			FallbackFactory fallbackFactory) {
 		this.target = checkNotNull(target, "target");
 		this.dispatch = checkNotNull(dispatch, "dispatch");
 		this.fallbackFactory = fallbackFactory;
-		this.fallbackMethodMap = toFallbackMethod(dispatch);
+		this.descriptors = toDescriptors(target, dispatch, fallbackFactory != null);
 	}
 
 	SentinelInvocationHandler(Target<?> target, Map<Method, MethodHandler> dispatch) {
-		this.target = checkNotNull(target, "target");
-		this.dispatch = checkNotNull(dispatch, "dispatch");
+		this(target, dispatch, null);
 	}
 
 	@Override
 	public Object invoke(final Object proxy, final Method method, final Object[] args)
 			throws Throwable {
-		if ("equals".equals(method.getName())) {
-			try {
-				Object otherHandler = args.length > 0 && args[0] != null
-						? Proxy.getInvocationHandler(args[0])
-						: null;
-				return equals(otherHandler);
+		MethodDescriptor descriptor = this.descriptors.get(method);
+		if (descriptor == null) {
+			if ("equals".equals(method.getName())) {
+				try {
+					Object otherHandler = args.length > 0 && args[0] != null
+							? Proxy.getInvocationHandler(args[0])
+							: null;
+					return equals(otherHandler);
+				}
+				catch (IllegalArgumentException e) {
+					return false;
+				}
 			}
-			catch (IllegalArgumentException e) {
-				return false;
+			else if ("hashCode".equals(method.getName())) {
+				return hashCode();
 			}
+			else if ("toString".equals(method.getName())) {
+				return toString();
+			}
+			return this.dispatch.get(method).invoke(args);
+		}
+
+		// only handle by HardCodedTarget, resource default is HttpMethod:protocol://url
+		if (descriptor.path == null) {
+			return descriptor.methodHandler.invoke(args);
+		}
+		String resourceName = descriptor.getResourceName(target.url());
+		if (descriptor.async) {
+			return invokeAsync(descriptor, resourceName, args);
 		}
-		else if ("hashCode".equals(method.getName())) {
-			return hashCode();
+		Entry entry = null;
+		try {
+			ContextUtil.enter(resourceName);
+			entry = SphU.entry(resourceName, EntryType.OUT, 1, args);
+			return descriptor.methodHandler.invoke(args);
+		}
+		catch (Throwable ex) {
+			// fallback handle
+			if (!BlockException.isBlockException(ex)) {
+				Tracer.traceEntry(ex, entry);
+			}
+			if (fallbackFactory != null) {
+				return invokeFallback(descriptor, ex, args);
+			}
+			else {
+				// throw exception if fallbackFactory is null
+				throw ex;
+			}
 		}
-		else if ("toString".equals(method.getName())) {
-			return toString();
+		finally {
+			if (entry != null) {
+				entry.exit(1, args);
+			}
+			ContextUtil.exit();
 		}
+	}
 
+	private Object invokeAsync(MethodDescriptor descriptor, String resourceName,
+			Object[] args) throws Throwable {
+		AsyncEntry entry = null;
 		Object result;
-		MethodHandler methodHandler = this.dispatch.get(method);
-		// only handle by HardCodedTarget
-		if (target instanceof Target.HardCodedTarget hardCodedTarget) {
-			MethodMetadata methodMetadata = SentinelContractHolder.METADATA_MAP
-					.get(hardCodedTarget.type().getName()
-							+ Feign.configKey(hardCodedTarget.type(), method));
-			// resource default is HttpMethod:protocol://url
-			if (methodMetadata == null) {
-				result = methodHandler.invoke(args);
+		try {
+			ContextUtil.enter(resourceName);
+			entry = SphU.asyncEntry(resourceName, EntryType.OUT, 1, args);
+			result = descriptor.methodHandler.invoke(args);
+		}
+		catch (Throwable ex) {
+			if (entry != null) {
+				Tracer.traceEntry(ex, entry);
+				entry.exit(1, args);
 			}
-			else {
-				String resourceName = methodMetadata.template().method().toUpperCase()
-						+ ":" + hardCodedTarget.url() + methodMetadata.template().path();
-				Entry entry = null;
-				try {
-					ContextUtil.enter(resourceName);
-					entry = SphU.entry(resourceName, EntryType.OUT, 1, args);
-					result = methodHandler.invoke(args);
-				}
-				catch (Throwable ex) {
-					// fallback handle
-					if (!BlockException.isBlockException(ex)) {
-						Tracer.traceEntry(ex, entry);
+			if (fallbackFactory != null) {
+				return invokeFallback(descriptor, ex, args);
+			}
+			throw ex;
+		}
+		finally {
+			ContextUtil.exit();
+		}
+		if (!(result instanceof CompletionStage<?> stage)) {
+			entry.exit(1, args);
+			return result;
+		}
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		AsyncEntry asyncEntry = entry;
+		stage.whenComplete((value, ex) -> ContextUtil
+				.runOnContext(asyncEntry.getAsyncContext(), () -> {
+					Throwable cause = ex instanceof CompletionException
+							&& ex.getCause() != null ? ex.getCause() : ex;
+					if (cause != null && !(cause instanceof CancellationException)) {
+						Tracer.traceEntry(cause, asyncEntry);
+					}
+					asyncEntry.exit(1, args);
+					if (future.isDone()) {
+						// cancelled by the caller
+						return;
 					}
-					if (fallbackFactory != null) {
-						try {
-							Object fallbackResult = fallbackMethodMap.get(method)
-									.invoke(fallbackFactory.create(ex), args);
-							return fallbackResult;
-						}
-						catch (IllegalAccessException e) {
-							// shouldn't happen as method is public due to being an
-							// interface
-							throw new AssertionError(e);
-						}
-						catch (InvocationTargetException e) {
-							throw new AssertionError(e.getCause());
-						}
+					if (cause == null) {
+						future.complete(value);
+					}
+					else if (fallbackFactory != null) {
+						completeWithFallback(future, descriptor, cause, args);
 					}
 					else {
-						// throw exception if fallbackFactory is null
-						throw ex;
+						future.completeExceptionally(cause);
 					}
+				}));
+		// cancel the remote call, which completes the stage and exits the entry
+		future.whenComplete((value, ex) -> {
+			if (future.isCancelled()) {
+				cancel(stage);
+			}
+		});
+		return future;
+	}
+
+	private static void cancel(CompletionStage<?> stage) {
+		try {
+			stage.toCompletableFuture().cancel(true);
+		}
+		catch (UnsupportedOperationException e) {
+			// the stage can't be cancelled, its entry exits once it completes
+		}
+	}
+
+	private void completeWithFallback(CompletableFuture<Object> future,
+			MethodDescriptor descriptor, Throwable cause, Object[] args) {
+		Object fallbackResult;
+		try {
+			fallbackResult = invokeFallback(descriptor, cause, args);
+		}
+		catch (Throwable e) {
+			future.completeExceptionally(e);
+			return;
+		}
+		if (fallbackResult instanceof CompletionStage<?> fallbackStage) {
+			fallbackStage.whenComplete((value, ex) -> {
+				if (ex == null) {
+					future.complete(value);
 				}
-				finally {
-					if (entry != null) {
-						entry.exit(1, args);
-					}
-					ContextUtil.exit();
+				else {
+					future.completeExceptionally(ex);
 				}
-			}
+			});
 		}
 		else {
-			// other target type using default strategy
-			result = methodHandler.invoke(args);
+			future.complete(fallbackResult);
 		}
+	}
 
-		return result;
+	private Object invokeFallback(MethodDescriptor descriptor, Throwable ex,
+			Object[] args) {
+		Object fallback = fallbackFactory.create(ex);
+		try {
+			return descriptor.fallback.invokeExact(fallback, args);
+		}
+		catch (Throwable e) {
+			throw new AssertionError(e);
+		}
 	}
 
 	@Override
@@ -166,13 +263,75 @@ public class SentinelInvocationHandler implements InvocationHandler {
 		return target.toString();
 	}
 
-	static Map<Method, Method> toFallbackMethod(Map<Method, MethodHandler> dispatch) {
-		Map<Method, Method> result = new LinkedHashMap<>();
-		for (Method method : dispatch.keySet()) {
+	static Map<Method, MethodDescriptor> toDescriptors(Target<?> target,
+			Map<Method, MethodHandler> dispatch, boolean withFallback) {
+		Map<Method, MethodDescriptor> result = new HashMap<>();
+		for (Map.Entry<Method, MethodHandler> entry : dispatch.entrySet()) {
+			Method method = entry.getKey();
+			MethodMetadata methodMetadata = null;
+			if (target instanceof Target.HardCodedTarget) {
+				methodMetadata = SentinelContractHolder.getMetadata(target.type(),
+						method);
+			}
+			result.put(method, new MethodDescriptor(method, entry.getValue(),
+					methodMetadata, withFallback ? toFallbackHandle(method) : null));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	private static MethodHandle toFallbackHandle(Method method) {
+		try {
 			method.setAccessible(true);
-			result.put(method, method);
+			return MethodHandles.lookup().unreflect(method)
+					.asSpreader(Object[].class, method.getParameterCount())
+					.asType(FALLBACK_TYPE);
 		}
-		return result;
+		catch (IllegalAccessException e) {
+			// shouldn't happen as method is public due to being an interface
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * The invocation data of a method of the target, immutable except for the resource
+	 * name which follows the url of the target.
+	 */
+	static final class MethodDescriptor {
+
+		private final MethodHandler methodHandler;
+
+		private final String resourcePrefix;
+
+		private final String path;
+
+		private final MethodHandle fallback;
+
+		private final boolean async;
+
+		private volatile ResourceName resourceName;
+
+		private MethodDescriptor(Method method, MethodHandler methodHandler,
+				MethodMetadata methodMetadata, MethodHandle fallback) {
+			this.methodHandler = methodHandler;
+			this.resourcePrefix = methodMetadata == null ? null
+					: methodMetadata.template().method().toUpperCase() + ":";
+			this.path = methodMetadata == null ? null : methodMetadata.template().path();
+			this.fallback = fallback;
+			this.async = CompletionStage.class.isAssignableFrom(method.getReturnType());
+		}
+
+		private String getResourceName(String url) {
+			ResourceName resourceName = this.resourceName;
+			if (resourceName == null || !resourceName.url().equals(url)) {
+				resourceName = new ResourceName(url, resourcePrefix + url + path);
+				this.resourceName = resourceName;
+			}
+			return resourceName.name();
+		}
+
+	}
+
+	private record ResourceName(String url, String name) {
 	}
 
 }
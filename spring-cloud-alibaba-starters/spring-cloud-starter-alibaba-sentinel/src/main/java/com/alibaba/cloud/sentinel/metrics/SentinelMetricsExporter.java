@@ -0,0 +1,373 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotEntryCallback;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityException;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowException;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowException;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.slots.statistic.StatisticSlotCallbackRegistry;
+import com.alibaba.csp.sentinel.slots.system.SystemBlockException;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Exports the statistics of the Sentinel resources to Micrometer.
+ * <p>
+ * The {@link ClusterNode} of each resource is read every {@code intervalMillis} in the
+ * background, only the {@code topN} resources with the most requests of the last minute
+ * are exported, tagged by the resource name. The counters are fed with the completed
+ * seconds of the minute statistics, so nothing is added to the entry of a resource. The
+ * totals of a resource once exported keep being counted while it is not on top, so its
+ * counters resume from them rather than from zero when it is on top again.
+ * <p>
+ * Sentinel does not count the blocked entries by rule type, so the block counts by rule
+ * type are only exported if {@code blockByRule}, by a callback of every entry.
+ *
+ * @author agent
+ */
+public class SentinelMetricsExporter implements MeterBinder, DisposableBean {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(SentinelMetricsExporter.class);
+
+	private static final String CALLBACK_KEY = SentinelMetricsExporter.class.getName();
+
+	private static final String RESOURCE_TAG = "resource";
+
+	private final long intervalMillis;
+
+	private final int topN;
+
+	private final boolean blockByRule;
+
+	private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+	/**
+	 * The resources exported at least once, by name.
+	 */
+	private final Map<String, ResourceMetrics> resources = new LinkedHashMap<>();
+
+	private final Map<String, LongAdder> blockCounts = new LinkedHashMap<>();
+
+	private ScheduledExecutorService scheduler;
+
+	public SentinelMetricsExporter(long intervalMillis, int topN) {
+		this(intervalMillis, topN, false);
+	}
+
+	public SentinelMetricsExporter(long intervalMillis, int topN, boolean blockByRule) {
+		this.intervalMillis = intervalMillis;
+		this.topN = topN;
+		this.blockByRule = blockByRule;
+		if (!blockByRule) {
+			return;
+		}
+		for (String ruleType : new String[] {"flow", "degrade", "system", "authority",
+				"param-flow", "other"}) {
+			blockCounts.put(ruleType, new LongAdder());
+		}
+	}
+
+	@Override
+	public synchronized void bindTo(MeterRegistry registry) {
+		registries.add(registry);
+		blockCounts.forEach((ruleType, count) -> FunctionCounter
+				.builder("sentinel.block.rule", count, LongAdder::sum)
+				.tag("rule", ruleType)
+				.description("The number of blocked requests by rule type")
+				.register(registry));
+		resources.values().stream().filter(ResourceMetrics::isExported)
+				.forEach(metrics -> metrics.register(registry));
+		if (scheduler == null) {
+			if (blockByRule) {
+				StatisticSlotCallbackRegistry.addEntryCallback(CALLBACK_KEY,
+						new BlockCallback());
+			}
+			scheduler = Executors.newSingleThreadScheduledExecutor(
+					new NamedThreadFactory("sentinel-micrometer-exporter", true));
+			scheduler.scheduleWithFixedDelay(this::sampleQuietly, intervalMillis,
+					intervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void sampleQuietly() {
+		try {
+			sample();
+		}
+		catch (Throwable e) {
+			log.warn("[SentinelMetricsExporter] failed to read the resource statistics",
+					e);
+		}
+	}
+
+	/**
+	 * Read the statistics of the resources exported at least once, export the top
+	 * resources and remove the meters of the resources which are no longer on top.
+	 * Resources without a cluster node anymore are forgotten.
+	 */
+	synchronized void sample() {
+		long currentSecond = TimeUtil.currentTimeMillis() / 1000 * 1000;
+		Map<String, ClusterNode> nodes = new HashMap<>();
+		for (Map.Entry<ResourceWrapper, ClusterNode> entry : ClusterBuilderSlot
+				.getClusterNodeMap().entrySet()) {
+			nodes.put(entry.getKey().getName(), entry.getValue());
+		}
+		Set<String> top = selectTop(nodes);
+		top.forEach(resource -> resources.computeIfAbsent(resource, ResourceMetrics::new));
+		resources.entrySet().removeIf(entry -> {
+			ResourceMetrics metrics = entry.getValue();
+			ClusterNode node = nodes.get(entry.getKey());
+			if (node == null) {
+				metrics.remove();
+				return true;
+			}
+			metrics.update(node, currentSecond);
+			if (top.contains(entry.getKey())) {
+				metrics.export(registries);
+			}
+			else {
+				metrics.remove();
+			}
+			return false;
+		});
+	}
+
+	private Set<String> selectTop(Map<String, ClusterNode> nodes) {
+		PriorityQueue<Map.Entry<String, ClusterNode>> queue = new PriorityQueue<>(
+				Comparator.comparingLong(entry -> entry.getValue().totalRequest()));
+		for (Map.Entry<String, ClusterNode> entry : nodes.entrySet()) {
+			if (entry.getValue().totalRequest() == 0) {
+				continue;
+			}
+			queue.add(entry);
+			if (queue.size() > topN) {
+				queue.poll();
+			}
+		}
+		Set<String> result = new HashSet<>();
+		for (Map.Entry<String, ClusterNode> entry : queue) {
+			result.add(entry.getKey());
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			if (blockByRule) {
+				StatisticSlotCallbackRegistry.removeEntryCallback(CALLBACK_KEY);
+			}
+		}
+		resources.values().forEach(ResourceMetrics::remove);
+		resources.clear();
+	}
+
+	private static String ruleType(BlockException ex) {
+		if (ex instanceof FlowException) {
+			return "flow";
+		}
+		if (ex instanceof DegradeException) {
+			return "degrade";
+		}
+		if (ex instanceof SystemBlockException) {
+			return "system";
+		}
+		if (ex instanceof AuthorityException) {
+			return "authority";
+		}
+		if (ex instanceof ParamFlowException) {
+			return "param-flow";
+		}
+		return "other";
+	}
+
+	/**
+	 * Counts the blocked entries by rule type, passed entries are ignored.
+	 */
+	private final class BlockCallback implements ProcessorSlotEntryCallback<DefaultNode> {
+
+		@Override
+		public void onPass(Context context, ResourceWrapper resourceWrapper,
+				DefaultNode param, int count, Object... args) {
+		}
+
+		@Override
+		public void onBlocked(BlockException ex, Context context,
+				ResourceWrapper resourceWrapper, DefaultNode param, int count,
+				Object... args) {
+			blockCounts.get(ruleType(ex)).add(count);
+		}
+
+	}
+
+	/**
+	 * The statistics and meters of a resource, updated by the sampling thread only. The
+	 * meters are only registered while the resource is exported.
+	 */
+	private static final class ResourceMetrics {
+
+		private final String resource;
+
+		private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+		private final List<MeterRegistry> meterRegistries = new CopyOnWriteArrayList<>();
+
+		private volatile double passQps;
+
+		private volatile double blockQps;
+
+		private volatile double successQps;
+
+		private volatile double exceptionQps;
+
+		private volatile double rt;
+
+		private volatile int threads;
+
+		private volatile long pass;
+
+		private volatile long block;
+
+		private volatile long success;
+
+		private volatile long exception;
+
+		private long lastTimestamp;
+
+		private boolean exported;
+
+		private ResourceMetrics(String resource) {
+			this.resource = resource;
+		}
+
+		private boolean isExported() {
+			return exported;
+		}
+
+		private void export(List<MeterRegistry> registries) {
+			if (!exported) {
+				exported = true;
+				registries.forEach(this::register);
+			}
+		}
+
+		private void update(ClusterNode node, long currentSecond) {
+			passQps = node.passQps();
+			blockQps = node.blockQps();
+			successQps = node.successQps();
+			exceptionQps = node.exceptionQps();
+			rt = node.avgRt();
+			threads = node.curThreadNum();
+			long since = lastTimestamp;
+			List<MetricNode> metricNodes = node
+					.rawMetricsInMin(time -> time > since && time < currentSecond);
+			long maxTimestamp = since;
+			for (MetricNode metricNode : metricNodes) {
+				pass += metricNode.getPassQps();
+				block += metricNode.getBlockQps();
+				success += metricNode.getSuccessQps();
+				exception += metricNode.getExceptionQps();
+				maxTimestamp = Math.max(maxTimestamp, metricNode.getTimestamp());
+			}
+			lastTimestamp = maxTimestamp;
+		}
+
+		private void register(MeterRegistry registry) {
+			meterRegistries.add(registry);
+			gauge(registry, "sentinel.pass.qps", m -> m.passQps,
+					"The passed requests per second");
+			gauge(registry, "sentinel.block.qps", m -> m.blockQps,
+					"The blocked requests per second");
+			gauge(registry, "sentinel.success.qps", m -> m.successQps,
+					"The completed requests per second");
+			gauge(registry, "sentinel.exception.qps", m -> m.exceptionQps,
+					"The failed requests per second");
+			gauge(registry, "sentinel.rt", m -> m.rt,
+					"The average response time in milliseconds");
+			gauge(registry, "sentinel.thread.count", m -> m.threads,
+					"The number of concurrent requests");
+			counter(registry, "sentinel.pass.requests", m -> m.pass,
+					"The number of passed requests");
+			counter(registry, "sentinel.block.requests", m -> m.block,
+					"The number of blocked requests");
+			counter(registry, "sentinel.success.requests", m -> m.success,
+					"The number of completed requests");
+			counter(registry, "sentinel.exception.requests", m -> m.exception,
+					"The number of failed requests");
+		}
+
+		private void gauge(MeterRegistry registry, String name,
+				ToDoubleFunction<ResourceMetrics> value, String description) {
+			meters.add(Gauge.builder(name, this, value).tag(RESOURCE_TAG, resource)
+					.description(description).register(registry));
+		}
+
+		private void counter(MeterRegistry registry, String name,
+				ToDoubleFunction<ResourceMetrics> value, String description) {
+			meters.add(FunctionCounter.builder(name, this, value)
+					.tag(RESOURCE_TAG, resource).description(description)
+					.register(registry));
+		}
+
+		private void remove() {
+			exported = false;
+			List<Meter> removed = new ArrayList<>(meters);
+			for (MeterRegistry registry : meterRegistries) {
+				removed.forEach(registry::remove);
+			}
+			meters.clear();
+			meterRegistries.clear();
+		}
+
+	}
+
+}
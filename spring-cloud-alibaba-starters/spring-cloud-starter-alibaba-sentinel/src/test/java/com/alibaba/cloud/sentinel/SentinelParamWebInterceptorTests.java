@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.cloud.sentinel.SentinelProperties.ParamFlow.ParamType;
+import com.alibaba.cloud.sentinel.custom.SentinelParamExtractor;
+import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.DefaultBlockExceptionHandler;
+import com.alibaba.csp.sentinel.adapter.spring.webmvc.config.SentinelWebMvcConfig;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for {@link SentinelParamWebInterceptor}.
+ *
+ * @author agent
+ */
+public class SentinelParamWebInterceptorTests {
+
+	private static final String RESOURCE_NAME = "/param/{id}";
+
+	private SentinelParamExtractor paramExtractor;
+
+	private SentinelParamWebInterceptor interceptor;
+
+	@Before
+	public void setUp() {
+		SentinelProperties.ParamFlow.Param user = new SentinelProperties.ParamFlow.Param();
+		user.setType(ParamType.HEADER);
+		user.setName("X-User-Id");
+		SentinelProperties.ParamFlow.Param id = new SentinelProperties.ParamFlow.Param();
+		id.setType(ParamType.PATH_VARIABLE);
+		id.setName("id");
+		paramExtractor = new SentinelParamExtractor(List.of(user, id), 100);
+
+		SentinelWebMvcConfig config = new SentinelWebMvcConfig();
+		config.setBlockExceptionHandler(new DefaultBlockExceptionHandler());
+		interceptor = new SentinelParamWebInterceptor(config, paramExtractor);
+
+		ParamFlowRule rule = new ParamFlowRule(RESOURCE_NAME).setParamIdx(0).setCount(1);
+		ParamFlowRuleManager.loadRules(Collections.singletonList(rule));
+	}
+
+	@After
+	public void tearDown() {
+		ParamFlowRuleManager.loadRules(Collections.emptyList());
+	}
+
+	@Test
+	public void testHotParamIsLimitedAlone() throws Exception {
+		int blocked = 0;
+		for (int i = 0; i < 5; i++) {
+			if (!handle("abuser")) {
+				blocked++;
+			}
+		}
+		assertThat(blocked).isGreaterThan(0);
+		assertThat(handle("tenant")).isTrue();
+
+		Map<String, Map<String, Long>> hotValues = paramExtractor.getHotValues(1);
+		assertThat(hotValues.get("HEADER:X-User-Id")).containsEntry("abuser", 5L);
+		assertThat(hotValues.get("PATH_VARIABLE:id")).containsEntry("42", 6L);
+	}
+
+	@Test
+	public void testThreadsOfHotParamAreReleased() throws Exception {
+		ParamFlowRule rule = new ParamFlowRule(RESOURCE_NAME).setParamIdx(0).setCount(1)
+				.setGrade(RuleConstant.FLOW_GRADE_THREAD);
+		ParamFlowRuleManager.loadRules(Collections.singletonList(rule));
+		for (int i = 0; i < 5; i++) {
+			assertThat(handle("tenant")).isTrue();
+		}
+	}
+
+	private boolean handle(String user) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/param/42");
+		request.addHeader("X-User-Id", user);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+				RESOURCE_NAME);
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+				Collections.singletonMap("id", "42"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		boolean passed = interceptor.preHandle(request, response, null);
+		if (passed) {
+			interceptor.afterCompletion(request, response, null, null);
+		}
+		else {
+			assertThat(response.getStatus()).isEqualTo(429);
+		}
+		return passed;
+	}
+
+}
@@ -16,10 +16,18 @@
 
 package com.alibaba.cloud.sentinel;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.alibaba.cloud.sentinel.annotation.SentinelRestTemplate;
 import com.alibaba.cloud.sentinel.custom.SentinelBeanPostProcessor;
+import com.alibaba.cloud.sentinel.custom.SentinelProtectInterceptor;
 import com.alibaba.cloud.sentinel.rest.SentinelClientHttpResponse;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import org.junit.Test;
 
 import org.springframework.beans.factory.BeanCreationException;
@@ -27,8 +35,12 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -110,6 +122,35 @@ public class SentinelRestTemplateTests {
 		new AnnotationConfigApplicationContext(TestConfig14.class);
 	}
 
+	@Test
+	public void testInterceptorHandlers() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				TestConfig15.class);
+		SentinelProtectInterceptor interceptor = (SentinelProtectInterceptor) context
+				.getBean(RestTemplate.class).getInterceptors().get(0);
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+				URI.create("http://localhost:8080/test"));
+		UrlCleanUtil.CLEANED.set(0);
+		interceptor.intercept(request, new byte[0],
+				(req, body) -> new SentinelClientHttpResponse("ok"));
+		interceptor.intercept(request, new byte[0],
+				(req, body) -> new SentinelClientHttpResponse("ok"));
+		assertThat(UrlCleanUtil.CLEANED.get()).isEqualTo(1);
+
+		FlowRule rule = new FlowRule("GET:http://localhost:8080");
+		rule.setCount(0);
+		FlowRuleManager.loadRules(Collections.singletonList(rule));
+		try {
+			ClientHttpResponse response = interceptor.intercept(request, new byte[0],
+					(req, body) -> new SentinelClientHttpResponse("ok"));
+			assertThat(StreamUtils.copyToString(response.getBody(),
+					StandardCharsets.UTF_8)).isEqualTo("Oops");
+		}
+		finally {
+			FlowRuleManager.loadRules(Collections.emptyList());
+		}
+	}
+
 	@Configuration
 	public static class TestConfig1 {
 
@@ -372,6 +413,27 @@ public class SentinelRestTemplateTests {
 
 	}
 
+	@Configuration
+	public static class TestConfig15 {
+
+		@Bean
+		SentinelBeanPostProcessor sentinelBeanPostProcessor(
+				ApplicationContext applicationContext) {
+			return new SentinelBeanPostProcessor(applicationContext);
+		}
+
+		@Bean
+		@SentinelRestTemplate(
+				blockHandlerClass = SentinelRestTemplateTests.ExceptionUtil.class,
+				blockHandler = "handleException",
+				urlCleanerClass = SentinelRestTemplateTests.UrlCleanUtil.class,
+				urlCleaner = "countingClean")
+		RestTemplate restTemplate() {
+			return new RestTemplate();
+		}
+
+	}
+
 	public static class ExceptionUtil {
 
 		public static SentinelClientHttpResponse handleException(HttpRequest request,
@@ -400,6 +462,13 @@ public class SentinelRestTemplateTests {
 
 	public static class UrlCleanUtil {
 
+		static final AtomicInteger CLEANED = new AtomicInteger();
+
+		public static String countingClean(String url) {
+			CLEANED.incrementAndGet();
+			return url;
+		}
+
 		public static String clean(String url) {
 			return url;
 		}
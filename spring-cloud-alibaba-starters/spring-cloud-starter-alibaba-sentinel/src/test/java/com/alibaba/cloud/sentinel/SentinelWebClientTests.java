@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel;
+
+import java.util.Collections;
+
+import com.alibaba.cloud.sentinel.annotation.SentinelWebClient;
+import com.alibaba.cloud.sentinel.custom.SentinelWebClientBeanPostProcessor;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class SentinelWebClientTests {
+
+	@After
+	public void cleanUp() {
+		FlowRuleManager.loadRules(Collections.emptyList());
+	}
+
+	@Test
+	public void testBlockHandler() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				TestConfig1.class);
+		WebClient webClient = context.getBean(WebClient.Builder.class).build();
+		assertThat(get(webClient, "http://localhost:8080/test")).isEqualTo("ok");
+
+		FlowRule rule = new FlowRule("GET:http://localhost:8080/cleaned");
+		rule.setCount(0);
+		FlowRuleManager.loadRules(Collections.singletonList(rule));
+		assertThat(get(webClient, "http://localhost:8080/test")).isEqualTo("Oops");
+		assertThat(get(webClient, "http://localhost:8081/test")).isEqualTo("Oops");
+		context.close();
+	}
+
+	@Test(expected = BeanCreationException.class)
+	public void testBadBlockHandler() {
+		new AnnotationConfigApplicationContext(TestConfig2.class);
+	}
+
+	private String get(WebClient webClient, String url) {
+		return webClient.get().uri(url).retrieve().bodyToMono(String.class).block();
+	}
+
+	@Configuration
+	public static class TestConfig1 {
+
+		@Bean
+		static SentinelWebClientBeanPostProcessor sentinelWebClientBeanPostProcessor() {
+			return new SentinelWebClientBeanPostProcessor();
+		}
+
+		@Bean
+		@SentinelWebClient(blockHandlerClass = ExceptionUtil.class,
+				blockHandler = "handleException",
+				urlCleanerClass = UrlCleanUtil.class, urlCleaner = "clean")
+		WebClient.Builder webClientBuilder() {
+			ExchangeFunction exchangeFunction = request -> Mono
+					.just(ClientResponse.create(HttpStatus.OK).body("ok").build());
+			return WebClient.builder().exchangeFunction(exchangeFunction);
+		}
+
+	}
+
+	@Configuration
+	public static class TestConfig2 {
+
+		@Bean
+		static SentinelWebClientBeanPostProcessor sentinelWebClientBeanPostProcessor() {
+			return new SentinelWebClientBeanPostProcessor();
+		}
+
+		@Bean
+		@SentinelWebClient(blockHandlerClass = ExceptionUtil.class,
+				blockHandler = "handleException1")
+		WebClient.Builder webClientBuilder() {
+			return WebClient.builder();
+		}
+
+	}
+
+	public static class ExceptionUtil {
+
+		public static Mono<ClientResponse> handleException(ClientRequest request,
+				ExchangeFunction next, BlockException ex) {
+			return Mono.just(ClientResponse.create(HttpStatus.OK).body("Oops").build());
+		}
+
+	}
+
+	public static class UrlCleanUtil {
+
+		public static String clean(String url) {
+			return url.replaceAll(":\\d+/test$", ":8080/cleaned");
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.cloud.sentinel.SentinelProperties;
+import com.alibaba.cloud.sentinel.custom.SentinelAdaptiveFlowController.LimitState;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for {@link SentinelAdaptiveFlowController}.
+ *
+ * @author agent
+ */
+public class SentinelAdaptiveFlowControllerTests {
+
+	private final SentinelProperties.Adaptive properties = new SentinelProperties.Adaptive();
+
+	@After
+	public void tearDown() {
+		FlowRuleManager.loadRules(Collections.emptyList());
+	}
+
+	@Test
+	public void testLimitFollowsResponseTime() {
+		LimitState state = new LimitState(20);
+		for (int i = 0; i < 10; i++) {
+			state.update(10, 20, properties);
+		}
+		int grownLimit = state.getRoundedLimit();
+		assertThat(grownLimit).isGreaterThan(20);
+
+		// not in use, doesn't grow
+		state.update(10, 1.5, properties);
+		assertThat(state.getRoundedLimit()).isEqualTo(grownLimit);
+
+		for (int i = 0; i < 10; i++) {
+			state.update(100, grownLimit, properties);
+		}
+		assertThat(state.getRoundedLimit()).isLessThan(grownLimit)
+				.isGreaterThanOrEqualTo(properties.getMinLimit());
+	}
+
+	@Test
+	public void testPublishKeepsOtherRules() {
+		FlowRule staticRule = new FlowRule("static");
+		staticRule.setCount(10);
+		FlowRuleManager.loadRules(Collections.singletonList(staticRule));
+		properties.setResources(Collections.singletonList("adaptive"));
+		SentinelAdaptiveFlowController controller = new SentinelAdaptiveFlowController(
+				properties);
+
+		controller.publish();
+		List<FlowRule> rules = FlowRuleManager.getRules();
+		assertThat(rules).hasSize(2).contains(staticRule);
+		FlowRule adaptiveRule = FlowRuleManager.getRules().stream()
+				.filter(rule -> rule.getResource().equals("adaptive")).findFirst()
+				.get();
+		assertThat(adaptiveRule.getGrade()).isEqualTo(RuleConstant.FLOW_GRADE_THREAD);
+		assertThat(adaptiveRule.getCount())
+				.isEqualTo(controller.getLimit("adaptive"));
+
+		// a data source replaces the rules
+		FlowRuleManager.loadRules(Collections.singletonList(staticRule));
+		controller.publish();
+		assertThat(FlowRuleManager.getRules()).hasSize(2);
+	}
+
+	@Test
+	public void testRepublishOnceRulesReplaced() {
+		FlowRule staticRule = new FlowRule("static");
+		staticRule.setCount(10);
+		properties.setResources(Collections.singletonList("adaptive"));
+		SentinelAdaptiveFlowController controller = new SentinelAdaptiveFlowController(
+				properties);
+		try {
+			controller.listenRules();
+			assertThat(FlowRuleManager.getRules()).hasSize(1);
+
+			// a data source replaces the rules
+			FlowRuleManager.loadRules(Collections.singletonList(staticRule));
+			assertThat(FlowRuleManager.getRules()).hasSize(2).contains(staticRule);
+		}
+		finally {
+			controller.destroy();
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.custom;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URI;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for {@link SentinelResourceGuard}.
+ *
+ * @author agent
+ */
+public class SentinelResourceGuardTests {
+
+	@Test
+	public void testTemplatePath() {
+		assertThat(SentinelResourceGuard.templatePath("/users/42/orders/7"))
+				.isEqualTo("/users/{number}/orders/{number}");
+		assertThat(SentinelResourceGuard
+				.templatePath("/files/123e4567-e89b-12d3-a456-426614174000/"))
+				.isEqualTo("/files/{uuid}/");
+		assertThat(SentinelResourceGuard.templatePath("/docs/5f1d7a2b9c8e4d3f2a1b0c9d"))
+				.isEqualTo("/docs/{hex}");
+		String path = "/v1/deadbeefcafebabeface/echo";
+		assertThat(SentinelResourceGuard.templatePath(path)).isSameAs(path);
+		// only ASCII hexadecimal digits
+		String fullWidthPath = "/docs/5f1d7a2b9c8e4d3f2a1b0c9\uFF44";
+		assertThat(SentinelResourceGuard.templatePath(fullWidthPath))
+				.isSameAs(fullWidthPath);
+		String arabicPath = "/files/123e4567-e89b-12d3-a456-42661417400\u0660";
+		assertThat(SentinelResourceGuard.templatePath(arabicPath)).isSameAs(arabicPath);
+	}
+
+	@Test
+	public void testOverflow() {
+		SentinelResourceGuard guard = new SentinelResourceGuard(true, 2);
+		assertThat(guard.guard("GET:http://host", "/a/1")).isEqualTo("/a/{number}");
+		assertThat(guard.guard("GET:http://host", "/a/2")).isEqualTo("/a/{number}");
+		assertThat(guard.guard("GET:http://host", "/b")).isEqualTo("/b");
+		assertThat(guard.guard("GET:http://host", "/c"))
+				.isEqualTo(SentinelResourceGuard.OVERFLOW_PATH);
+		assertThat(guard.guard("GET:http://other", "/c")).isEqualTo("/c");
+
+		assertThat(guard.getResourceCount()).isEqualTo(3);
+		assertThat(guard.getOverflowCounts()).containsEntry("GET:http://host", 1L);
+	}
+
+	@Test
+	public void testGuardPath() {
+		SentinelResourceGuard guard = new SentinelResourceGuard(false, 1);
+		assertThat(guard.guardPath("/api/a")).isEqualTo("/api/a");
+		assertThat(guard.guardPath("/api/b")).isEqualTo("/api/{overflow}");
+		assertThat(guard.guardPath("/admin")).isEqualTo("/admin");
+		assertThat(guard.guardPath("")).isEmpty();
+	}
+
+	@Test
+	public void testGuardPathPrefixIsTemplated() {
+		SentinelResourceGuard guard = new SentinelResourceGuard(true, 10, 2);
+		assertThat(guard.guardPath("/42/orders")).isEqualTo("/{number}/orders");
+		assertThat(guard.guardPath("/43/orders")).isEqualTo("/{number}/orders");
+		assertThat(guard.guardPath("/api/a")).isEqualTo("/api/a");
+		assertThat(guard.getResourceCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testGlobalOverflow() {
+		SentinelResourceGuard guard = new SentinelResourceGuard(false, 10, 2);
+		assertThat(guard.guardPath("/a/x")).isEqualTo("/a/x");
+		assertThat(guard.guardPath("/b/x")).isEqualTo("/b/x");
+		assertThat(guard.guardPath("/c/x"))
+				.isEqualTo(SentinelResourceGuard.OVERFLOW_PATH);
+		assertThat(guard.guard("GET:http://host", "/x"))
+				.isEqualTo(SentinelResourceGuard.OVERFLOW_RESOURCE);
+		assertThat(guard.guardPath("/a/y")).isEqualTo("/a/y");
+
+		assertThat(guard.getOverflowCounts())
+				.containsEntry(SentinelResourceGuard.OVERFLOW_RESOURCE, 2L)
+				.hasSize(1);
+	}
+
+	@Test
+	public void testResolverCleansBeforeGuard() throws Exception {
+		MethodHandle cleaner = MethodHandles.lookup().findStatic(
+				SentinelResourceGuardTests.class, "clean",
+				MethodType.methodType(String.class, String.class));
+		SentinelResourceGuard guard = new SentinelResourceGuard(false, 1);
+		SentinelResourceNameResolver resolver = new SentinelResourceNameResolver(
+				cleaner, guard);
+		assertThat(resolver.resolve(HttpMethod.GET, URI.create("http://host/users/a"))
+				.hostWithPathResource()).isEqualTo("GET:http://host/users/*");
+		assertThat(resolver.resolve(HttpMethod.GET, URI.create("http://host/users/b"))
+				.hostWithPathResource()).isEqualTo("GET:http://host/users/*");
+		assertThat(guard.getResourceCount()).isEqualTo(1);
+		assertThat(guard.getOverflowCounts()).isEmpty();
+	}
+
+	@Test
+	public void testResolverCountsOverflowPerRequest() {
+		SentinelResourceGuard guard = new SentinelResourceGuard(false, 1);
+		SentinelResourceNameResolver resolver = new SentinelResourceNameResolver(null,
+				guard);
+		URI uri = URI.create("http://host/b");
+		resolver.resolve(HttpMethod.GET, URI.create("http://host/a"));
+		for (int i = 0; i < 3; i++) {
+			assertThat(resolver.resolve(HttpMethod.GET, uri).hostWithPathResource())
+					.isEqualTo("GET:http://host" + SentinelResourceGuard.OVERFLOW_PATH);
+		}
+		assertThat(guard.getOverflowCounts()).containsEntry("GET:http://host", 3L);
+	}
+
+	static String clean(String resource) {
+		int index = resource.lastIndexOf('/');
+		return resource.substring(0, index + 1) + "*";
+	}
+
+}
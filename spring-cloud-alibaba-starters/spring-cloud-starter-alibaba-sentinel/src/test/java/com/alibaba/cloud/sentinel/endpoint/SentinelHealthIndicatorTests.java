@@ -17,6 +17,7 @@
 package com.alibaba.cloud.sentinel.endpoint;
 
 import java.lang.reflect.Field;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,8 +26,10 @@ import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.datasource.AbstractDataSource;
 import com.alibaba.csp.sentinel.datasource.FileRefreshableDataSource;
 import com.alibaba.csp.sentinel.heartbeat.HeartbeatSenderProvider;
+import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.transport.HeartbeatSender;
 import com.alibaba.csp.sentinel.transport.config.TransportConfig;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,7 +39,10 @@ import org.springframework.boot.actuate.health.Status;
 import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +76,11 @@ public class SentinelHealthIndicatorTests {
 		ReflectionUtils.setField(heartbeatSenderField, null, heartbeatSender);
 	}
 
+	@After
+	public void tearDown() {
+		sentinelHealthIndicator.destroy();
+	}
+
 	@Test
 	public void testSentinelNotEnabled() {
 		when(sentinelProperties.isEnabled()).thenReturn(false);
@@ -172,4 +183,72 @@ public class SentinelHealthIndicatorTests {
 				.isEqualTo(new Status(Status.UNKNOWN.getCode(), "fileDataSource2 error"));
 	}
 
+	@Test
+	public void testSentinelHealthCached() throws Exception {
+		when(sentinelProperties.isEnabled()).thenReturn(true);
+		SentinelConfig.setConfig(TransportConfig.CONSOLE_SERVER, "localhost:8080");
+		when(heartbeatSender.sendHeartbeat()).thenReturn(true);
+
+		FileRefreshableDataSource fileDataSource = mock(FileRefreshableDataSource.class);
+		DynamicSentinelProperty<Object> property = new DynamicSentinelProperty<>(
+				"rules");
+		doReturn(property).when(fileDataSource).getProperty();
+		when(beanFactory.getBeansOfType(AbstractDataSource.class)).thenReturn(
+				Collections.singletonMap("ds1-sentinel-file-datasource", fileDataSource));
+
+		assertThat(sentinelHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+		assertThat(sentinelHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+
+		verify(heartbeatSender, times(1)).sendHeartbeat();
+		verify(fileDataSource, times(1)).loadConfig();
+	}
+
+	@Test
+	public void testSentinelDataSourceUpdateIsHealth() throws Exception {
+		when(sentinelProperties.isEnabled()).thenReturn(true);
+
+		FileRefreshableDataSource fileDataSource = mock(FileRefreshableDataSource.class);
+		DynamicSentinelProperty<Object> property = new DynamicSentinelProperty<>();
+		doReturn(property).when(fileDataSource).getProperty();
+		when(fileDataSource.loadConfig())
+				.thenThrow(new RuntimeException("fileDataSource error"));
+		when(beanFactory.getBeansOfType(AbstractDataSource.class)).thenReturn(
+				Collections.singletonMap("ds1-sentinel-file-datasource", fileDataSource));
+
+		sentinelHealthIndicator.refresh();
+		assertThat(sentinelHealthIndicator.health().getStatus())
+				.isEqualTo(Status.UNKNOWN);
+		property.updateValue("rules");
+		sentinelHealthIndicator.refresh();
+
+		// the config received by the property is the health of the data source
+		assertThat(sentinelHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+		verify(fileDataSource, times(1)).loadConfig();
+	}
+
+	@Test
+	public void testSentinelDataSourceStale() throws Exception {
+		when(sentinelProperties.isEnabled()).thenReturn(true);
+		sentinelHealthIndicator = new SentinelHealthIndicator(beanFactory,
+				sentinelProperties,
+				SentinelHealthIndicator.DEFAULT_REFRESH_INTERVAL_MILLIS, -1);
+
+		FileRefreshableDataSource fileDataSource = mock(FileRefreshableDataSource.class);
+		DynamicSentinelProperty<Object> property = new DynamicSentinelProperty<>(
+				"rules");
+		doReturn(property).when(fileDataSource).getProperty();
+		when(beanFactory.getBeansOfType(AbstractDataSource.class)).thenReturn(
+				Collections.singletonMap("ds1-sentinel-file-datasource", fileDataSource));
+
+		sentinelHealthIndicator.refresh();
+		when(fileDataSource.loadConfig())
+				.thenThrow(new RuntimeException("fileDataSource error"));
+		sentinelHealthIndicator.refresh();
+
+		// a stale data source is loaded again instead of staying up
+		verify(fileDataSource, times(2)).loadConfig();
+		Health health = sentinelHealthIndicator.health();
+		assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+	}
+
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.feign;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.sun.net.httpserver.HttpServer;
+import feign.Contract;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.RequestLine;
+import feign.Target;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.openfeign.FallbackFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for the async invocation of {@link SentinelInvocationHandler}.
+ *
+ * @author agent
+ */
+public class SentinelInvocationHandlerTests {
+
+	private static final String RESOURCE_NAME = "GET:http://async-service/echo";
+
+	private final Target<AsyncEchoService> target = new Target.HardCodedTarget<>(
+			AsyncEchoService.class, "http://async-service");
+
+	private Method echoMethod;
+
+	private CompletableFuture<String> remoteCall;
+
+	private HttpServer server;
+
+	private volatile CountDownLatch release;
+
+	@Before
+	public void setUp() throws Exception {
+		new SentinelContractHolder(new Contract.Default())
+				.parseAndValidateMetadata(AsyncEchoService.class);
+		echoMethod = AsyncEchoService.class.getMethod("echo");
+		remoteCall = new CompletableFuture<>();
+		release = new CountDownLatch(1);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/echo", exchange -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = "echo".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+			catch (IOException e) {
+				// the client went away
+			}
+		});
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		server.stop(0);
+		FlowRuleManager.loadRules(Collections.emptyList());
+	}
+
+	@Test
+	public void testEntryExitsOnCompletion() throws Throwable {
+		SentinelInvocationHandler handler = new SentinelInvocationHandler(target,
+				dispatch());
+
+		CompletableFuture<?> result = (CompletableFuture<?>) handler.invoke(null,
+				echoMethod, null);
+		ClusterNode clusterNode = ClusterBuilderSlot.getClusterNode(RESOURCE_NAME);
+		assertThat(result).isNotDone();
+		assertThat(clusterNode.curThreadNum()).isEqualTo(1);
+
+		remoteCall.complete("echo");
+		assertThat(result.get()).isEqualTo("echo");
+		assertThat(clusterNode.curThreadNum()).isEqualTo(0);
+	}
+
+	@Test
+	public void testFallbackOnExceptionalCompletion() throws Throwable {
+		FallbackFactory<AsyncEchoService> fallbackFactory = cause -> () -> CompletableFuture
+				.completedFuture("fallback: " + cause.getMessage());
+		SentinelInvocationHandler handler = new SentinelInvocationHandler(target,
+				dispatch(), fallbackFactory);
+
+		CompletableFuture<?> result = (CompletableFuture<?>) handler.invoke(null,
+				echoMethod, null);
+		remoteCall.completeExceptionally(new IllegalStateException("timeout"));
+		assertThat(result.get()).isEqualTo("fallback: timeout");
+		assertThat(ClusterBuilderSlot.getClusterNode(RESOURCE_NAME).curThreadNum())
+				.isEqualTo(0);
+	}
+
+	@Test
+	public void testAsyncFeignClient() throws Exception {
+		String url = "http://127.0.0.1:" + server.getAddress().getPort();
+		String resourceName = "GET:" + url + "/echo";
+		FlowRule rule = new FlowRule(resourceName);
+		rule.setGrade(RuleConstant.FLOW_GRADE_THREAD);
+		rule.setCount(1);
+		FlowRuleManager.loadRules(Collections.singletonList(rule));
+		AsyncEchoService client = SentinelFeign.asyncBuilder()
+				.fallbackFactory(cause -> (AsyncEchoService) () -> CompletableFuture
+						.completedFuture("fallback"))
+				.target(AsyncEchoService.class, url);
+
+		CompletableFuture<String> first = client.echo();
+		// the entry of the first call is held until its response
+		assertThat(client.echo().get(10, TimeUnit.SECONDS)).isEqualTo("fallback");
+		release.countDown();
+		assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("echo");
+		assertThat(ClusterBuilderSlot.getClusterNode(resourceName).curThreadNum())
+				.isEqualTo(0);
+		assertThat(client.echo().get(10, TimeUnit.SECONDS)).isEqualTo("echo");
+
+		// a cancelled call releases its entry before its response
+		release = new CountDownLatch(1);
+		client.echo().cancel(true);
+		CompletableFuture<String> next = client.echo();
+		release.countDown();
+		assertThat(next.get(10, TimeUnit.SECONDS)).isEqualTo("echo");
+	}
+
+	@Test
+	public void testCancellationPropagates() throws Throwable {
+		SentinelInvocationHandler handler = new SentinelInvocationHandler(target,
+				dispatch());
+
+		CompletableFuture<?> result = (CompletableFuture<?>) handler.invoke(null,
+				echoMethod, null);
+		result.cancel(true);
+		assertThat(remoteCall).isCancelled();
+		assertThat(ClusterBuilderSlot.getClusterNode(RESOURCE_NAME).curThreadNum())
+				.isEqualTo(0);
+	}
+
+	private Map<Method, MethodHandler> dispatch() {
+		MethodHandler methodHandler = args -> remoteCall;
+		return Collections.singletonMap(echoMethod, methodHandler);
+	}
+
+	public interface AsyncEchoService {
+
+		@RequestLine("GET /echo")
+		CompletableFuture<String> echo();
+
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.sentinel.metrics;
+
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for {@link SentinelMetricsExporter}.
+ *
+ * @author agent
+ */
+public class SentinelMetricsExporterTests {
+
+	private SimpleMeterRegistry registry;
+
+	private SentinelMetricsExporter exporter;
+
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		exporter = new SentinelMetricsExporter(Long.MAX_VALUE / 2, 1, true);
+		exporter.bindTo(registry);
+	}
+
+	@After
+	public void tearDown() {
+		exporter.destroy();
+		FlowRuleManager.loadRules(Collections.emptyList());
+	}
+
+	@Test
+	public void testExportTopResources() throws Exception {
+		long requests = topRequests();
+		for (int i = 0; i < requests; i++) {
+			SphU.entry("metrics-test-a").exit();
+		}
+		SphU.entry("metrics-test-b").exit();
+		FlowRule rule = new FlowRule("metrics-test-b");
+		rule.setCount(0);
+		FlowRuleManager.loadRules(Collections.singletonList(rule));
+		try {
+			Entry entry = SphU.entry("metrics-test-b");
+			entry.exit();
+		}
+		catch (BlockException e) {
+			// expected
+		}
+
+		exporter.sample();
+		assertThat(registry.find("sentinel.pass.qps").tag("resource", "metrics-test-a")
+				.gauge()).isNotNull();
+		assertThat(registry.find("sentinel.pass.qps").tag("resource", "metrics-test-b")
+				.gauge()).isNull();
+		assertThat(registry.get("sentinel.block.rule").tag("rule", "flow")
+				.functionCounter().count()).isEqualTo(1);
+
+		// the counters take the completed seconds
+		Thread.sleep(1100);
+		exporter.sample();
+		assertThat(registry.get("sentinel.pass.requests")
+				.tag("resource", "metrics-test-a").functionCounter().count())
+				.isEqualTo(requests);
+	}
+
+	@Test
+	public void testKeepTotalsOffTop() throws Exception {
+		long requests = topRequests();
+		enter("metrics-test-c", requests);
+		Thread.sleep(1100);
+		exporter.sample();
+		assertThat(passRequests("metrics-test-c")).isEqualTo(requests);
+
+		enter("metrics-test-d", 2 * requests);
+		exporter.sample();
+		assertThat(registry.find("sentinel.pass.requests")
+				.tag("resource", "metrics-test-c").functionCounter()).isNull();
+
+		// counted while off top, resumed rather than restarted once on top again
+		enter("metrics-test-c", 2 * requests);
+		Thread.sleep(1100);
+		exporter.sample();
+		assertThat(passRequests("metrics-test-c")).isEqualTo(3 * requests);
+	}
+
+	@Test
+	public void testBlockByRuleDisabledByDefault() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		SentinelMetricsExporter exporter = new SentinelMetricsExporter(
+				Long.MAX_VALUE / 2, 1);
+		exporter.bindTo(registry);
+		try {
+			assertThat(registry.find("sentinel.block.rule").functionCounter()).isNull();
+		}
+		finally {
+			exporter.destroy();
+		}
+	}
+
+	/**
+	 * The cluster nodes are global, so top the requests of the other tests.
+	 */
+	private static long topRequests() {
+		return 3 + ClusterBuilderSlot.getClusterNodeMap().values().stream()
+				.mapToLong(ClusterNode::totalRequest).max().orElse(0);
+	}
+
+	private static void enter(String resource, long requests) throws BlockException {
+		for (int i = 0; i < requests; i++) {
+			SphU.entry(resource).exit();
+		}
+	}
+
+	private double passRequests(String resource) {
+		return registry.get("sentinel.pass.requests").tag("resource", resource)
+				.functionCounter().count();
+	}
+
+}
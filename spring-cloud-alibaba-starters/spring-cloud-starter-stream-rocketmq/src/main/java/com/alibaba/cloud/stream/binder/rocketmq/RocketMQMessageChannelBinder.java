@@ -16,12 +16,15 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq;
 
+import java.util.function.Supplier;
+
 import com.alibaba.cloud.stream.binder.rocketmq.custom.RocketMQBeanContainerCache;
 import com.alibaba.cloud.stream.binder.rocketmq.extend.ErrorAcknowledgeHandler;
 import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.RocketMQInboundChannelAdapter;
 import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull.DefaultErrorAcknowledgeHandler;
 import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull.RocketMQMessageSource;
 import com.alibaba.cloud.stream.binder.rocketmq.integration.outbound.RocketMQProducerMessageHandler;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetricsFactory;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQBinderConfigurationProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQExtendedBindingProperties;
@@ -65,6 +68,8 @@ public class RocketMQMessageChannelBinder extends
 
 	private final RocketMQBinderConfigurationProperties binderConfigurationProperties;
 
+	private RocketMQBindingMetricsFactory bindingMetricsFactory = RocketMQBindingMetricsFactory.NOOP;
+
 	public RocketMQMessageChannelBinder(
 			RocketMQBinderConfigurationProperties binderConfigurationProperties,
 			RocketMQExtendedBindingProperties extendedBindingProperties,
@@ -88,6 +93,8 @@ public class RocketMQMessageChannelBinder extends
 		RocketMQProducerMessageHandler messageHandler = new RocketMQProducerMessageHandler(
 				destination, extendedProducerProperties, mqProducerProperties);
 		messageHandler.setApplicationContext(this.getApplicationContext());
+		messageHandler.setMetrics(bindingMetricsFactory.createProducerMetrics(
+				extendedProducerProperties.getBindingName(), destination.getName()));
 		if (errorChannel != null) {
 			messageHandler.setSendFailureChannel(errorChannel);
 		}
@@ -132,6 +139,11 @@ public class RocketMQMessageChannelBinder extends
 
 		RocketMQInboundChannelAdapter inboundChannelAdapter = new RocketMQInboundChannelAdapter(
 				destination.getName(), extendedConsumerProperties);
+		inboundChannelAdapter.setMetrics(bindingMetricsFactory.createConsumerMetrics(
+				extendedConsumerProperties.getBindingName(), destination.getName(),
+				group));
+		inboundChannelAdapter
+				.setRateLimitSupplier(rateLimitSupplier(extendedConsumerProperties));
 		ErrorInfrastructure errorInfrastructure = registerErrorInfrastructure(destination,
 				group, extendedConsumerProperties);
 		if (extendedConsumerProperties.getMaxAttempts() > 1) {
@@ -154,6 +166,9 @@ public class RocketMQMessageChannelBinder extends
 		extendedConsumerProperties.getExtension().setGroup(group);
 		RocketMQMessageSource messageSource = new RocketMQMessageSource(name,
 				extendedConsumerProperties);
+		messageSource.setMetrics(bindingMetricsFactory.createConsumerMetrics(
+				extendedConsumerProperties.getBindingName(), name, group));
+		messageSource.setRateLimitSupplier(rateLimitSupplier(extendedConsumerProperties));
 		return new PolledConsumerResources(messageSource, registerErrorInfrastructure(
 				destination, group, extendedConsumerProperties, true));
 	}
@@ -190,6 +205,24 @@ public class RocketMQMessageChannelBinder extends
 		return new DefaultErrorMessageStrategy();
 	}
 
+	/**
+	 * Reads the rate limit of a binding from the binding properties each time, as they
+	 * are rebound when the configuration is refreshed.
+	 */
+	private Supplier<RocketMQConsumerProperties.RateLimit> rateLimitSupplier(
+			ExtendedConsumerProperties<RocketMQConsumerProperties> extendedConsumerProperties) {
+		String bindingName = extendedConsumerProperties.getBindingName();
+		if (!StringUtils.hasLength(bindingName)) {
+			return extendedConsumerProperties.getExtension()::getRateLimit;
+		}
+		return () -> getExtendedConsumerProperties(bindingName).getRateLimit();
+	}
+
+	public void setBindingMetricsFactory(
+			RocketMQBindingMetricsFactory bindingMetricsFactory) {
+		this.bindingMetricsFactory = bindingMetricsFactory;
+	}
+
 	@Override
 	public RocketMQConsumerProperties getExtendedConsumerProperties(String channelName) {
 		return this.extendedBindingProperties.getExtendedConsumerProperties(channelName);
@@ -16,6 +16,7 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq.autoconfigurate;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,16 +24,21 @@ import com.alibaba.cloud.stream.binder.rocketmq.convert.RocketMQMessageConverter
 import com.alibaba.cloud.stream.binder.rocketmq.custom.RocketMQConfigBeanPostProcessor;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
 import org.springframework.cloud.stream.config.BindingHandlerAdvise.MappingsProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.messaging.converter.CompositeMessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
 
 @Configuration
 public class ExtendedBindingHandlerMappingsProviderConfiguration {
 
+	private static final String SCHEMA_TYPES_PROPERTY = "spring.cloud.stream.rocketmq.binder.schema-types";
+
 	@Bean
 	public MappingsProvider rocketExtendedPropertiesDefaultMappingsProvider() {
 		return () -> {
@@ -59,8 +65,9 @@ public class ExtendedBindingHandlerMappingsProviderConfiguration {
 	 */
 	@Bean(RocketMQMessageConverter.DEFAULT_NAME)
 	@ConditionalOnMissingBean(name = { RocketMQMessageConverter.DEFAULT_NAME })
-	public CompositeMessageConverter rocketMQMessageConverter() {
-		return new RocketMQMessageConverter().getMessageConverter();
+	public CompositeMessageConverter rocketMQMessageConverter(Environment environment) {
+		return new RocketMQMessageConverter(getSchemaTypes(environment))
+				.getMessageConverter();
 	}
 
 	/**
@@ -69,8 +76,19 @@ public class ExtendedBindingHandlerMappingsProviderConfiguration {
 	 * @return message converter.
 	 */
 	@Bean
-	public MessageConverter rocketMQCustomMessageConverter() {
-		return new RocketMQMessageConverter();
+	public MessageConverter rocketMQCustomMessageConverter(Environment environment) {
+		return new RocketMQMessageConverter(getSchemaTypes(environment));
+	}
+
+	/**
+	 * The binder properties are bound in the binder context, so the schema types of the
+	 * converters, shared by all binders, are read from the environment.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Map<String, Class<?>> getSchemaTypes(Environment environment) {
+		return (Map) Binder.get(environment)
+				.bind(SCHEMA_TYPES_PROPERTY, Bindable.mapOf(String.class, Class.class))
+				.orElse(Collections.emptyMap());
 	}
 
 }
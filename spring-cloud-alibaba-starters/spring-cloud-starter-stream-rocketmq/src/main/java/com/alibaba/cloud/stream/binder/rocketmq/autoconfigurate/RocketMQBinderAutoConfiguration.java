@@ -18,14 +18,19 @@ package com.alibaba.cloud.stream.binder.rocketmq.autoconfigurate;
 
 import com.alibaba.cloud.stream.binder.rocketmq.RocketMQMessageChannelBinder;
 import com.alibaba.cloud.stream.binder.rocketmq.actuator.RocketMQBinderHealthIndicator;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.MicrometerBindingMetricsFactory;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetricsFactory;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQBinderConfigurationProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQExtendedBindingProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.provisioning.RocketMQTopicProvisioner;
+import io.micrometer.core.instrument.MeterRegistry;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,9 +60,26 @@ public class RocketMQBinderAutoConfiguration {
 
 	@Bean
 	public RocketMQMessageChannelBinder rocketMQMessageChannelBinder(
-			RocketMQTopicProvisioner provisioningProvider) {
-		return new RocketMQMessageChannelBinder(rocketBinderConfigurationProperties,
-				extendedBindingProperties, provisioningProvider);
+			RocketMQTopicProvisioner provisioningProvider,
+			ObjectProvider<RocketMQBindingMetricsFactory> bindingMetricsFactory) {
+		RocketMQMessageChannelBinder binder = new RocketMQMessageChannelBinder(
+				rocketBinderConfigurationProperties, extendedBindingProperties,
+				provisioningProvider);
+		bindingMetricsFactory.ifAvailable(binder::setBindingMetricsFactory);
+		return binder;
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class RocketMQBinderMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public RocketMQBindingMetricsFactory rocketMQBindingMetricsFactory(
+				ObjectProvider<MeterRegistry> meterRegistry) {
+			return new MicrometerBindingMetricsFactory(meterRegistry);
+		}
+
 	}
 
 	@Configuration(proxyBeanMethods = false)
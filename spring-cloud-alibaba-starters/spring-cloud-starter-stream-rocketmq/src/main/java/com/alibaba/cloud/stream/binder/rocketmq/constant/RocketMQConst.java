@@ -95,6 +95,21 @@ public class RocketMQConst extends MessageConst {
 		 */
 		public static final String TRANSACTION_ID = "MQ_TRANSACTION_ID";
 
+		/**
+		 * The local schema id of a payload serialized by a binary codec.
+		 */
+		public static final String SCHEMA_ID = "MQ_SCHEMA_ID";
+
+		/**
+		 * The codec of a payload compressed by the binder.
+		 */
+		public static final String COMPRESSION_TYPE = "MQ_COMPRESSION_TYPE";
+
+		/**
+		 * The headers of each message in a batch received by a pollable source.
+		 */
+		public static final String BATCH_HEADERS = "MQ_BATCH_HEADERS";
+
 	}
 
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq.convert;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.messaging.converter.MessageConversionException;
+
+/**
+ * Base for codecs that delegate to the serialization methods generated into the
+ * payload classes. The writer and reader of each type are looked up once and cached as
+ * {@link MethodHandle}s.
+ *
+ * @author agent
+ */
+public abstract class AbstractRocketMQPayloadCodec implements RocketMQPayloadCodec {
+
+	protected static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+	private final Map<Class<?>, MethodHandle> writers = new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, MethodHandle> readers = new ConcurrentHashMap<>();
+
+	@Override
+	public byte[] encode(Object payload) {
+		MethodHandle writer = writers.computeIfAbsent(payload.getClass(),
+				this::lookupWriter);
+		try {
+			return toBytes(writer.invoke(payload));
+		}
+		catch (Throwable e) {
+			throw new MessageConversionException("Could not encode payload of type "
+					+ payload.getClass().getName() + " as " + getMimeType(), e);
+		}
+	}
+
+	@Override
+	public Object decode(byte[] payload, Class<?> targetClass) {
+		MethodHandle reader = readers.computeIfAbsent(targetClass, this::lookupReader);
+		try {
+			return reader.invoke(payload);
+		}
+		catch (Throwable e) {
+			throw new MessageConversionException("Could not decode " + getMimeType()
+					+ " payload to " + targetClass.getName(), e);
+		}
+	}
+
+	private MethodHandle lookupWriter(Class<?> clazz) {
+		try {
+			return createWriter(clazz);
+		}
+		catch (ReflectiveOperationException e) {
+			throw new MessageConversionException(
+					"No " + getMimeType() + " writer found for " + clazz.getName(), e);
+		}
+	}
+
+	private MethodHandle lookupReader(Class<?> clazz) {
+		try {
+			return createReader(clazz);
+		}
+		catch (ReflectiveOperationException e) {
+			throw new MessageConversionException(
+					"No " + getMimeType() + " reader found for " + clazz.getName(), e);
+		}
+	}
+
+	/**
+	 * Create the writer of the given type, invoked with the payload.
+	 * @param clazz payload class
+	 * @return writer handle
+	 * @throws ReflectiveOperationException if the type has no writer
+	 */
+	protected abstract MethodHandle createWriter(Class<?> clazz)
+			throws ReflectiveOperationException;
+
+	/**
+	 * Create the reader of the given type, invoked with the serialized {@code byte[]}.
+	 * @param clazz payload class
+	 * @return reader handle
+	 * @throws ReflectiveOperationException if the type has no reader
+	 */
+	protected abstract MethodHandle createReader(Class<?> clazz)
+			throws ReflectiveOperationException;
+
+	/**
+	 * Convert the result of the writer to bytes.
+	 * @param serialized result of the writer
+	 * @return serialized payload
+	 */
+	protected byte[] toBytes(Object serialized) {
+		return (byte[]) serialized;
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq.convert;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.MimeType;
+
+/**
+ * Avro codec for generated {@code SpecificRecord} classes, using their
+ * {@code toByteBuffer()} and {@code fromByteBuffer(ByteBuffer)} methods. The payload is
+ * written in Avro single-object encoding, which carries the schema fingerprint.
+ *
+ * @author agent
+ */
+public class AvroPayloadCodec extends AbstractRocketMQPayloadCodec {
+
+	/**
+	 * Content type of avro payloads.
+	 */
+	public static final MimeType AVRO = new MimeType("application", "avro");
+
+	private static final String SPECIFIC_RECORD_CLASS = "org.apache.avro.specific.SpecificRecord";
+
+	private static final MethodHandle WRAP;
+
+	static {
+		try {
+			WRAP = LOOKUP.findStatic(ByteBuffer.class, "wrap",
+					MethodType.methodType(ByteBuffer.class, byte[].class));
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private final Class<?> specificRecordClass;
+
+	public AvroPayloadCodec() {
+		this.specificRecordClass = ClassUtils.resolveClassName(SPECIFIC_RECORD_CLASS,
+				AvroPayloadCodec.class.getClassLoader());
+	}
+
+	public static boolean isPresent(ClassLoader classLoader) {
+		return ClassUtils.isPresent(SPECIFIC_RECORD_CLASS, classLoader);
+	}
+
+	@Override
+	public MimeType getMimeType() {
+		return AVRO;
+	}
+
+	@Override
+	public boolean supports(Class<?> clazz) {
+		return specificRecordClass.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected MethodHandle createWriter(Class<?> clazz)
+			throws ReflectiveOperationException {
+		return LOOKUP.findVirtual(clazz, "toByteBuffer",
+				MethodType.methodType(ByteBuffer.class));
+	}
+
+	@Override
+	protected MethodHandle createReader(Class<?> clazz)
+			throws ReflectiveOperationException {
+		MethodHandle fromByteBuffer = LOOKUP.findStatic(clazz, "fromByteBuffer",
+				MethodType.methodType(clazz, ByteBuffer.class));
+		return MethodHandles.filterArguments(fromByteBuffer, 0, WRAP);
+	}
+
+	@Override
+	protected byte[] toBytes(Object serialized) {
+		ByteBuffer buffer = (ByteBuffer) serialized;
+		if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+				&& buffer.remaining() == buffer.array().length) {
+			return buffer.array();
+		}
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq.convert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst.Headers;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeType;
+
+/**
+ * A {@link org.springframework.messaging.converter.MessageConverter} that delegates to
+ * the {@link RocketMQPayloadCodec} registered for the content type of the message.
+ * <p>
+ * The type of the payload is carried in the {@link Headers#SCHEMA_ID} header, so that
+ * consumers can decode it without declaring the concrete type. Only the schema ids
+ * registered with their type are decoded, the header never loads a class by name.
+ *
+ * @author agent
+ */
+public class PayloadCodecMessageConverter extends AbstractMessageConverter {
+
+	/**
+	 * Maximum number of unknown schema ids remembered, to log each of them once.
+	 */
+	private static final int MAX_UNKNOWN_SCHEMA_IDS = 1024;
+
+	private final List<RocketMQPayloadCodec> codecs;
+
+	private final Map<String, Class<?>> schemaTypes;
+
+	private final Map<Class<?>, String> schemaIds = new HashMap<>();
+
+	private final Set<String> unknownSchemaIds = ConcurrentHashMap.newKeySet();
+
+	public PayloadCodecMessageConverter(List<RocketMQPayloadCodec> codecs) {
+		this(codecs, Collections.emptyMap());
+	}
+
+	/**
+	 * @param codecs the codecs, selected by the content type
+	 * @param schemaTypes the payload types decoded by their schema id
+	 */
+	public PayloadCodecMessageConverter(List<RocketMQPayloadCodec> codecs,
+			Map<String, Class<?>> schemaTypes) {
+		super(getMimeTypes(codecs));
+		this.codecs = Collections.unmodifiableList(new ArrayList<>(codecs));
+		this.schemaTypes = Collections.unmodifiableMap(new HashMap<>(schemaTypes));
+		schemaTypes.forEach((schemaId, type) -> schemaIds.putIfAbsent(type, schemaId));
+		// Only messages that explicitly ask for a codec should be handled.
+		setStrictContentTypeMatch(true);
+	}
+
+	private static List<MimeType> getMimeTypes(List<RocketMQPayloadCodec> codecs) {
+		List<MimeType> mimeTypes = new ArrayList<>(codecs.size());
+		for (RocketMQPayloadCodec codec : codecs) {
+			mimeTypes.add(codec.getMimeType());
+		}
+		return mimeTypes;
+	}
+
+	public List<RocketMQPayloadCodec> getCodecs() {
+		return codecs;
+	}
+
+	/**
+	 * Find the codec registered for the content type.
+	 * @param mimeType content type, may be null
+	 * @return the codec, or null if no codec handles the content type
+	 */
+	public RocketMQPayloadCodec getCodec(MimeType mimeType) {
+		if (mimeType == null) {
+			return null;
+		}
+		for (RocketMQPayloadCodec codec : codecs) {
+			if (codec.getMimeType().equalsTypeAndSubtype(mimeType)) {
+				return codec;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the payload types decoded by their schema id
+	 */
+	public Map<String, Class<?>> getSchemaTypes() {
+		return schemaTypes;
+	}
+
+	/**
+	 * The schema id written to the {@link Headers#SCHEMA_ID} header for a payload type.
+	 * @param clazz payload class
+	 * @return the registered schema id of the type, otherwise its class name
+	 */
+	public String getSchemaId(Class<?> clazz) {
+		String schemaId = schemaIds.get(clazz);
+		return schemaId != null ? schemaId : clazz.getName();
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return true;
+	}
+
+	@Override
+	protected Object convertToInternal(Object payload, MessageHeaders headers,
+			Object conversionHint) {
+		RocketMQPayloadCodec codec = getCodec(getMimeType(headers));
+		if (codec == null || !codec.supports(payload.getClass())) {
+			return null;
+		}
+		return codec.encode(payload);
+	}
+
+	@Override
+	protected Object convertFromInternal(Message<?> message, Class<?> targetClass,
+			Object conversionHint) {
+		if (!(message.getPayload() instanceof byte[] payload)) {
+			return null;
+		}
+		RocketMQPayloadCodec codec = getCodec(getMimeType(message.getHeaders()));
+		if (codec == null) {
+			return null;
+		}
+		Class<?> type = targetClass;
+		if (!codec.supports(type)) {
+			type = resolveSchemaType(message.getHeaders().get(Headers.SCHEMA_ID));
+			if (type == null || !codec.supports(type)
+					|| !targetClass.isAssignableFrom(type)) {
+				return null;
+			}
+		}
+		return codec.decode(payload, type);
+	}
+
+	private Class<?> resolveSchemaType(Object schemaId) {
+		if (schemaId == null) {
+			return null;
+		}
+		String id = String.valueOf(schemaId);
+		Class<?> type = schemaTypes.get(id);
+		if (type == null && unknownSchemaIds.size() < MAX_UNKNOWN_SCHEMA_IDS
+				&& unknownSchemaIds.add(id)) {
+			logger.warn("Unknown schema id " + id
+					+ ", register its type to decode the payloads of this schema");
+		}
+		return type;
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq.convert;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.MimeType;
+
+/**
+ * Protobuf codec, using the {@code toByteArray()} and {@code parseFrom(byte[])} methods
+ * of the generated message classes.
+ *
+ * @author agent
+ */
+public class ProtobufPayloadCodec extends AbstractRocketMQPayloadCodec {
+
+	/**
+	 * Content type of protobuf payloads.
+	 */
+	public static final MimeType PROTOBUF = new MimeType("application", "x-protobuf");
+
+	private static final String MESSAGE_LITE_CLASS = "com.google.protobuf.MessageLite";
+
+	private final Class<?> messageLiteClass;
+
+	public ProtobufPayloadCodec() {
+		this.messageLiteClass = ClassUtils.resolveClassName(MESSAGE_LITE_CLASS,
+				ProtobufPayloadCodec.class.getClassLoader());
+	}
+
+	public static boolean isPresent(ClassLoader classLoader) {
+		return ClassUtils.isPresent(MESSAGE_LITE_CLASS, classLoader);
+	}
+
+	@Override
+	public MimeType getMimeType() {
+		return PROTOBUF;
+	}
+
+	@Override
+	public boolean supports(Class<?> clazz) {
+		return messageLiteClass.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected MethodHandle createWriter(Class<?> clazz)
+			throws ReflectiveOperationException {
+		return LOOKUP.findVirtual(clazz, "toByteArray", MethodType.methodType(byte[].class));
+	}
+
+	@Override
+	protected MethodHandle createReader(Class<?> clazz)
+			throws ReflectiveOperationException {
+		return LOOKUP.findStatic(clazz, "parseFrom",
+				MethodType.methodType(clazz, byte[].class));
+	}
+
+}
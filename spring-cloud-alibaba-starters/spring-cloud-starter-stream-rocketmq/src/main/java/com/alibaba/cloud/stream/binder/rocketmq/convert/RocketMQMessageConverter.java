@@ -17,7 +17,9 @@
 package com.alibaba.cloud.stream.binder.rocketmq.convert;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.messaging.Message;
 import org.springframework.messaging.converter.AbstractMessageConverter;
@@ -44,6 +46,10 @@ public class RocketMQMessageConverter extends AbstractMessageConverter {
 
 	private static final boolean FASTJSON_PRESENT;
 
+	private static final boolean PROTOBUF_PRESENT;
+
+	private static final boolean AVRO_PRESENT;
+
 	static {
 		ClassLoader classLoader = RocketMQMessageConverter.class.getClassLoader();
 		JACKSON_PRESENT = ClassUtils
@@ -54,16 +60,36 @@ public class RocketMQMessageConverter extends AbstractMessageConverter {
 				&& ClassUtils.isPresent(
 						"com.alibaba.fastjson.support.config.FastJsonConfig",
 						classLoader);
+		PROTOBUF_PRESENT = ProtobufPayloadCodec.isPresent(classLoader);
+		AVRO_PRESENT = AvroPayloadCodec.isPresent(classLoader);
 	}
 
 	private CompositeMessageConverter messageConverter;
 
 	public RocketMQMessageConverter() {
+		this(Collections.emptyMap());
+	}
+
+	/**
+	 * @param schemaTypes the payload types the payload codecs decode by their schema id
+	 */
+	public RocketMQMessageConverter(Map<String, Class<?>> schemaTypes) {
 		List<MessageConverter> messageConverters = new ArrayList<>();
 		ByteArrayMessageConverter byteArrayMessageConverter = new ByteArrayMessageConverter();
 		byteArrayMessageConverter.setContentTypeResolver(null);
 		messageConverters.add(byteArrayMessageConverter);
 		messageConverters.add(new StringMessageConverter());
+		List<RocketMQPayloadCodec> payloadCodecs = new ArrayList<>();
+		if (PROTOBUF_PRESENT) {
+			payloadCodecs.add(new ProtobufPayloadCodec());
+		}
+		if (AVRO_PRESENT) {
+			payloadCodecs.add(new AvroPayloadCodec());
+		}
+		if (!payloadCodecs.isEmpty()) {
+			messageConverters
+					.add(new PayloadCodecMessageConverter(payloadCodecs, schemaTypes));
+		}
 		if (JACKSON_PRESENT) {
 			messageConverters.add(new MappingJackson2MessageConverter());
 		}
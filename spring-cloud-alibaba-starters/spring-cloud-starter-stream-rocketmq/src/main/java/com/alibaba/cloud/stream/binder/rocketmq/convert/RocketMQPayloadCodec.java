@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq.convert;
+
+import org.springframework.util.MimeType;
+
+/**
+ * Binary codec for the payload of RocketMQ messages, selected by the content type of
+ * the message on both the producer and the consumer side.
+ *
+ * @author agent
+ * @see PayloadCodecMessageConverter
+ */
+public interface RocketMQPayloadCodec {
+
+	/**
+	 * The content type handled by this codec.
+	 * @return mime type
+	 */
+	MimeType getMimeType();
+
+	/**
+	 * Whether this codec can encode and decode the given type.
+	 * @param clazz payload class
+	 * @return true if supported
+	 */
+	boolean supports(Class<?> clazz);
+
+	/**
+	 * Serialize the payload.
+	 * @param payload payload object, never null
+	 * @return serialized payload
+	 */
+	byte[] encode(Object payload);
+
+	/**
+	 * Deserialize the payload.
+	 * @param payload serialized payload
+	 * @param targetClass the class to read
+	 * @return payload object
+	 */
+	Object decode(byte[] payload, Class<?> targetClass);
+
+}
@@ -19,6 +19,7 @@ package com.alibaba.cloud.stream.binder.rocketmq.custom;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.alibaba.cloud.stream.binder.rocketmq.extend.DeduplicationStore;
 import com.alibaba.cloud.stream.binder.rocketmq.extend.ErrorAcknowledgeHandler;
 import org.apache.rocketmq.client.consumer.AllocateMessageQueueStrategy;
 import org.apache.rocketmq.client.consumer.listener.MessageListener;
@@ -45,7 +46,7 @@ public final class RocketMQBeanContainerCache {
 			CompositeMessageConverter.class, AllocateMessageQueueStrategy.class,
 			MessageQueueSelector.class, MessageListener.class, TransactionListener.class,
 			SendCallback.class, CheckForbiddenHook.class, SendMessageHook.class,
-			ErrorAcknowledgeHandler.class };
+			ErrorAcknowledgeHandler.class, DeduplicationStore.class };
 
 	private static final Map<String, Object> BEANS_CACHE = new ConcurrentHashMap<>();
 
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.extend;
+
+/**
+ * A persistent store backing the de-duplication cache of consumers, to keep the
+ * de-duplication window across restarts.
+ *
+ * @author agent
+ */
+public interface DeduplicationStore {
+
+	/**
+	 * Whether a message with the key was consumed within its window.
+	 * @param key the de-duplication key of a message
+	 * @return true if consumed
+	 */
+	boolean contains(String key);
+
+	/**
+	 * Remember that a message with the key was consumed.
+	 * @param key the de-duplication key of a message
+	 * @param windowMillis how long to remember the key
+	 */
+	void put(String key, long windowMillis);
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.apache.rocketmq.client.impl.consumer.ProcessQueue;
+import org.apache.rocketmq.common.ThreadFactoryImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resizes the consume thread pool of a push consumer within the configured bounds.
+ * <p>
+ * The pool shrinks while the host CPU load is above the threshold or while few messages
+ * are cached, and grows while the cached messages approach {@code pullThresholdForQueue}
+ * (the client is about to stop pulling), unless the consume latency rose since the
+ * last increase, in which case more threads would only queue on the downstream.
+ *
+ * @author agent
+ */
+public class RocketMQConcurrencyController {
+
+	private final static Logger log = LoggerFactory
+			.getLogger(RocketMQConcurrencyController.class);
+
+	/**
+	 * Grow when the cached messages exceed this ratio of the pull threshold.
+	 */
+	static final double HIGH_BACKLOG = 0.5;
+
+	/**
+	 * Shrink when the cached messages are below this ratio of the pull threshold.
+	 */
+	static final double LOW_BACKLOG = 0.1;
+
+	/**
+	 * Stop growing when the latency rose by this factor since the last increase.
+	 */
+	static final double LATENCY_TOLERANCE = 1.5;
+
+	private final DefaultMQPushConsumer consumer;
+
+	private final int minConcurrency;
+
+	private final int maxConcurrency;
+
+	private final long intervalMillis;
+
+	private final double cpuThreshold;
+
+	private final RocketMQBindingMetrics metrics;
+
+	private final OperatingSystemMXBean operatingSystem = ManagementFactory
+			.getOperatingSystemMXBean();
+
+	private final LongAdder consumeNanos = new LongAdder();
+
+	private final LongAdder consumeCount = new LongAdder();
+
+	private int concurrency;
+
+	private double latencyAtLastIncrease = -1;
+
+	private ScheduledExecutorService executor;
+
+	public RocketMQConcurrencyController(DefaultMQPushConsumer consumer,
+			RocketMQConsumerProperties.Push push, RocketMQBindingMetrics metrics) {
+		this.consumer = consumer;
+		// see RocketMQConsumerFactory#initPushConsumer
+		this.maxConcurrency = consumer.getConsumeThreadMax() - 1;
+		this.minConcurrency = Math.min(maxConcurrency,
+				Math.max(1, push.getAdaptiveMinConcurrency()));
+		this.concurrency = consumer.getConsumeThreadMin();
+		this.intervalMillis = push.getAdaptiveIntervalMillis();
+		this.cpuThreshold = push.getAdaptiveCpuThreshold();
+		this.metrics = metrics;
+	}
+
+	public void start() {
+		executor = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryImpl("RocketMQConcurrencyController_", true));
+		executor.scheduleWithFixedDelay(() -> {
+			try {
+				adjust();
+			}
+			catch (Throwable e) {
+				log.error("adjust consume concurrency error: " + e.getMessage(), e);
+			}
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Record the consumption of a batch of messages.
+	 * @param startNanos {@link System#nanoTime()} before consuming
+	 * @param batchSize the number of messages
+	 */
+	public void recordConsume(long startNanos, int batchSize) {
+		consumeNanos.add(System.nanoTime() - startNanos);
+		consumeCount.add(batchSize);
+	}
+
+	void adjust() {
+		long count = consumeCount.sumThenReset();
+		long nanos = consumeNanos.sumThenReset();
+		double latency = count == 0 ? -1 : (double) nanos / count;
+		int next = decide(backlogRatio(), cpuLoad(), latency);
+		if (next == concurrency) {
+			return;
+		}
+		if (next > concurrency) {
+			latencyAtLastIncrease = latency;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("resize consume thread pool of {} from {} to {}",
+					consumer.getConsumerGroup(), concurrency, next);
+		}
+		consumer.updateCorePoolSize(next);
+		metrics.recordConcurrency(next, next > concurrency);
+		concurrency = next;
+	}
+
+	/**
+	 * @param backlogRatio cached messages against the pull threshold of all queues
+	 * @param cpuLoad the host CPU load from 0 to 1, negative if unknown
+	 * @param latency the mean consume latency per message in nanoseconds, negative if
+	 *     nothing was consumed
+	 * @return the next concurrency
+	 */
+	int decide(double backlogRatio, double cpuLoad, double latency) {
+		int next = concurrency;
+		if (cpuLoad >= cpuThreshold) {
+			next = concurrency - Math.max(1, concurrency / 4);
+		}
+		else if (backlogRatio >= HIGH_BACKLOG) {
+			if (latencyAtLastIncrease <= 0 || latency <= 0
+					|| latency <= latencyAtLastIncrease * LATENCY_TOLERANCE) {
+				next = concurrency + Math.max(1, concurrency / 4);
+			}
+		}
+		else if (backlogRatio < LOW_BACKLOG) {
+			next = concurrency - 1;
+		}
+		return Math.max(minConcurrency, Math.min(maxConcurrency, next));
+	}
+
+	private double backlogRatio() {
+		int queues = 0;
+		long cached = 0;
+		for (ProcessQueue processQueue : consumer.getDefaultMQPushConsumerImpl()
+				.getRebalanceImpl().getProcessQueueTable().values()) {
+			if (!processQueue.isDropped()) {
+				queues++;
+				cached += processQueue.getMsgCount().get();
+			}
+		}
+		if (queues == 0) {
+			return 0;
+		}
+		return (double) cached / ((long) queues * consumer.getPullThresholdForQueue());
+	}
+
+	private double cpuLoad() {
+		if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean os) {
+			return os.getCpuLoad();
+		}
+		double loadAverage = operatingSystem.getSystemLoadAverage();
+		return loadAverage < 0 ? -1
+				: loadAverage / operatingSystem.getAvailableProcessors();
+	}
+
+}
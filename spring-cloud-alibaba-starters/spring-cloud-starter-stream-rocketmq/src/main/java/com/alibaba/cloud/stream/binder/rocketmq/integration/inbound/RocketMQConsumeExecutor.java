@@ -0,0 +1,266 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.apache.rocketmq.common.ThreadFactoryImpl;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Consumes the messages of a batch in parallel, one thread per message or per lane of
+ * messages sharing a key hash. The threads are virtual threads when enabled and the JVM
+ * supports them, otherwise pooled platform threads. The number of messages consumed at once by a
+ * binding is capped by a semaphore rather than by a thread count, so the consume thread
+ * pool of the client can stay small while many handlers are blocked on I/O. The
+ * calling consume thread waits for its whole batch, whose status is only known once
+ * every message is consumed. Idle platform threads die after a minute.
+ *
+ * @author agent
+ */
+public class RocketMQConsumeExecutor {
+
+	private final static Logger log = LoggerFactory
+			.getLogger(RocketMQConsumeExecutor.class);
+
+	private final Semaphore permits;
+
+	private final ThreadFactory virtualThreadFactory;
+
+	private final ExecutorService platformExecutor;
+
+	private volatile boolean shutdown;
+
+	public RocketMQConsumeExecutor(String name, int maxConcurrency) {
+		this(name, maxConcurrency, true);
+	}
+
+	/**
+	 * @param name the name of the binding
+	 * @param maxConcurrency the maximum number of lanes consumed at once
+	 * @param virtualThreads whether to consume on virtual threads when available
+	 */
+	public RocketMQConsumeExecutor(String name, int maxConcurrency,
+			boolean virtualThreads) {
+		this.permits = new Semaphore(Math.max(1, maxConcurrency));
+		this.virtualThreadFactory = virtualThreads ? virtualThreadFactory(name) : null;
+		if (virtualThreadFactory == null) {
+			if (virtualThreads) {
+				log.info(
+						"virtual threads are not available, consume {} on platform threads",
+						name);
+			}
+			this.platformExecutor = Executors.newCachedThreadPool(
+					new ThreadFactoryImpl("RocketMQConsume_" + name + "_", true));
+		}
+		else {
+			this.platformExecutor = null;
+		}
+	}
+
+	/**
+	 * Consume all messages and wait for them.
+	 * @param messageExtList the messages of a batch
+	 * @param handler consumes one message
+	 * @return the first message that failed, or null if all succeeded
+	 */
+	public MessageExt consume(List<MessageExt> messageExtList, MessageExtHandler handler) {
+		List<List<MessageExt>> lanes = new ArrayList<>(messageExtList.size());
+		for (MessageExt messageExt : messageExtList) {
+			lanes.add(Collections.singletonList(messageExt));
+		}
+		return consumeLanes(lanes, handler);
+	}
+
+	/**
+	 * Consume the messages in lanes by the hash of their keys and wait for them. The
+	 * messages of a lane are consumed one by one in order, so messages with the same key
+	 * keep their order. A lane stops at its first failed message.
+	 * @param messageExtList the messages of a batch
+	 * @param laneCount the number of lanes
+	 * @param keyExtractor the key of a message, may return null
+	 * @param handler consumes one message
+	 * @return the first message that failed, or null if all succeeded
+	 */
+	public MessageExt consumeByKey(List<MessageExt> messageExtList, int laneCount,
+			Function<MessageExt, String> keyExtractor, MessageExtHandler handler) {
+		@SuppressWarnings("unchecked")
+		List<MessageExt>[] lanes = new List[laneCount];
+		for (MessageExt messageExt : messageExtList) {
+			String key = keyExtractor.apply(messageExt);
+			int lane = key == null ? 0 : Math.floorMod(key.hashCode(), laneCount);
+			if (lanes[lane] == null) {
+				lanes[lane] = new ArrayList<>();
+			}
+			lanes[lane].add(messageExt);
+		}
+		List<List<MessageExt>> nonEmptyLanes = new ArrayList<>(laneCount);
+		for (List<MessageExt> lane : lanes) {
+			if (lane != null) {
+				nonEmptyLanes.add(lane);
+			}
+		}
+		return consumeLanes(nonEmptyLanes, handler);
+	}
+
+	private MessageExt consumeLanes(List<List<MessageExt>> lanes,
+			MessageExtHandler handler) {
+		CountDownLatch latch = new CountDownLatch(lanes.size());
+		AtomicReference<MessageExt> failed = new AtomicReference<>();
+		boolean interrupted = false;
+		for (int i = 0; i < lanes.size(); i++) {
+			List<MessageExt> lane = lanes.get(i);
+			try {
+				permits.acquire();
+			}
+			catch (InterruptedException e) {
+				// the lanes already dispatched still run, wait for them below
+				interrupted = true;
+				failed.compareAndSet(null, lane.get(0));
+				for (int j = i; j < lanes.size(); j++) {
+					latch.countDown();
+				}
+				break;
+			}
+			Runnable task = () -> {
+				try {
+					for (MessageExt messageExt : lane) {
+						try {
+							handler.handle(messageExt);
+						}
+						catch (Exception e) {
+							log.warn("consume message failed. messageExt:{}", messageExt,
+									e);
+							failed.compareAndSet(null, messageExt);
+							return;
+						}
+					}
+				}
+				finally {
+					permits.release();
+					latch.countDown();
+				}
+			};
+			try {
+				execute(task);
+			}
+			catch (RuntimeException e) {
+				permits.release();
+				for (int j = i; j < lanes.size(); j++) {
+					latch.countDown();
+				}
+				awaitUninterruptibly(latch);
+				throw e;
+			}
+		}
+		interrupted |= awaitUninterruptibly(latch);
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+			failed.compareAndSet(null, lanes.get(0).get(0));
+		}
+		return failed.get();
+	}
+
+	/**
+	 * Wait for the dispatched lanes, even if interrupted, so that no handler still runs
+	 * once the batch is acknowledged or retried.
+	 * @param latch the latch of the lanes
+	 * @return whether the thread was interrupted while waiting
+	 */
+	private static boolean awaitUninterruptibly(CountDownLatch latch) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				latch.await();
+				return interrupted;
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+	}
+
+	private void execute(Runnable task) {
+		if (shutdown) {
+			throw new RejectedExecutionException("consume executor is shut down");
+		}
+		if (virtualThreadFactory != null) {
+			virtualThreadFactory.newThread(task).start();
+		}
+		else {
+			platformExecutor.execute(task);
+		}
+	}
+
+	/**
+	 * Reject new messages and let the platform threads die once their messages are
+	 * consumed.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		if (platformExecutor != null) {
+			platformExecutor.shutdown();
+		}
+	}
+
+	public boolean isVirtual() {
+		return virtualThreadFactory != null;
+	}
+
+	/**
+	 * {@code Thread.ofVirtual().name(prefix, 0).factory()}, looked up reflectively as
+	 * the binder is built for Java 17.
+	 * @param name the name of the binding
+	 * @return the factory, or null if virtual threads are not available
+	 */
+	private static ThreadFactory virtualThreadFactory(String name) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class)
+					.invoke(builder, "RocketMQConsume_" + name + "_", 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Consumes one message.
+	 */
+	@FunctionalInterface
+	public interface MessageExtHandler {
+
+		void handle(MessageExt messageExt) throws Exception;
+
+	}
+
+}
@@ -73,8 +73,9 @@ public final class RocketMQConsumerFactory {
 				consumerProperties.getCustomizedTraceTopic());
 		consumer.setVipChannelEnabled(
 				null == rpcHook && consumerProperties.getVipChannelEnabled());
-		consumer.setInstanceName(
-				RocketMQUtils.getInstanceName(rpcHook, consumerProperties.getGroup()));
+		consumer.setInstanceName(consumerProperties.getShareClientInstance()
+				? RocketMQUtils.getSharedInstanceName(consumerProperties)
+				: RocketMQUtils.getInstanceName(rpcHook, consumerProperties.getGroup()));
 		consumer.setNamespace(consumerProperties.getNamespace());
 		consumer.setNamesrvAddr(consumerProperties.getNameServer());
 		consumer.setMessageModel(getMessageModel(consumerProperties.getMessageModel()));
@@ -88,8 +89,28 @@ public final class RocketMQConsumerFactory {
 		consumer.setPersistConsumerOffsetInterval(
 				consumerProperties.getPersistConsumerOffsetInterval());
 		consumer.setPullInterval(consumerProperties.getPush().getPullInterval());
-		consumer.setConsumeThreadMin(extendedConsumerProperties.getConcurrency());
-		consumer.setConsumeThreadMax(extendedConsumerProperties.getConcurrency());
+		RocketMQConsumerProperties.Push push = consumerProperties.getPush();
+		// Only bindings consuming a batch in parallel take more than one message at
+		// once, a consume thread waits for its whole batch anyway.
+		if (push.getOrderly() ? push.getKeyOrderedLanes() > 1
+				: push.getVirtualThreads()) {
+			consumer.setConsumeMessageBatchMaxSize(
+					push.getConsumeMessageBatchMaxSize() > 1
+							? push.getConsumeMessageBatchMaxSize()
+							: Math.max(1, consumerProperties.getPullBatchSize()));
+		}
+		if (push.getAdaptiveConcurrency()) {
+			int min = Math.max(1, push.getAdaptiveMinConcurrency());
+			int max = Math.min(999, Math.max(min, push.getAdaptiveMaxConcurrency()));
+			consumer.setConsumeThreadMin(Math.min(max,
+					Math.max(min, extendedConsumerProperties.getConcurrency())));
+			// The client only resizes the core pool size below consumeThreadMax.
+			consumer.setConsumeThreadMax(max + 1);
+		}
+		else {
+			consumer.setConsumeThreadMin(extendedConsumerProperties.getConcurrency());
+			consumer.setConsumeThreadMax(extendedConsumerProperties.getConcurrency());
+		}
 		consumer.setUnitName(consumerProperties.getUnitName());
 		return consumer;
 	}
@@ -137,8 +158,9 @@ public final class RocketMQConsumerFactory {
 				rpcHook);
 		consumer.setVipChannelEnabled(
 				null == rpcHook && consumerProperties.getVipChannelEnabled());
-		consumer.setInstanceName(
-				RocketMQUtils.getInstanceName(rpcHook, consumerProperties.getGroup()));
+		consumer.setInstanceName(consumerProperties.getShareClientInstance()
+				? RocketMQUtils.getSharedInstanceName(consumerProperties)
+				: RocketMQUtils.getInstanceName(rpcHook, consumerProperties.getGroup()));
 		if (null != allocateMessageQueueStrategy) {
 			consumer.setAllocateMessageQueueStrategy(allocateMessageQueueStrategy);
 		}
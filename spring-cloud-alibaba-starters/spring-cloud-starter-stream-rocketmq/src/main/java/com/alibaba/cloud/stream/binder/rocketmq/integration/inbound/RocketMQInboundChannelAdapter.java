@@ -17,10 +17,17 @@
 package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound;
 
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import com.alibaba.cloud.stream.binder.rocketmq.custom.RocketMQBeanContainerCache;
+import com.alibaba.cloud.stream.binder.rocketmq.extend.DeduplicationStore;
 import com.alibaba.cloud.stream.binder.rocketmq.metrics.Instrumentation;
 import com.alibaba.cloud.stream.binder.rocketmq.metrics.InstrumentationManager;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.support.RocketMQMessageConverterSupport;
 import com.alibaba.cloud.stream.binder.rocketmq.utils.RocketMQUtils;
@@ -29,6 +36,7 @@ import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
 import org.apache.rocketmq.client.consumer.listener.ConsumeOrderlyStatus;
 import org.apache.rocketmq.client.consumer.listener.MessageListenerConcurrently;
 import org.apache.rocketmq.client.consumer.listener.MessageListenerOrderly;
+import org.apache.rocketmq.common.ThreadFactoryImpl;
 import org.apache.rocketmq.common.message.MessageExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +54,7 @@ import org.springframework.retry.RetryListener;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
@@ -56,12 +65,36 @@ public class RocketMQInboundChannelAdapter extends MessageProducerSupport
 	private static final Logger log = LoggerFactory
 			.getLogger(RocketMQInboundChannelAdapter.class);
 
+	private static final long PACE_INTERVAL_MILLIS = 100;
+
 	private RetryTemplate retryTemplate;
 
 	private RecoveryCallback<Object> recoveryCallback;
 
 	private DefaultMQPushConsumer pushConsumer;
 
+	private Instrumentation instrumentation;
+
+	private RocketMQBindingMetrics metrics = RocketMQBindingMetrics.NOOP;
+
+	private RocketMQConcurrencyController concurrencyController;
+
+	private RocketMQConsumeExecutor consumeExecutor;
+
+	private int keyOrderedLanes;
+
+	private Function<MessageExt, String> keyExtractor;
+
+	private RocketMQMessageDeduplicator deduplicator;
+
+	private Supplier<RocketMQConsumerProperties.RateLimit> rateLimitSupplier;
+
+	private RocketMQRateLimiter rateLimiter;
+
+	private long pullInterval;
+
+	private ScheduledExecutorService pacer;
+
 	private final String topic;
 
 	private final ExtendedConsumerProperties<RocketMQConsumerProperties> extendedConsumerProperties;
@@ -100,11 +133,48 @@ public class RocketMQInboundChannelAdapter extends MessageProducerSupport
 					@Override
 					public <T, E extends Throwable> void onError(RetryContext context,
 							RetryCallback<T, E> callback, Throwable throwable) {
+						metrics.recordRetry();
 					}
 				});
 			}
 			pushConsumer = RocketMQConsumerFactory
 					.initPushConsumer(extendedConsumerProperties);
+			RocketMQConsumerProperties.Push push = extendedConsumerProperties
+					.getExtension().getPush();
+			// Messages of an orderly queue must be consumed one by one, or one by one
+			// per key.
+			if (push.getOrderly() && push.getKeyOrderedLanes() > 1) {
+				keyOrderedLanes = push.getKeyOrderedLanes();
+				String keyHeader = push.getKeyOrderedHeader();
+				keyExtractor = StringUtils.hasText(keyHeader)
+						? messageExt -> messageExt.getUserProperty(keyHeader)
+						: MessageExt::getKeys;
+				consumeExecutor = new RocketMQConsumeExecutor(topic,
+						push.getKeyOrderedLaneConcurrency(), push.getVirtualThreads());
+			}
+			else if (push.getVirtualThreads() && !push.getOrderly()) {
+				consumeExecutor = new RocketMQConsumeExecutor(topic,
+						push.getVirtualThreadConcurrency(), true);
+			}
+			rateLimiter = new RocketMQRateLimiter(rateLimitSupplier != null
+					? rateLimitSupplier
+					: extendedConsumerProperties.getExtension()::getRateLimit);
+			pullInterval = pushConsumer.getPullInterval();
+			RocketMQConsumerProperties.Deduplication deduplication = extendedConsumerProperties
+					.getExtension().getDeduplication();
+			if (deduplication.getEnabled()) {
+				deduplicator = new RocketMQMessageDeduplicator(
+						deduplication.getCapacity(), deduplication.getWindowMillis(),
+						deduplication.getKeyHeader(),
+						RocketMQBeanContainerCache.getBean(deduplication.getStore(),
+								DeduplicationStore.class),
+						metrics);
+			}
+			if (extendedConsumerProperties.getExtension().getPush()
+					.getAdaptiveConcurrency()) {
+				concurrencyController = new RocketMQConcurrencyController(pushConsumer,
+						extendedConsumerProperties.getExtension().getPush(), metrics);
+			}
 			// prepare register consumer message listener,the next step is to be
 			// compatible with a custom MessageListener.
 			if (extendedConsumerProperties.getExtension().getPush().getOrderly()) {
@@ -154,28 +224,109 @@ public class RocketMQInboundChannelAdapter extends MessageProducerSupport
 			throw new MessagingException(
 					"DefaultMQPushConsumer consuming failed, Caused by messageExtList is empty");
 		}
+		long startNanos = System.nanoTime();
 		for (MessageExt messageExt : messageExtList) {
-			try {
-				Message<?> message = RocketMQMessageConverterSupport
-						.convertMessage2Spring(messageExt);
-				if (this.retryTemplate != null) {
-					this.retryTemplate.execute(context -> {
-						this.sendMessage(message);
-						return message;
-					}, this.recoveryCallback);
+			metrics.recordReceived(messageExt);
+		}
+		if (rateLimiter.isEnabled()) {
+			// the pacer delays the next pulls instead of blocking this thread
+			for (MessageExt messageExt : messageExtList) {
+				rateLimiter.acquire(messageExt);
+			}
+		}
+		MessageExt failed = null;
+		// the consume thread waits for the status of its batch either way, so a single
+		// message is consumed on it rather than handed to another thread
+		if (consumeExecutor != null && messageExtList.size() > 1) {
+			failed = keyOrderedLanes > 1
+					? consumeExecutor.consumeByKey(messageExtList, keyOrderedLanes,
+							keyExtractor, this::consumeMessage)
+					: consumeExecutor.consume(messageExtList, this::consumeMessage);
+		}
+		else {
+			for (MessageExt messageExt : messageExtList) {
+				try {
+					consumeMessage(messageExt);
 				}
-				else {
-					this.sendMessage(message);
+				catch (Exception e) {
+					log.warn("consume message failed. messageExt:{}", messageExt, e);
+					failed = messageExt;
+					break;
 				}
 			}
-			catch (Exception e) {
-				log.warn("consume message failed. messageExt:{}", messageExt, e);
-				return failSupplier.get();
+		}
+		if (failed != null) {
+			recordConsume(startNanos, messageExtList.size(), false);
+			if (isDeadLetter(failed)) {
+				metrics.recordDeadLetter();
 			}
+			return failSupplier.get();
 		}
+		recordConsume(startNanos, messageExtList.size(), true);
 		return sucSupplier.get();
 	}
 
+	private void consumeMessage(MessageExt messageExt) {
+		if (deduplicator != null && deduplicator.isDuplicate(messageExt)) {
+			log.debug("skip duplicate message. msgId:{}", messageExt.getMsgId());
+			return;
+		}
+		Message<?> message = RocketMQMessageConverterSupport
+				.convertMessage2Spring(messageExt);
+		if (this.retryTemplate != null) {
+			this.retryTemplate.execute(context -> {
+				this.sendMessage(message);
+				return message;
+			}, this.recoveryCallback);
+		}
+		else {
+			this.sendMessage(message);
+		}
+		if (deduplicator != null) {
+			deduplicator.markConsumed(messageExt);
+		}
+	}
+
+	/**
+	 * Set the pull interval of the consumer to the time the rate limiter needs to
+	 * repay its debt. The pull interval applies to every queue of the consumer, so it
+	 * is only set here, by a single thread, rather than by the consume threads.
+	 */
+	private void pace() {
+		long interval = rateLimiter.isEnabled()
+				? Math.max(pullInterval, rateLimiter.getDelayMillis()) : pullInterval;
+		if (pushConsumer.getPullInterval() != interval) {
+			pushConsumer.setPullInterval(interval);
+		}
+	}
+
+	private void recordConsume(long startNanos, int batchSize, boolean success) {
+		metrics.recordConsume(startNanos, batchSize, success);
+		if (concurrencyController != null) {
+			concurrencyController.recordConsume(startNanos, batchSize);
+		}
+	}
+
+	/**
+	 * Whether the broker will move a message to the dead letter queue when its
+	 * consumption fails now.
+	 * @param messageExt the failed message
+	 * @return true if it is the last attempt
+	 */
+	private boolean isDeadLetter(MessageExt messageExt) {
+		RocketMQConsumerProperties.Push push = extendedConsumerProperties.getExtension()
+				.getPush();
+		if (!push.getOrderly() && push.getDelayLevelWhenNextConsume() == -1) {
+			return true;
+		}
+		int maxReconsumeTimes = pushConsumer.getMaxReconsumeTimes();
+		if (maxReconsumeTimes == -1) {
+			// the defaults of DefaultMQPushConsumer
+			maxReconsumeTimes = push.getOrderly() ? Integer.MAX_VALUE : 16;
+		}
+		return messageExt.getReconsumeTimes() >= maxReconsumeTimes;
+	}
+
 	@Override
 	protected void doStart() {
 		if (extendedConsumerProperties.getExtension() == null
@@ -183,10 +334,24 @@ public class RocketMQInboundChannelAdapter extends MessageProducerSupport
 			return;
 		}
 		Instrumentation instrumentation = new Instrumentation(topic, this);
+		this.instrumentation = instrumentation;
 		try {
 			pushConsumer.subscribe(topic, RocketMQUtils.getMessageSelector(
 					extendedConsumerProperties.getExtension().getSubscription()));
 			pushConsumer.start();
+			pacer = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryImpl("RocketMQRateLimitPacer_", true));
+			pacer.scheduleWithFixedDelay(() -> {
+				try {
+					pace();
+				}
+				catch (Throwable e) {
+					log.error("pace pull interval error: " + e.getMessage(), e);
+				}
+			}, PACE_INTERVAL_MILLIS, PACE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+			if (concurrencyController != null) {
+				concurrencyController.start();
+			}
 			instrumentation.markStartedSuccessfully();
 		}
 		catch (Exception e) {
@@ -203,9 +368,29 @@ public class RocketMQInboundChannelAdapter extends MessageProducerSupport
 
 	@Override
 	protected void doStop() {
+		if (pacer != null) {
+			pacer.shutdownNow();
+			pacer = null;
+		}
+		if (concurrencyController != null) {
+			concurrencyController.stop();
+		}
 		if (pushConsumer != null) {
 			pushConsumer.shutdown();
 		}
+		if (consumeExecutor != null) {
+			consumeExecutor.shutdown();
+		}
+		InstrumentationManager.removeHealthInstrumentation(instrumentation);
+	}
+
+	public void setMetrics(RocketMQBindingMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public void setRateLimitSupplier(
+			Supplier<RocketMQConsumerProperties.RateLimit> rateLimitSupplier) {
+		this.rateLimitSupplier = rateLimitSupplier;
 	}
 
 	public void setRetryTemplate(RetryTemplate retryTemplate) {
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound;
+
+import com.alibaba.cloud.stream.binder.rocketmq.extend.DeduplicationStore;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import com.alibaba.cloud.stream.binder.rocketmq.utils.RocketMQUtils;
+import org.apache.rocketmq.common.message.MessageExt;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Skips messages consumed within a time window, to make redeliveries idempotent.
+ * <p>
+ * Keys are the message id, which survives producer retries and consume retries, or a
+ * user property. They are kept as 64-bit hashes with their expiry time in two primitive
+ * arrays of a fixed capacity, probed linearly over a few slots; when all slots are
+ * taken, the entry expiring first is evicted. Two keys colliding on 64 bits would be
+ * mistaken for each other. An optional {@link DeduplicationStore} is consulted on local
+ * misses and written on every consumed message.
+ *
+ * @author agent
+ */
+public class RocketMQMessageDeduplicator {
+
+	private static final int PROBES = 8;
+
+	private final long[] hashes;
+
+	private final long[] expiresAt;
+
+	private final int mask;
+
+	private final String keyHeader;
+
+	private final long windowMillis;
+
+	private final DeduplicationStore store;
+
+	private final RocketMQBindingMetrics metrics;
+
+	/**
+	 * @param capacity the number of keys kept in memory, rounded up to a power of two
+	 * @param windowMillis how long a consumed key is remembered
+	 * @param keyHeader the user property holding the key, the message id if empty
+	 * @param store a persistent store, may be null
+	 * @param metrics records the hit rate
+	 */
+	public RocketMQMessageDeduplicator(int capacity, long windowMillis, String keyHeader,
+			DeduplicationStore store, RocketMQBindingMetrics metrics) {
+		int size = Integer.highestOneBit(Math.max(PROBES, capacity - 1) << 1);
+		this.hashes = new long[size];
+		this.expiresAt = new long[size];
+		this.mask = size - 1;
+		this.windowMillis = windowMillis;
+		this.keyHeader = StringUtils.hasText(keyHeader) ? keyHeader : null;
+		this.store = store;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Whether the message was consumed within the window.
+	 * @param messageExt the message
+	 * @return true if it must be skipped
+	 */
+	public boolean isDuplicate(MessageExt messageExt) {
+		String key = getKey(messageExt);
+		if (key == null) {
+			return false;
+		}
+		long hash = RocketMQUtils.hash64(key);
+		long now = System.currentTimeMillis();
+		boolean duplicate = contains(hash, now);
+		if (!duplicate && store != null && store.contains(key)) {
+			put(hash, now + windowMillis);
+			duplicate = true;
+		}
+		metrics.recordDeduplication(duplicate);
+		return duplicate;
+	}
+
+	/**
+	 * Remember that the message was consumed.
+	 * @param messageExt the message
+	 */
+	public void markConsumed(MessageExt messageExt) {
+		String key = getKey(messageExt);
+		if (key == null) {
+			return;
+		}
+		put(RocketMQUtils.hash64(key), System.currentTimeMillis() + windowMillis);
+		if (store != null) {
+			store.put(key, windowMillis);
+		}
+	}
+
+	private String getKey(MessageExt messageExt) {
+		return keyHeader == null ? messageExt.getMsgId()
+				: messageExt.getUserProperty(keyHeader);
+	}
+
+	private synchronized boolean contains(long hash, long now) {
+		int index = (int) hash & mask;
+		for (int i = 0; i < PROBES; i++, index = (index + 1) & mask) {
+			if (hashes[index] == hash) {
+				return expiresAt[index] > now;
+			}
+		}
+		return false;
+	}
+
+	private synchronized void put(long hash, long expiry) {
+		int index = (int) hash & mask;
+		int victim = index;
+		for (int i = 0; i < PROBES; i++, index = (index + 1) & mask) {
+			if (hashes[index] == hash || hashes[index] == 0) {
+				victim = index;
+				break;
+			}
+			if (expiresAt[index] < expiresAt[victim]) {
+				victim = index;
+			}
+		}
+		hashes[victim] = hash;
+		expiresAt[victim] = expiry;
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
+import org.apache.rocketmq.common.message.MessageExt;
+
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Token buckets limiting the consume rate of a binding, and optionally of each tag.
+ * <p>
+ * Consumed messages always take their tokens, possibly leaving a bucket in debt;
+ * callers do not wait for tokens but stop pulling for {@link #getDelayMillis()}
+ * instead. The limits are read again from the supplier once a second, so that they
+ * follow the binding properties rebound on a configuration refresh.
+ *
+ * @author agent
+ */
+public class RocketMQRateLimiter {
+
+	private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final Supplier<RocketMQConsumerProperties.RateLimit> rateLimitSupplier;
+
+	private volatile TokenBucket bucket;
+
+	private volatile Map<String, TokenBucket> tagBuckets = Collections.emptyMap();
+
+	private volatile long refreshedNanos;
+
+	public RocketMQRateLimiter(
+			Supplier<RocketMQConsumerProperties.RateLimit> rateLimitSupplier) {
+		this.rateLimitSupplier = rateLimitSupplier;
+		refresh(System.nanoTime());
+	}
+
+	/**
+	 * Whether any limit is configured.
+	 * @return false if consumption is unlimited
+	 */
+	public boolean isEnabled() {
+		refreshIfNecessary();
+		return bucket != null || !tagBuckets.isEmpty();
+	}
+
+	/**
+	 * Take a token for a consumed message.
+	 * @param messageExt the message
+	 */
+	public void acquire(MessageExt messageExt) {
+		TokenBucket bucket = this.bucket;
+		if (bucket != null) {
+			bucket.take();
+		}
+		Map<String, TokenBucket> tagBuckets = this.tagBuckets;
+		if (!tagBuckets.isEmpty() && messageExt.getTags() != null) {
+			TokenBucket tagBucket = tagBuckets.get(messageExt.getTags());
+			if (tagBucket != null) {
+				tagBucket.take();
+			}
+		}
+	}
+
+	/**
+	 * How long to stop pulling until all buckets are out of debt.
+	 * @return the delay in milliseconds, 0 if messages may be pulled now
+	 */
+	public long getDelayMillis() {
+		long now = System.nanoTime();
+		long delayNanos = 0;
+		TokenBucket bucket = this.bucket;
+		if (bucket != null) {
+			delayNanos = bucket.delayNanos(now);
+		}
+		for (TokenBucket tagBucket : tagBuckets.values()) {
+			delayNanos = Math.max(delayNanos, tagBucket.delayNanos(now));
+		}
+		return TimeUnit.NANOSECONDS.toMillis(delayNanos + 999_999);
+	}
+
+	private void refreshIfNecessary() {
+		long now = System.nanoTime();
+		if (now - refreshedNanos >= REFRESH_INTERVAL_NANOS) {
+			refresh(now);
+		}
+	}
+
+	private synchronized void refresh(long now) {
+		refreshedNanos = now;
+		RocketMQConsumerProperties.RateLimit rateLimit = rateLimitSupplier.get();
+		if (rateLimit == null) {
+			bucket = null;
+			tagBuckets = Collections.emptyMap();
+			return;
+		}
+		bucket = update(bucket, rateLimit.getPermitsPerSecond(), rateLimit.getBurst());
+		Map<String, Double> tagPermits = rateLimit.getTagPermitsPerSecond();
+		if (CollectionUtils.isEmpty(tagPermits)) {
+			tagBuckets = Collections.emptyMap();
+			return;
+		}
+		Map<String, TokenBucket> buckets = new HashMap<>();
+		tagPermits.forEach((tag, permitsPerSecond) -> {
+			TokenBucket tagBucket = update(tagBuckets.get(tag),
+					permitsPerSecond == null ? 0 : permitsPerSecond, rateLimit.getBurst());
+			if (tagBucket != null) {
+				buckets.put(tag, tagBucket);
+			}
+		});
+		tagBuckets = buckets;
+	}
+
+	private static TokenBucket update(TokenBucket bucket, double permitsPerSecond,
+			int burst) {
+		if (permitsPerSecond <= 0) {
+			return null;
+		}
+		if (bucket == null) {
+			return new TokenBucket(permitsPerSecond, burst);
+		}
+		bucket.update(permitsPerSecond, burst);
+		return bucket;
+	}
+
+	private static final class TokenBucket {
+
+		private double permitsPerNano;
+
+		private double capacity;
+
+		private double tokens;
+
+		private long refilledNanos;
+
+		private TokenBucket(double permitsPerSecond, int burst) {
+			this.refilledNanos = System.nanoTime();
+			update(permitsPerSecond, burst);
+			this.tokens = capacity;
+		}
+
+		private synchronized void update(double permitsPerSecond, int burst) {
+			refill(System.nanoTime());
+			this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+			// one second of permits by default
+			this.capacity = burst > 0 ? burst : Math.max(1, permitsPerSecond);
+			this.tokens = Math.min(tokens, capacity);
+		}
+
+		private synchronized void take() {
+			refill(System.nanoTime());
+			tokens--;
+		}
+
+		private synchronized long delayNanos(long now) {
+			refill(now);
+			return tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+		}
+
+		private void refill(long now) {
+			if (now > refilledNanos) {
+				tokens = Math.min(capacity,
+						tokens + (now - refilledNanos) * permitsPerNano);
+				refilledNanos = now;
+			}
+		}
+
+	}
+
+}
@@ -16,8 +16,6 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull;
 
-import org.apache.rocketmq.client.consumer.DefaultLitePullConsumer;
-import org.apache.rocketmq.client.exception.MQClientException;
 import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.common.message.MessageQueue;
 import org.slf4j.Logger;
@@ -41,14 +39,16 @@ public class RocketMQAckCallback implements AcknowledgmentCallback {
 
 	private MessageExt messageExt;
 
-	private DefaultLitePullConsumer consumer;
+	private RocketMQOffsetTracker offsetTracker;
 
 	private final MessageQueue messageQueue;
 
-	public RocketMQAckCallback(DefaultLitePullConsumer consumer,
+	private final long receivedNanos = System.nanoTime();
+
+	public RocketMQAckCallback(RocketMQOffsetTracker offsetTracker,
 			MessageQueue messageQueue, MessageExt messageExt) {
 		this.messageExt = messageExt;
-		this.consumer = consumer;
+		this.offsetTracker = offsetTracker;
 		this.messageQueue = messageQueue;
 	}
 
@@ -73,21 +73,14 @@ public class RocketMQAckCallback implements AcknowledgmentCallback {
 		if (this.acknowledged) {
 			throw new IllegalStateException("Already acknowledged");
 		}
-		synchronized (messageQueue) {
-			try {
-				long offset = messageExt.getQueueOffset();
-				switch (status) {
-				case REJECT, ACCEPT -> consumer.committed(messageQueue);
-				case REQUEUE -> consumer.seek(messageQueue, offset);
-				}
-			}
-			catch (MQClientException e) {
-				throw new IllegalStateException(e);
-			}
-			finally {
-				this.acknowledged = true;
-			}
+		offsetTracker.getMetrics().recordConsume(receivedNanos, 1,
+				status == Status.ACCEPT);
+		switch (status) {
+		case REJECT, ACCEPT -> offsetTracker.ack(messageQueue,
+				messageExt.getQueueOffset());
+		case REQUEUE -> offsetTracker.requeue(messageQueue, messageExt);
 		}
+		this.acknowledged = true;
 	}
 
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull;
+
+import java.util.List;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+
+import org.springframework.integration.acks.AcknowledgmentCallback;
+import org.springframework.util.Assert;
+
+/**
+ * Acknowledges all messages of a batch received by {@link RocketMQMessageSource}. The
+ * messages of a requeued batch are handed out again in the next batch.
+ *
+ * @author agent
+ */
+public class RocketMQBatchAckCallback implements AcknowledgmentCallback {
+
+	private boolean acknowledged;
+
+	private boolean autoAckEnabled = true;
+
+	private final RocketMQOffsetTracker offsetTracker;
+
+	private final List<MessageQueue> messageQueues;
+
+	private final List<MessageExt> messageExtList;
+
+	private final long receivedNanos = System.nanoTime();
+
+	/**
+	 * @param offsetTracker the offset tracker of the message source
+	 * @param messageQueues the message queue of each message
+	 * @param messageExtList the messages of the batch
+	 */
+	public RocketMQBatchAckCallback(RocketMQOffsetTracker offsetTracker,
+			List<MessageQueue> messageQueues, List<MessageExt> messageExtList) {
+		this.offsetTracker = offsetTracker;
+		this.messageQueues = messageQueues;
+		this.messageExtList = messageExtList;
+	}
+
+	@Override
+	public boolean isAcknowledged() {
+		return this.acknowledged;
+	}
+
+	@Override
+	public void noAutoAck() {
+		this.autoAckEnabled = false;
+	}
+
+	@Override
+	public boolean isAutoAck() {
+		return this.autoAckEnabled;
+	}
+
+	@Override
+	public void acknowledge(Status status) {
+		Assert.notNull(status, "'status' cannot be null");
+		if (this.acknowledged) {
+			throw new IllegalStateException("Already acknowledged");
+		}
+		offsetTracker.getMetrics().recordConsume(receivedNanos, messageExtList.size(),
+				status == Status.ACCEPT);
+		for (int i = 0; i < messageExtList.size(); i++) {
+			if (status == Status.REQUEUE) {
+				offsetTracker.requeue(messageQueues.get(i), messageExtList.get(i));
+			}
+			else {
+				offsetTracker.ack(messageQueues.get(i),
+						messageExtList.get(i).getQueueOffset());
+			}
+		}
+		this.acknowledged = true;
+	}
+
+}
@@ -16,19 +16,30 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
+import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst.Headers;
 import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.RocketMQConsumerFactory;
+import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.RocketMQRateLimiter;
+import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull.RocketMQOffsetTracker.TrackedMessage;
 import com.alibaba.cloud.stream.binder.rocketmq.metrics.Instrumentation;
 import com.alibaba.cloud.stream.binder.rocketmq.metrics.InstrumentationManager;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.support.RocketMQMessageConverterSupport;
 import com.alibaba.cloud.stream.binder.rocketmq.utils.RocketMQUtils;
 import org.apache.rocketmq.client.consumer.DefaultLitePullConsumer;
+import org.apache.rocketmq.client.consumer.MessageQueueListener;
 import org.apache.rocketmq.client.consumer.MessageSelector;
 import org.apache.rocketmq.client.exception.MQClientException;
 import org.apache.rocketmq.common.message.MessageExt;
@@ -44,9 +55,17 @@ import org.springframework.integration.endpoint.AbstractMessageSource;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.ObjectUtils;
 
 /**
+ * A pollable {@link org.springframework.integration.core.MessageSource} for RocketMQ.
+ * <p>
+ * {@link #receive()} may be called concurrently, the callers hand out the polled
+ * messages from a shared buffer, requeued messages first. Only one caller at a time
+ * polls the consumer once the buffer is empty, the others keep taking buffered
+ * messages meanwhile. In batch mode, see
+ * {@link ExtendedConsumerProperties#isBatchMode()}, each call returns all buffered
+ * messages as a list of payloads.
+ *
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
  */
 public class RocketMQMessageSource extends AbstractMessageSource<Object>
@@ -57,7 +76,7 @@ public class RocketMQMessageSource extends AbstractMessageSource<Object>
 
 	private DefaultLitePullConsumer consumer;
 
-	private final Map<String, Collection<MessageQueue>> messageQueuesForTopic = new ConcurrentHashMap<>();
+	private volatile MessageQueueIndex messageQueueIndex = MessageQueueIndex.EMPTY;
 
 	private volatile boolean running;
 
@@ -67,7 +86,28 @@ public class RocketMQMessageSource extends AbstractMessageSource<Object>
 
 	private final ExtendedConsumerProperties<RocketMQConsumerProperties> extendedConsumerProperties;
 
-	private volatile Iterator<MessageExt> messageExtIterator = null;
+	/**
+	 * The polled messages not handed out yet, guarded by the poll monitor.
+	 */
+	private final Deque<TrackedMessage> buffer = new ArrayDeque<>();
+
+	private final Object pollMonitor = new Object();
+
+	/**
+	 * Serializes polling and registering, so that the messages of a queue are
+	 * registered in offset order.
+	 */
+	private final ReentrantLock fetchLock = new ReentrantLock();
+
+	private RocketMQOffsetTracker offsetTracker;
+
+	private Instrumentation instrumentation;
+
+	private RocketMQBindingMetrics metrics = RocketMQBindingMetrics.NOOP;
+
+	private Supplier<RocketMQConsumerProperties.RateLimit> rateLimitSupplier;
+
+	private RocketMQRateLimiter rateLimiter;
 
 	public RocketMQMessageSource(String name,
 			ExtendedConsumerProperties<RocketMQConsumerProperties> extendedConsumerProperties) {
@@ -81,6 +121,7 @@ public class RocketMQMessageSource extends AbstractMessageSource<Object>
 	@Override
 	public synchronized void start() {
 		Instrumentation instrumentation = new Instrumentation(topic, this);
+		this.instrumentation = instrumentation;
 		try {
 			if (this.isRunning()) {
 				throw new IllegalStateException(
@@ -92,12 +133,23 @@ public class RocketMQMessageSource extends AbstractMessageSource<Object>
 			// this.consumer.setPullBatchSize(1);
 			this.consumer.subscribe(topic, messageSelector);
 			this.consumer.setAutoCommit(false);
-			// register TopicMessageQueueChangeListener for messageQueuesForTopic
-			consumer.registerTopicMessageQueueChangeListener(topic,
-					messageQueuesForTopic::put);
+			this.offsetTracker = new RocketMQOffsetTracker(consumer,
+					extendedConsumerProperties.getExtension().getPull()
+							.getCommitIntervalMillis(),
+					metrics);
+			// subscribe installs the listener updating the assigned queues of the
+			// consumer, track the assignment before delegating to it
+			MessageQueueListener messageQueueListener = consumer
+					.getMessageQueueListener();
+			consumer.setMessageQueueListener((topic, mqAll, mqDivided) -> {
+				assign(mqDivided);
+				messageQueueListener.messageQueueChanged(topic, mqAll, mqDivided);
+			});
 			this.consumer.start();
-			// Initialize messageQueuesForTopic immediately
-			messageQueuesForTopic.put(topic, consumer.fetchMessageQueues(topic));
+			this.offsetTracker.start();
+			this.rateLimiter = new RocketMQRateLimiter(rateLimitSupplier != null
+					? rateLimitSupplier
+					: extendedConsumerProperties.getExtension()::getRateLimit);
 			instrumentation.markStartedSuccessfully();
 		}
 		catch (MQClientException e) {
@@ -110,26 +162,19 @@ public class RocketMQMessageSource extends AbstractMessageSource<Object>
 		this.running = true;
 	}
 
-	private MessageQueue acquireCurrentMessageQueue(String topic, int queueId,
-			String brokerName) {
-		Collection<MessageQueue> messageQueueSet = messageQueuesForTopic.get(topic);
-		if (CollectionUtils.isEmpty(messageQueueSet)) {
-			return null;
-		}
-		for (MessageQueue messageQueue : messageQueueSet) {
-			if (messageQueue.getQueueId() == queueId && ObjectUtils
-					.nullSafeEquals(brokerName, messageQueue.getBrokerName())) {
-				return messageQueue;
-			}
-		}
-		return null;
-	}
-
 	@Override
 	public synchronized void stop() {
 		if (this.isRunning() && null != consumer) {
+			// The buffered messages are pulled again from the committed offsets.
+			synchronized (pollMonitor) {
+				buffer.clear();
+			}
 			consumer.unsubscribe(topic);
+			if (offsetTracker != null) {
+				offsetTracker.shutdown();
+			}
 			consumer.shutdown();
+			InstrumentationManager.removeHealthInstrumentation(instrumentation);
 			this.running = false;
 		}
 	}
@@ -140,38 +185,213 @@ public class RocketMQMessageSource extends AbstractMessageSource<Object>
 	}
 
 	@Override
-	protected synchronized Object doReceive() {
-		if (messageExtIterator == null) {
+	protected Object doReceive() {
+		if (extendedConsumerProperties.isBatchMode()) {
+			return receiveBatch();
+		}
+		RocketMQOffsetTracker offsetTracker = this.offsetTracker;
+		TrackedMessage trackedMessage = offsetTracker.pollRequeued();
+		if (trackedMessage == null) {
+			trackedMessage = pollBuffered();
+		}
+		if (trackedMessage == null) {
+			fetch(offsetTracker);
+			trackedMessage = pollBuffered();
+		}
+		if (trackedMessage == null) {
+			return null;
+		}
+		MessageExt messageExt = trackedMessage.messageExt();
+		try {
+			Message message = RocketMQMessageConverterSupport
+					.convertMessage2Spring(messageExt);
+			return MessageBuilder.fromMessage(message).setHeader(
+					IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK,
+					new RocketMQAckCallback(offsetTracker,
+							trackedMessage.messageQueue(), messageExt))
+					.build();
+		}
+		catch (RuntimeException e) {
+			// release the message, so that it doesn't hold back the queue
+			offsetTracker.ack(trackedMessage.messageQueue(),
+					messageExt.getQueueOffset());
+			throw e;
+		}
+	}
+
+	private TrackedMessage pollBuffered() {
+		synchronized (pollMonitor) {
+			return buffer.pollFirst();
+		}
+	}
+
+	/**
+	 * Poll the consumer unless another caller filled the buffer meanwhile, then
+	 * register the messages to the offset tracker and append them to the buffer. The
+	 * blocking poll runs outside of the poll monitor, so that other callers keep
+	 * taking buffered messages. Messages of queues no longer assigned, because of a
+	 * rebalance in the meantime, are skipped: their new consumer pulls them again.
+	 * Nothing is polled while the rate limit is exceeded, the consumer stops pulling
+	 * once its cache is full.
+	 */
+	private void fetch(RocketMQOffsetTracker offsetTracker) {
+		fetchLock.lock();
+		try {
+			synchronized (pollMonitor) {
+				if (!buffer.isEmpty()) {
+					return;
+				}
+			}
+			boolean rateLimited = rateLimiter.isEnabled();
+			if (rateLimited && rateLimiter.getDelayMillis() > 0) {
+				return;
+			}
 			List<MessageExt> messageExtList = consumer.poll();
 			if (CollectionUtils.isEmpty(messageExtList)) {
-				return null;
+				return;
+			}
+			for (MessageExt messageExt : messageExtList) {
+				metrics.recordReceived(messageExt);
 			}
-			messageExtIterator = messageExtList.iterator();
+			// a revocation changes the assignment under the poll monitor as well
+			synchronized (pollMonitor) {
+				for (MessageExt messageExt : messageExtList) {
+					MessageQueue messageQueue = messageQueueIndex.get(
+							messageExt.getBrokerName(), messageExt.getQueueId());
+					if (messageQueue == null) {
+						log.debug("Skip the message {} of a message queue not assigned",
+								messageExt.getMsgId());
+						continue;
+					}
+					if (rateLimited) {
+						rateLimiter.acquire(messageExt);
+					}
+					offsetTracker.register(messageQueue, messageExt.getQueueOffset());
+					buffer.addLast(new TrackedMessage(messageQueue, messageExt));
+				}
+			}
+		}
+		finally {
+			fetchLock.unlock();
 		}
-		MessageExt messageExt = messageExtIterator.next();
-		if (!messageExtIterator.hasNext()) {
-			messageExtIterator = null;
+	}
+
+	private Object receiveBatch() {
+		RocketMQOffsetTracker offsetTracker = this.offsetTracker;
+		List<TrackedMessage> trackedMessages = new ArrayList<>();
+		TrackedMessage requeued;
+		while ((requeued = offsetTracker.pollRequeued()) != null) {
+			trackedMessages.add(requeued);
 		}
-		if (null == messageExt) {
+		drainBuffered(trackedMessages);
+		if (trackedMessages.isEmpty()) {
+			fetch(offsetTracker);
+			drainBuffered(trackedMessages);
+		}
+		if (trackedMessages.isEmpty()) {
 			return null;
 		}
-		MessageQueue messageQueue = this.acquireCurrentMessageQueue(messageExt.getTopic(),
-				messageExt.getQueueId(), messageExt.getBrokerName());
-		if (messageQueue == null) {
-			throw new IllegalArgumentException(
-					"The message queue is not in assigned list");
+		List<Object> payloads = new ArrayList<>(trackedMessages.size());
+		List<Map<String, Object>> batchHeaders = new ArrayList<>(trackedMessages.size());
+		List<MessageQueue> messageQueues = new ArrayList<>(trackedMessages.size());
+		List<MessageExt> messageExtList = new ArrayList<>(trackedMessages.size());
+		try {
+			for (TrackedMessage trackedMessage : trackedMessages) {
+				Message<?> message = RocketMQMessageConverterSupport
+						.convertMessage2Spring(trackedMessage.messageExt());
+				payloads.add(message.getPayload());
+				batchHeaders.add(message.getHeaders());
+				messageQueues.add(trackedMessage.messageQueue());
+				messageExtList.add(trackedMessage.messageExt());
+			}
 		}
-		Message message = RocketMQMessageConverterSupport
-				.convertMessage2Spring(messageExt);
-		return MessageBuilder.fromMessage(message)
+		catch (RuntimeException e) {
+			// release the batch, so that it doesn't hold back the queues
+			for (TrackedMessage trackedMessage : trackedMessages) {
+				offsetTracker.ack(trackedMessage.messageQueue(),
+						trackedMessage.messageExt().getQueueOffset());
+			}
+			throw e;
+		}
+		return MessageBuilder.withPayload(payloads)
+				.setHeader(RocketMQMessageConverterSupport
+						.toRocketHeaderKey(Headers.BATCH_HEADERS), batchHeaders)
 				.setHeader(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK,
-						new RocketMQAckCallback(this.consumer, messageQueue, messageExt))
+						new RocketMQBatchAckCallback(offsetTracker, messageQueues,
+								messageExtList))
 				.build();
 	}
 
+	/**
+	 * Track the queues assigned by a rebalance. The buffered and requeued messages of
+	 * revoked queues are dropped along with their acknowledgements, the new consumer
+	 * of a queue pulls them again from its committed offset.
+	 */
+	private void assign(Set<MessageQueue> messageQueues) {
+		synchronized (pollMonitor) {
+			this.messageQueueIndex = new MessageQueueIndex(messageQueues);
+			buffer.removeIf(
+					trackedMessage -> !messageQueues.contains(trackedMessage.messageQueue()));
+			offsetTracker.retain(messageQueues);
+		}
+	}
+
+	private void drainBuffered(List<TrackedMessage> trackedMessages) {
+		synchronized (pollMonitor) {
+			trackedMessages.addAll(buffer);
+			buffer.clear();
+		}
+	}
+
+	public void setMetrics(RocketMQBindingMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public void setRateLimitSupplier(
+			Supplier<RocketMQConsumerProperties.RateLimit> rateLimitSupplier) {
+		this.rateLimitSupplier = rateLimitSupplier;
+	}
+
 	@Override
 	public String getComponentType() {
 		return "rocketmq:message-source";
 	}
 
+	/**
+	 * The assigned message queues of the topic, indexed by broker name and queue id.
+	 */
+	private static final class MessageQueueIndex {
+
+		private static final MessageQueueIndex EMPTY = new MessageQueueIndex(
+				Collections.emptySet());
+
+		private final Map<String, MessageQueue[]> messageQueues = new HashMap<>();
+
+		private MessageQueueIndex(Collection<MessageQueue> messageQueueSet) {
+			if (CollectionUtils.isEmpty(messageQueueSet)) {
+				return;
+			}
+			Map<String, Integer> maxQueueIds = new HashMap<>();
+			for (MessageQueue messageQueue : messageQueueSet) {
+				maxQueueIds.merge(messageQueue.getBrokerName(),
+						messageQueue.getQueueId(), Math::max);
+			}
+			maxQueueIds.forEach((brokerName, maxQueueId) -> messageQueues
+					.put(brokerName, new MessageQueue[maxQueueId + 1]));
+			for (MessageQueue messageQueue : messageQueueSet) {
+				messageQueues.get(messageQueue.getBrokerName())[messageQueue
+						.getQueueId()] = messageQueue;
+			}
+		}
+
+		private MessageQueue get(String brokerName, int queueId) {
+			MessageQueue[] queues = messageQueues.get(brokerName);
+			if (queues == null || queueId < 0 || queueId >= queues.length) {
+				return null;
+			}
+			return queues[queueId];
+		}
+
+	}
+
 }
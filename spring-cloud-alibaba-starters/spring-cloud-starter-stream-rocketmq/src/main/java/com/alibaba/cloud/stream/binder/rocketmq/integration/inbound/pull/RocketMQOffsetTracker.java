@@ -0,0 +1,280 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull;
+
+import java.lang.reflect.Field;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import org.apache.rocketmq.client.consumer.DefaultLitePullConsumer;
+import org.apache.rocketmq.client.consumer.store.OffsetStore;
+import org.apache.rocketmq.client.impl.consumer.DefaultLitePullConsumerImpl;
+import org.apache.rocketmq.common.ThreadFactoryImpl;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Tracks the acknowledgements of the messages polled by {@link RocketMQMessageSource}
+ * with a sliding window per message queue. The committable offset of a queue only
+ * advances over contiguous acknowledged messages, so out of order manual acks never
+ * commit past an unacknowledged message. Committable offsets are flushed to the offset
+ * store of the consumer periodically and the client persists them to the broker.
+ * Requeued messages stay unacknowledged and are handed out again by the message source,
+ * the queue is not pulled again.
+ *
+ * @author agent
+ */
+public class RocketMQOffsetTracker {
+
+	private final static Logger log = LoggerFactory
+			.getLogger(RocketMQOffsetTracker.class);
+
+	private final DefaultLitePullConsumer consumer;
+
+	private final long commitIntervalMillis;
+
+	private final RocketMQBindingMetrics metrics;
+
+	private final Map<MessageQueue, AckWindow> ackWindows = new ConcurrentHashMap<>();
+
+	private final Set<MessageQueue> dirtyQueues = ConcurrentHashMap.newKeySet();
+
+	private final Queue<TrackedMessage> requeuedMessages = new ConcurrentLinkedQueue<>();
+
+	private OffsetStore offsetStore;
+
+	private ScheduledExecutorService flushExecutor;
+
+	public RocketMQOffsetTracker(DefaultLitePullConsumer consumer,
+			long commitIntervalMillis) {
+		this(consumer, commitIntervalMillis, RocketMQBindingMetrics.NOOP);
+	}
+
+	public RocketMQOffsetTracker(DefaultLitePullConsumer consumer,
+			long commitIntervalMillis, RocketMQBindingMetrics metrics) {
+		this.consumer = consumer;
+		this.commitIntervalMillis = commitIntervalMillis;
+		this.metrics = metrics;
+	}
+
+	public RocketMQBindingMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Start flushing committable offsets, the consumer must have been started.
+	 */
+	public void start() {
+		this.offsetStore = getOffsetStore(consumer);
+		this.flushExecutor = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryImpl("RocketMQOffsetFlush_", true));
+		this.flushExecutor.scheduleWithFixedDelay(this::flushQuietly,
+				commitIntervalMillis, commitIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop flushing and flush the committable offsets one last time.
+	 */
+	public void shutdown() {
+		if (flushExecutor != null) {
+			flushExecutor.shutdown();
+			flushExecutor = null;
+		}
+		flushQuietly();
+	}
+
+	/**
+	 * Register a polled message as unacknowledged. Messages of a queue must be
+	 * registered in the order they were polled.
+	 * @param messageQueue the queue of the message
+	 * @param offset the queue offset of the message
+	 */
+	public void register(MessageQueue messageQueue, long offset) {
+		ackWindows.computeIfAbsent(messageQueue, mq -> new AckWindow())
+				.register(offset);
+	}
+
+	/**
+	 * Mark a message as acknowledged.
+	 * @param messageQueue the queue of the message
+	 * @param offset the queue offset of the message
+	 */
+	public void ack(MessageQueue messageQueue, long offset) {
+		AckWindow ackWindow = ackWindows.get(messageQueue);
+		if (ackWindow != null && ackWindow.ack(offset)) {
+			dirtyQueues.add(messageQueue);
+		}
+	}
+
+	/**
+	 * Hand out a message again, it stays unacknowledged until it is acknowledged after
+	 * redelivery. Messages of queues not assigned anymore are dropped.
+	 * @param messageQueue the queue of the message
+	 * @param messageExt the message
+	 */
+	public void requeue(MessageQueue messageQueue, MessageExt messageExt) {
+		if (ackWindows.containsKey(messageQueue)) {
+			requeuedMessages.add(new TrackedMessage(messageQueue, messageExt));
+		}
+	}
+
+	/**
+	 * @return the next requeued message, or null if none is left
+	 */
+	public TrackedMessage pollRequeued() {
+		return requeuedMessages.poll();
+	}
+
+	/**
+	 * Forget the queues not assigned anymore: their unacknowledged and requeued
+	 * messages are dropped, later acknowledgements of them are ignored and their
+	 * offsets are not flushed anymore.
+	 * @param messageQueues the queues assigned to the consumer
+	 */
+	public void retain(Set<MessageQueue> messageQueues) {
+		ackWindows.keySet().retainAll(messageQueues);
+		dirtyQueues.retainAll(messageQueues);
+		requeuedMessages.removeIf(
+				trackedMessage -> !messageQueues.contains(trackedMessage.messageQueue()));
+	}
+
+	/**
+	 * Flush the committable offset of every queue acknowledged since the last flush to
+	 * the offset store.
+	 */
+	public void flush() {
+		if (offsetStore == null) {
+			return;
+		}
+		for (MessageQueue messageQueue : dirtyQueues) {
+			dirtyQueues.remove(messageQueue);
+			AckWindow ackWindow = ackWindows.get(messageQueue);
+			if (ackWindow != null) {
+				offsetStore.updateOffset(messageQueue, ackWindow.committableOffset(),
+						true);
+			}
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		}
+		catch (Throwable e) {
+			log.error("flush committable offsets error: " + e.getMessage(), e);
+		}
+	}
+
+	private static OffsetStore getOffsetStore(DefaultLitePullConsumer consumer) {
+		if (consumer.getOffsetStore() != null) {
+			return consumer.getOffsetStore();
+		}
+		Field field = ReflectionUtils.findField(DefaultLitePullConsumer.class,
+				"defaultLitePullConsumerImpl");
+		if (field == null) {
+			throw new IllegalStateException(
+					"can not find the offset store of DefaultLitePullConsumer");
+		}
+		ReflectionUtils.makeAccessible(field);
+		return ((DefaultLitePullConsumerImpl) ReflectionUtils.getField(field, consumer))
+				.getOffsetStore();
+	}
+
+	/**
+	 * A registered message with its queue.
+	 * @param messageQueue the queue of the message
+	 * @param messageExt the message
+	 */
+	public record TrackedMessage(MessageQueue messageQueue, MessageExt messageExt) {
+
+	}
+
+	/**
+	 * A bitset of the unacknowledged offsets of a queue, relative to a base offset.
+	 */
+	static final class AckWindow {
+
+		/**
+		 * Compact the bitset once this many leading offsets have been acknowledged.
+		 */
+		private static final int COMPACT_THRESHOLD = 1024;
+
+		private long baseOffset = -1;
+
+		private long nextOffset = -1;
+
+		private BitSet pending = new BitSet();
+
+		synchronized void register(long offset) {
+			if (baseOffset < 0 || pending.isEmpty() && offset >= nextOffset) {
+				baseOffset = offset;
+				pending.clear();
+			}
+			if (offset < baseOffset || offset - baseOffset > Integer.MAX_VALUE - 1) {
+				return;
+			}
+			pending.set((int) (offset - baseOffset));
+			nextOffset = Math.max(nextOffset, offset + 1);
+		}
+
+		/**
+		 * @return true if the committable offset advanced
+		 */
+		synchronized boolean ack(long offset) {
+			if (offset < baseOffset || offset >= nextOffset) {
+				return false;
+			}
+			int index = (int) (offset - baseOffset);
+			if (!pending.get(index)) {
+				return false;
+			}
+			boolean advanced = index == pending.nextSetBit(0);
+			pending.clear(index);
+			if (advanced) {
+				int first = pending.nextSetBit(0);
+				if (first < 0) {
+					baseOffset = nextOffset;
+				}
+				else if (first >= COMPACT_THRESHOLD) {
+					pending = pending.get(first, pending.length());
+					baseOffset += first;
+				}
+			}
+			return advanced;
+		}
+
+		synchronized long committableOffset() {
+			int first = pending.nextSetBit(0);
+			return first < 0 ? nextOffset : baseOffset + first;
+		}
+
+	}
+
+}
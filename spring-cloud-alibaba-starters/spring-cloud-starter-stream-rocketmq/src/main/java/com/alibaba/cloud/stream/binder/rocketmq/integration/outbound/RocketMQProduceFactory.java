@@ -17,10 +17,16 @@
 package com.alibaba.cloud.stream.binder.rocketmq.integration.outbound;
 
 import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst;
 import com.alibaba.cloud.stream.binder.rocketmq.custom.RocketMQBeanContainerCache;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQProducerProperties;
+import com.alibaba.cloud.stream.binder.rocketmq.support.RocketMQCompressionSupport;
 import com.alibaba.cloud.stream.binder.rocketmq.utils.RocketMQUtils;
 import org.apache.rocketmq.acl.common.AclClientRPCHook;
 import org.apache.rocketmq.acl.common.SessionCredentials;
@@ -31,6 +37,7 @@ import org.apache.rocketmq.client.producer.TransactionMQProducer;
 import org.apache.rocketmq.client.trace.AsyncTraceDispatcher;
 import org.apache.rocketmq.client.trace.TraceDispatcher;
 import org.apache.rocketmq.client.trace.hook.SendMessageTraceHookImpl;
+import org.apache.rocketmq.common.ThreadFactoryImpl;
 import org.apache.rocketmq.common.UtilAll;
 import org.apache.rocketmq.remoting.RPCHook;
 import org.slf4j.Logger;
@@ -52,6 +59,11 @@ public final class RocketMQProduceFactory {
 	private final static Logger log = LoggerFactory
 			.getLogger(RocketMQProduceFactory.class);
 
+	/**
+	 * The producers registered by group on each shared client instance.
+	 */
+	private static final Map<String, DefaultMQProducer> SHARED_PRODUCER_GROUPS = new ConcurrentHashMap<>();
+
 	/**
 	 * init for the producer,including convert producer params.
 	 * @param topic topic
@@ -77,8 +89,23 @@ public final class RocketMQProduceFactory {
 		DefaultMQProducer producer;
 		if (RocketMQProducerProperties.ProducerType.Trans
 				.equalsName(producerProperties.getProducerType())) {
-			producer = new TransactionMQProducer(producerProperties.getNamespace(),
-					producerProperties.getGroup(), rpcHook);
+			TransactionMQProducer transactionMQProducer = new TransactionMQProducer(
+					producerProperties.getNamespace(), producerProperties.getGroup(),
+					rpcHook);
+			// the client ignores the check pool sizes unless given its own executor,
+			// which it shuts down with the producer
+			int checkThreadPoolMaxSize = Math.max(1,
+					Math.max(producerProperties.getCheckThreadPoolMinSize(),
+							producerProperties.getCheckThreadPoolMaxSize()));
+			transactionMQProducer.setExecutorService(new ThreadPoolExecutor(
+					Math.min(checkThreadPoolMaxSize,
+							producerProperties.getCheckThreadPoolMinSize()),
+					checkThreadPoolMaxSize, 60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(
+							Math.max(1, producerProperties.getCheckRequestHoldMax())),
+					new ThreadFactoryImpl("RocketMQTransactionCheck_"
+							+ producerProperties.getGroup() + "_")));
+			producer = transactionMQProducer;
 			if (producerProperties.getEnableMsgTrace()) {
 				try {
 					AsyncTraceDispatcher dispatcher = new AsyncTraceDispatcher(
@@ -108,15 +135,18 @@ public final class RocketMQProduceFactory {
 		producer.setVipChannelEnabled(
 				null == rpcHook && producerProperties.getVipChannelEnabled());
 		producer.setInstanceName(
-				RocketMQUtils.getInstanceName(rpcHook, topic + "|" + UtilAll.getPid()));
+				getInstanceName(topic, producer, producerProperties, rpcHook));
 		producer.setNamesrvAddr(producerProperties.getNameServer());
 		producer.setSendMsgTimeout(producerProperties.getSendMsgTimeout());
 		producer.setRetryTimesWhenSendFailed(
 				producerProperties.getRetryTimesWhenSendFailed());
 		producer.setRetryTimesWhenSendAsyncFailed(
 				producerProperties.getRetryTimesWhenSendAsyncFailed());
-		producer.setCompressMsgBodyOverHowmuch(
-				producerProperties.getCompressMsgBodyThreshold());
+		// The body is already compressed by the binder if a compression type is set.
+		producer.setCompressMsgBodyOverHowmuch(RocketMQCompressionSupport
+				.getCompressionType(producerProperties.getCompressionType()) == null
+						? producerProperties.getCompressMsgBodyThreshold()
+						: Integer.MAX_VALUE);
 		producer.setRetryAnotherBrokerWhenNotStoreOK(
 				producerProperties.getRetryAnotherBroker());
 		producer.setMaxMessageSize(producerProperties.getMaxMessageSize());
@@ -137,4 +167,43 @@ public final class RocketMQProduceFactory {
 		return producer;
 	}
 
+	/**
+	 * Shut down a producer and release its group on the shared client instance.
+	 * @param producer the producer created by {@link #initRocketMQProducer}
+	 * @param started whether the producer has been started
+	 */
+	public static void shutdownRocketMQProducer(DefaultMQProducer producer,
+			boolean started) {
+		try {
+			if (started) {
+				producer.shutdown();
+			}
+		}
+		finally {
+			SHARED_PRODUCER_GROUPS.remove(
+					producer.getInstanceName() + "|" + producer.getProducerGroup(),
+					producer);
+		}
+	}
+
+	/**
+	 * A client instance holds one producer per group. When the group is taken on the
+	 * shared client instance, the producer uses a client instance of its own.
+	 */
+	private static String getInstanceName(String topic, DefaultMQProducer producer,
+			RocketMQProducerProperties producerProperties, RPCHook rpcHook) {
+		if (producerProperties.getShareClientInstance()) {
+			String instanceName = RocketMQUtils
+					.getSharedInstanceName(producerProperties);
+			if (SHARED_PRODUCER_GROUPS.putIfAbsent(
+					instanceName + "|" + producer.getProducerGroup(), producer) == null) {
+				return instanceName;
+			}
+			log.warn(
+					"Producer group {} is taken on the shared client instance, the producer of topic {} uses its own client instance, give it a distinct group to share the client instance",
+					producer.getProducerGroup(), topic);
+		}
+		return RocketMQUtils.getInstanceName(rpcHook, topic + "|" + UtilAll.getPid());
+	}
+
 }
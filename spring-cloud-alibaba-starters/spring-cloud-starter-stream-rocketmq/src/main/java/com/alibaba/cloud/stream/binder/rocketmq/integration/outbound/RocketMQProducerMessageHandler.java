@@ -16,14 +16,19 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq.integration.outbound;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst;
 import com.alibaba.cloud.stream.binder.rocketmq.custom.RocketMQBeanContainerCache;
 import com.alibaba.cloud.stream.binder.rocketmq.metrics.Instrumentation;
 import com.alibaba.cloud.stream.binder.rocketmq.metrics.InstrumentationManager;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQProducerProperties;
+import com.alibaba.cloud.stream.binder.rocketmq.provisioning.selector.ConsistentHashMessageQueueSelector;
 import com.alibaba.cloud.stream.binder.rocketmq.provisioning.selector.PartitionMessageQueueSelector;
+import com.alibaba.cloud.stream.binder.rocketmq.support.RocketMQCompressionSupport;
 import com.alibaba.cloud.stream.binder.rocketmq.support.RocketMQMessageConverterSupport;
 import org.apache.rocketmq.client.exception.MQBrokerException;
 import org.apache.rocketmq.client.exception.MQClientException;
@@ -34,6 +39,7 @@ import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.client.producer.SendStatus;
 import org.apache.rocketmq.client.producer.TransactionListener;
 import org.apache.rocketmq.client.producer.TransactionMQProducer;
+import org.apache.rocketmq.common.compression.CompressionType;
 import org.apache.rocketmq.common.message.MessageQueue;
 import org.apache.rocketmq.remoting.exception.RemotingException;
 import org.slf4j.Logger;
@@ -47,9 +53,11 @@ import org.springframework.context.Lifecycle;
 import org.springframework.integration.handler.AbstractMessageHandler;
 import org.springframework.integration.support.ErrorMessageStrategy;
 import org.springframework.integration.support.ErrorMessageUtils;
+import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
+import org.springframework.util.StringUtils;
 
 /**
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
@@ -74,6 +82,18 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 
 	private MessageQueueSelector messageQueueSelector;
 
+	private CompressionType compressionType;
+
+	private volatile TransactionListener transactionListener;
+
+	private SendCallback sendCallback;
+
+	private Instrumentation instrumentation;
+
+	private RocketMQBindingMetrics metrics = RocketMQBindingMetrics.NOOP;
+
+	private RocketMQProducerSpool spool;
+
 	private final ProducerDestination destination;
 
 	private final ExtendedProducerProperties<RocketMQProducerProperties> extendedProducerProperties;
@@ -97,21 +117,64 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 		this.defaultMQProducer = RocketMQProduceFactory
 				.initRocketMQProducer(destination.getName(), mqProducerProperties);
 		this.isTrans = defaultMQProducer instanceof TransactionMQProducer;
-		// Use the default if the partition is on and no customization is available.
+		this.compressionType = RocketMQCompressionSupport
+				.getCompressionType(mqProducerProperties.getCompressionType());
+		if (isTrans) {
+			resolveTransactionListener();
+		}
+		this.sendCallback = RocketMQBeanContainerCache
+				.getBean(mqProducerProperties.getSendCallBack(), SendCallback.class);
+		// Use the default if consistent hashing or the partition is on and no
+		// customization is available.
+		MessageQueueSelector defaultSelector = null;
+		if (mqProducerProperties.getConsistentHashing()) {
+			defaultSelector = new ConsistentHashMessageQueueSelector(
+					mqProducerProperties.getConsistentHashVirtualNodes(),
+					mqProducerProperties.getConsistentHashKeyHeader());
+		}
+		else if (extendedProducerProperties.isPartitioned()) {
+			defaultSelector = new PartitionMessageQueueSelector();
+		}
 		this.messageQueueSelector = RocketMQBeanContainerCache.getBean(
 				mqProducerProperties.getMessageQueueSelector(),
-				MessageQueueSelector.class,
-				extendedProducerProperties.isPartitioned()
-						? new PartitionMessageQueueSelector()
-						: null);
+				MessageQueueSelector.class, defaultSelector);
+		if (messageQueueSelector instanceof ConsistentHashMessageQueueSelector selector) {
+			metrics.registerQueueSkew(selector::getSkew);
+		}
+		RocketMQProducerProperties.Spool spoolProperties = mqProducerProperties
+				.getSpool();
+		if (spoolProperties.getEnabled() && !isTrans) {
+			if (!StringUtils.hasText(spoolProperties.getDirectory())) {
+				throw new MessagingException("The spool directory of "
+						+ destination.getName() + " is required");
+			}
+			String name = extendedProducerProperties.getBindingName() != null
+					? extendedProducerProperties.getBindingName()
+					: destination.getName();
+			try {
+				this.spool = new RocketMQProducerSpool(
+						new File(spoolProperties.getDirectory(), name),
+						spoolProperties.getSegmentSize(), spoolProperties.getMaxSize(),
+						spoolProperties.getMaxReplayAttempts(), metrics);
+			}
+			catch (IOException e) {
+				throw new MessagingException(
+						"Failed to open the spool of " + destination.getName(), e);
+			}
+		}
 	}
 
 	@Override
 	public void start() {
 		Instrumentation instrumentation = new Instrumentation(destination.getName(),
 				this);
+		this.instrumentation = instrumentation;
 		try {
 			defaultMQProducer.start();
+			if (spool != null) {
+				spool.start(this::replay, this::dropSpooled,
+						mqProducerProperties.getSpool().getReplayIntervalMillis());
+			}
 			// TransactionMQProducer does not currently support custom
 			// MessageQueueSelector.
 			if (!isTrans && extendedProducerProperties.isPartitioned()) {
@@ -144,9 +207,13 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 
 	@Override
 	public void stop() {
-		if (running && null != defaultMQProducer) {
-			defaultMQProducer.shutdown();
+		if (spool != null) {
+			spool.shutdown();
 		}
+		if (null != defaultMQProducer) {
+			RocketMQProduceFactory.shutdownRocketMQProducer(defaultMQProducer, running);
+		}
+		InstrumentationManager.removeHealthInstrumentation(instrumentation);
 		running = false;
 	}
 
@@ -157,19 +224,25 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 
 	@Override
 	protected void handleMessageInternal(Message<?> message) {
+		long startNanos = System.nanoTime();
+		boolean recorded = false;
+		org.apache.rocketmq.common.message.Message mqMessage = null;
 		try {
-			org.apache.rocketmq.common.message.Message mqMessage = RocketMQMessageConverterSupport
+			mqMessage = RocketMQMessageConverterSupport
 					.convertMessage2MQ(destination.getName(), message);
+			RocketMQCompressionSupport.compress(mqMessage, compressionType,
+					mqProducerProperties.getCompressMsgBodyThreshold(),
+					mqProducerProperties.getCompressionLevel());
+			// Queue up behind the spooled messages to keep the order.
+			if (spool != null && !spool.isEmpty() && spool.append(mqMessage)) {
+				return;
+			}
 			SendResult sendResult;
-			if (defaultMQProducer instanceof TransactionMQProducer translateMQProducer) {
-				TransactionListener transactionListener = RocketMQBeanContainerCache
-						.getBean(mqProducerProperties.getTransactionListener(),
-								TransactionListener.class);
-				if (transactionListener == null) {
+			if (isTrans) {
+				if (transactionListener == null && resolveTransactionListener() == null) {
 					throw new MessagingException(
 							"TransactionMQProducer must have a TransactionListener !!! ");
 				}
-				translateMQProducer.setTransactionListener(transactionListener);
 				if (log.isDebugEnabled()) {
 					log.debug("send transaction message ->{}", mqMessage);
 				}
@@ -187,6 +260,9 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 				log.debug("the message has sent,message={},sendResult={}", mqMessage,
 						sendResult);
 			}
+			metrics.recordSend(startNanos,
+					sendResult == null ? null : sendResult.getSendStatus());
+			recorded = true;
 			if (sendResult == null
 					|| !SendStatus.SEND_OK.equals(sendResult.getSendStatus())) {
 				log.error("message send fail.SendStatus is not OK.the message={}",
@@ -196,12 +272,74 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 			}
 		}
 		catch (Exception e) {
+			if (!recorded) {
+				metrics.recordSendFailure();
+			}
+			if (spool(mqMessage, e)) {
+				return;
+			}
 			log.error("RocketMQ Message hasn't been sent. Caused by " + e.getMessage(),
 					e);
 			this.doFail(message, e);
 		}
 	}
 
+	/**
+	 * Append a message which failed to be sent to the spool, if the brokers may be
+	 * reachable again later.
+	 * @return true if spooled
+	 */
+	private boolean spool(org.apache.rocketmq.common.message.Message mqMessage,
+			Throwable e) {
+		if (spool != null && mqMessage != null
+				&& RocketMQProducerSpool.isTransient(e) && spool.append(mqMessage)) {
+			log.warn("RocketMQ Message hasn't been sent and is spooled. Caused by "
+					+ e.getMessage());
+			return true;
+		}
+		return false;
+	}
+
+	private void replay(org.apache.rocketmq.common.message.Message mqMessage)
+			throws Exception {
+		mqMessage.setTopic(destination.getName());
+		if (messageQueueSelector != null) {
+			defaultMQProducer.send(mqMessage, messageQueueSelector, null);
+		}
+		else {
+			defaultMQProducer.send(mqMessage);
+		}
+	}
+
+	/**
+	 * Send a spooled message which is dropped to the send failure channel, if any. It
+	 * has been logged by the spool.
+	 */
+	private void dropSpooled(org.apache.rocketmq.common.message.Message mqMessage,
+			Throwable e) {
+		if (getSendFailureChannel() != null) {
+			Message<byte[]> message = MessageBuilder.withPayload(mqMessage.getBody())
+					.copyHeaders(mqMessage.getProperties()).build();
+			doFail(message, new MessagingException(message,
+					"The spooled message cannot be sent", e));
+		}
+	}
+
+	/**
+	 * Resolve the TransactionListener once and bind it to the producer.
+	 * @return TransactionListener, may be null if it is not configured
+	 */
+	private TransactionListener resolveTransactionListener() {
+		TransactionListener listener = RocketMQBeanContainerCache.getBean(
+				mqProducerProperties.getTransactionListener(),
+				TransactionListener.class);
+		if (listener != null) {
+			((TransactionMQProducer) defaultMQProducer).setTransactionListener(listener);
+			this.transactionListener = listener;
+		}
+		return listener;
+	}
+
 	private SendResult send(org.apache.rocketmq.common.message.Message mqMessage,
 			MessageQueueSelector selector, Object args, Message<?> message)
 			throws RemotingException, MQClientException, InterruptedException,
@@ -229,10 +367,10 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 				.equalsName(mqProducerProperties.getSendType())) {
 			if (null != selector) {
 				defaultMQProducer.send(mqMessage, selector, args,
-						this.getSendCallback(message));
+						this.getSendCallback(message, mqMessage));
 			}
 			else {
-				defaultMQProducer.send(mqMessage, this.getSendCallback(message));
+				defaultMQProducer.send(mqMessage, this.getSendCallback(message, mqMessage));
 			}
 			return sendResult;
 		}
@@ -243,24 +381,15 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 	/**
 	 * https://github.com/alibaba/spring-cloud-alibaba/issues/1408 .
 	 * @param message message
+	 * @param mqMessage the message sent
 	 * @return SendCallback
 	 */
-	private SendCallback getSendCallback(Message<?> message) {
-		SendCallback sendCallback = RocketMQBeanContainerCache
-				.getBean(mqProducerProperties.getSendCallBack(), SendCallback.class);
-		if (null == sendCallback) {
-			sendCallback = new SendCallback() {
-				@Override
-				public void onSuccess(SendResult sendResult) {
-				}
-
-				@Override
-				public void onException(Throwable e) {
-					RocketMQProducerMessageHandler.this.doFail(message, e);
-				}
-			};
+	private SendCallback getSendCallback(Message<?> message,
+			org.apache.rocketmq.common.message.Message mqMessage) {
+		if (null != sendCallback) {
+			return sendCallback;
 		}
-		return sendCallback;
+		return new FailureSendCallback(message, mqMessage);
 	}
 
 	private void doFail(Message<?> message, Throwable e) {
@@ -289,6 +418,43 @@ public class RocketMQProducerMessageHandler extends AbstractMessageHandler
 		this.errorMessageStrategy = errorMessageStrategy;
 	}
 
+	/**
+	 * Routes the failure of an async send to {@link #doFail(Message, Throwable)}.
+	 */
+	private final class FailureSendCallback implements SendCallback {
+
+		private final Message<?> message;
+
+		private final org.apache.rocketmq.common.message.Message mqMessage;
+
+		private FailureSendCallback(Message<?> message,
+				org.apache.rocketmq.common.message.Message mqMessage) {
+			this.message = message;
+			this.mqMessage = mqMessage;
+		}
+
+		@Override
+		public void onSuccess(SendResult sendResult) {
+		}
+
+		@Override
+		public void onException(Throwable e) {
+			metrics.recordSendFailure();
+			if (!spool(mqMessage, e)) {
+				doFail(message, e);
+			}
+		}
+
+	}
+
+	public RocketMQBindingMetrics getMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(RocketMQBindingMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public PartitioningInterceptor getPartitioningInterceptor() {
 		return partitioningInterceptor;
 	}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.outbound;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import org.apache.rocketmq.client.exception.MQBrokerException;
+import org.apache.rocketmq.client.exception.MQClientException;
+import org.apache.rocketmq.common.ThreadFactoryImpl;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageDecoder;
+import org.apache.rocketmq.common.protocol.ResponseCode;
+import org.apache.rocketmq.remoting.exception.RemotingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A local spool of the messages a producer failed to send because the brokers were
+ * unreachable, replayed in order once sending succeeds again.
+ * <p>
+ * Messages are appended to memory-mapped segment files of a fixed size, named by the
+ * logical offset of their first byte. Each record is its length, a CRC32 and the
+ * message encoded by {@link MessageDecoder#encodeMessage(Message)}; a zero length
+ * marks the unused tail of a segment. The offset of the next message to replay is
+ * kept in a checkpoint file, segments behind it are deleted. Appending never waits:
+ * once the spool holds its maximum size, messages are rejected. Records are forced to
+ * disk on every replay round, so they survive a process crash but may be lost by a
+ * host crash in between. Replay is at least once. A message which still fails after
+ * the maximum number of replay attempts, or fails for a reason other than the
+ * brokers, is dropped and handed to a {@link DropHandler}.
+ *
+ * @author agent
+ */
+public class RocketMQProducerSpool {
+
+	private final static Logger log = LoggerFactory
+			.getLogger(RocketMQProducerSpool.class);
+
+	private static final String SEGMENT_SUFFIX = ".spool";
+
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	/**
+	 * The broker response codes of failures which don't depend on the message.
+	 */
+	private static final Set<Integer> TRANSIENT_RESPONSE_CODES = Set.of(
+			ResponseCode.SYSTEM_ERROR, ResponseCode.SYSTEM_BUSY,
+			ResponseCode.SERVICE_NOT_AVAILABLE, ResponseCode.FLUSH_DISK_TIMEOUT,
+			ResponseCode.SLAVE_NOT_AVAILABLE, ResponseCode.FLUSH_SLAVE_TIMEOUT);
+
+	/**
+	 * The response codes of failures caused by the message or its topic.
+	 */
+	private static final Set<Integer> PERMANENT_RESPONSE_CODES = Set.of(
+			ResponseCode.MESSAGE_ILLEGAL, ResponseCode.NO_PERMISSION,
+			ResponseCode.TOPIC_NOT_EXIST);
+
+	private final File directory;
+
+	private final int segmentSize;
+
+	private final long maxSize;
+
+	private final int maxReplayAttempts;
+
+	private final RocketMQBindingMetrics metrics;
+
+	private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+	/**
+	 * The segments rolled over since the last force.
+	 */
+	private final List<MappedByteBuffer> unforcedSegments = new ArrayList<>();
+
+	private final FileLock lock;
+
+	private final MappedByteBuffer checkpoint;
+
+	private long writeOffset;
+
+	private volatile long readOffset;
+
+	private volatile long size;
+
+	/**
+	 * The failed replay attempts of the next message, only used by the replaying
+	 * thread.
+	 */
+	private int attempts;
+
+	private ScheduledExecutorService replayExecutor;
+
+	/**
+	 * Open the spool in a directory, recovering the messages left by a previous run.
+	 * @param directory the directory owned by this spool
+	 * @param segmentSize the size of a segment file
+	 * @param maxSize the maximum size of the messages waiting for replay
+	 * @param maxReplayAttempts the attempts to replay a message before it is dropped
+	 * @param metrics records appends and replays
+	 * @throws IOException if the spool cannot be opened or is used by another process
+	 */
+	public RocketMQProducerSpool(File directory, int segmentSize, long maxSize,
+			int maxReplayAttempts, RocketMQBindingMetrics metrics) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create the spool directory " + directory);
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSize = maxSize;
+		this.maxReplayAttempts = maxReplayAttempts;
+		this.metrics = metrics;
+		this.lock = lock(new File(directory, "lock"));
+		try {
+			this.checkpoint = map(new File(directory, "checkpoint"), Long.BYTES);
+			recover();
+		}
+		catch (IOException | RuntimeException e) {
+			lock.channel().close();
+			throw e;
+		}
+		metrics.registerSpoolSize(() -> size);
+	}
+
+	private static FileLock lock(File file) throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		FileLock lock;
+		try {
+			lock = randomAccessFile.getChannel().tryLock();
+		}
+		catch (OverlappingFileLockException e) {
+			// already locked by this process
+			lock = null;
+		}
+		catch (IOException | RuntimeException e) {
+			randomAccessFile.close();
+			throw e;
+		}
+		if (lock == null) {
+			randomAccessFile.close();
+			throw new IOException("The spool directory " + file.getParentFile()
+					+ " is used by another spool");
+		}
+		return lock;
+	}
+
+	private void recover() throws IOException {
+		File[] files = directory
+				.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+		if (files != null) {
+			for (File file : files) {
+				String name = file.getName();
+				segments.put(Long.parseLong(
+						name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+						map(file, segmentSize));
+			}
+		}
+		if (segments.isEmpty()) {
+			long offset = checkpoint.getLong(0);
+			segments.put(offset, map(segmentFile(offset), segmentSize));
+		}
+		// Find the end of the valid records of the last segment.
+		Map.Entry<Long, MappedByteBuffer> last = segments.lastEntry();
+		int position = 0;
+		while (readRecord(last.getValue(), position) != null) {
+			position += RECORD_HEADER_SIZE + last.getValue().getInt(position);
+		}
+		writeOffset = last.getKey() + position;
+		readOffset = Math.min(writeOffset,
+				Math.max(checkpoint.getLong(0), segments.firstKey()));
+		size = writeOffset - readOffset;
+		if (size > 0) {
+			log.info("Recovered {} bytes of spooled messages from {}", size, directory);
+		}
+	}
+
+	/**
+	 * Append a message to the spool.
+	 * @param message the message, its topic is not kept
+	 * @return false if the spool is full or the message too large
+	 */
+	public boolean append(Message message) {
+		byte[] encoded = MessageDecoder.encodeMessage(message);
+		int recordSize = RECORD_HEADER_SIZE + encoded.length;
+		boolean appended = false;
+		if (recordSize <= segmentSize) {
+			try {
+				appended = doAppend(encoded, recordSize);
+			}
+			catch (IOException e) {
+				log.error("Failed to append to the spool " + directory, e);
+			}
+		}
+		metrics.recordSpooled(appended);
+		return appended;
+	}
+
+	private synchronized boolean doAppend(byte[] encoded, int recordSize)
+			throws IOException {
+		if (size + recordSize > maxSize) {
+			return false;
+		}
+		long base = segments.lastKey();
+		int position = (int) (writeOffset - base);
+		if (position + recordSize > segmentSize) {
+			// The rest of the segment stays zero, marking its end.
+			unforcedSegments.add(segments.get(base));
+			base += segmentSize;
+			segments.put(base, map(segmentFile(base), segmentSize));
+			position = 0;
+			writeOffset = base;
+		}
+		ByteBuffer buffer = segments.get(base).duplicate();
+		buffer.position(position + RECORD_HEADER_SIZE);
+		buffer.put(encoded);
+		// Written last, so that a torn record is not valid.
+		buffer.putInt(position + 4, crc(encoded));
+		buffer.putInt(position, encoded.length);
+		writeOffset += recordSize;
+		size = writeOffset - readOffset;
+		return true;
+	}
+
+	/**
+	 * Whether no message waits for replay. Messages are sent through the spool while
+	 * it is not empty, to keep their order.
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Replay the spooled messages periodically.
+	 * @param sender sends a replayed message, synchronously
+	 * @param dropHandler handles the messages dropped
+	 * @param intervalMillis the interval between replays
+	 */
+	public synchronized void start(Sender sender, DropHandler dropHandler,
+			long intervalMillis) {
+		if (replayExecutor == null) {
+			replayExecutor = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryImpl("RocketMQSpoolReplay_", true));
+			replayExecutor.scheduleWithFixedDelay(() -> replay(sender, dropHandler),
+					intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stop replaying and force the spooled messages to disk.
+	 */
+	public synchronized void shutdown() {
+		if (replayExecutor != null) {
+			replayExecutor.shutdownNow();
+			replayExecutor = null;
+		}
+		force();
+		try {
+			lock.release();
+			lock.channel().close();
+		}
+		catch (IOException e) {
+			log.warn("Failed to release the spool directory " + directory, e);
+		}
+	}
+
+	/**
+	 * Send the spooled messages in order, until one fails to be sent or none is left.
+	 * A message is dropped if it cannot be sent, or still fails after the maximum
+	 * number of attempts.
+	 * @param sender sends a message, synchronously
+	 * @param dropHandler handles the messages dropped
+	 */
+	public void replay(Sender sender, DropHandler dropHandler) {
+		force();
+		Message message;
+		while ((message = peek()) != null) {
+			try {
+				sender.send(message);
+				metrics.recordReplayed();
+			}
+			catch (Exception e) {
+				if (isTransient(e) && ++attempts < maxReplayAttempts) {
+					log.debug("Failed to replay spooled messages of {}", directory, e);
+					return;
+				}
+				log.error("Dropped a spooled message which cannot be sent after "
+						+ (attempts + 1) + " attempts, message=" + message, e);
+				drop(dropHandler, message, e);
+			}
+			advance();
+		}
+	}
+
+	private void drop(DropHandler dropHandler, Message message, Exception cause) {
+		try {
+			dropHandler.dropped(message, cause);
+		}
+		catch (Exception e) {
+			log.error("Failed to handle a dropped spooled message, message=" + message,
+					e);
+		}
+	}
+
+	/**
+	 * The next message to replay.
+	 */
+	private synchronized Message peek() {
+		while (readOffset < writeOffset) {
+			Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(readOffset);
+			int position = (int) (readOffset - segment.getKey());
+			byte[] encoded = readRecord(segment.getValue(), position);
+			if (encoded == null) {
+				// the unused tail of a segment
+				moveTo(segment.getKey() + segmentSize);
+				continue;
+			}
+			try {
+				return MessageDecoder.decodeMessage(ByteBuffer.wrap(encoded));
+			}
+			catch (Exception e) {
+				log.error("Dropped a spooled message which cannot be decoded", e);
+				moveTo(readOffset + RECORD_HEADER_SIZE + encoded.length);
+			}
+		}
+		return null;
+	}
+
+	private synchronized void advance() {
+		MappedByteBuffer segment = segments.floorEntry(readOffset).getValue();
+		int position = (int) (readOffset - segments.floorKey(readOffset));
+		moveTo(readOffset + RECORD_HEADER_SIZE + segment.getInt(position));
+	}
+
+	private void moveTo(long offset) {
+		attempts = 0;
+		readOffset = offset;
+		size = writeOffset - readOffset;
+		checkpoint.putLong(0, offset);
+		// delete the segments fully replayed, but the one written to
+		while (segments.size() > 1
+				&& segments.firstKey() + segmentSize <= readOffset) {
+			File file = segmentFile(segments.pollFirstEntry().getKey());
+			if (!file.delete()) {
+				log.warn("Failed to delete the spool segment {}", file);
+			}
+		}
+	}
+
+	/**
+	 * Not synchronized, to keep appending while the pages are written.
+	 */
+	private void force() {
+		List<MappedByteBuffer> unforced;
+		synchronized (this) {
+			unforced = new ArrayList<>(unforcedSegments);
+			unforcedSegments.clear();
+			unforced.add(segments.lastEntry().getValue());
+		}
+		for (MappedByteBuffer segment : unforced) {
+			segment.force();
+		}
+		checkpoint.force();
+	}
+
+	/**
+	 * The encoded message at a position of a segment.
+	 * @return null at the end of the valid records
+	 */
+	private byte[] readRecord(MappedByteBuffer segment, int position) {
+		if (position + RECORD_HEADER_SIZE > segmentSize) {
+			return null;
+		}
+		int length = segment.getInt(position);
+		if (length <= 0 || position + RECORD_HEADER_SIZE + length > segmentSize) {
+			return null;
+		}
+		byte[] encoded = new byte[length];
+		segment.get(position + RECORD_HEADER_SIZE, encoded);
+		return crc(encoded) == segment.getInt(position + 4) ? encoded : null;
+	}
+
+	/**
+	 * Whether a send failure is caused by unreachable or overloaded brokers, rather
+	 * than by the message.
+	 * @param e the failure
+	 * @return true if sending the message again may succeed
+	 */
+	public static boolean isTransient(Throwable e) {
+		if (e instanceof RemotingException) {
+			return true;
+		}
+		if (e instanceof MQBrokerException) {
+			return TRANSIENT_RESPONSE_CODES
+					.contains(((MQBrokerException) e).getResponseCode());
+		}
+		if (e instanceof MQClientException) {
+			// the failure of the last attempt is the cause
+			Throwable cause = e.getCause();
+			if (cause instanceof RemotingException
+					|| cause instanceof MQBrokerException) {
+				return isTransient(cause);
+			}
+			// a client error, like no name server or route reachable, or the
+			// response code of the broker
+			return !PERMANENT_RESPONSE_CODES
+					.contains(((MQClientException) e).getResponseCode());
+		}
+		return false;
+	}
+
+	private File segmentFile(long offset) {
+		return new File(directory, String.format("%020d", offset) + SEGMENT_SUFFIX);
+	}
+
+	private static MappedByteBuffer map(File file, int size) throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+				FileChannel channel = randomAccessFile.getChannel()) {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+	}
+
+	private static int crc(byte[] bytes) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(bytes);
+		return (int) crc32.getValue();
+	}
+
+	/**
+	 * Sends a replayed message.
+	 */
+	@FunctionalInterface
+	public interface Sender {
+
+		void send(Message message) throws Exception;
+
+	}
+
+	/**
+	 * Handles a spooled message which is dropped.
+	 */
+	@FunctionalInterface
+	public interface DropHandler {
+
+		void dropped(Message message, Throwable cause);
+
+	}
+
+}
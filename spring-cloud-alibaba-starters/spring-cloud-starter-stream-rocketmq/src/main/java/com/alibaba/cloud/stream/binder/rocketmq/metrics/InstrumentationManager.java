@@ -17,8 +17,8 @@
 package com.alibaba.cloud.stream.binder.rocketmq.metrics;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Timur Valiev
@@ -29,7 +29,7 @@ public final class InstrumentationManager {
 	private InstrumentationManager() {
 	}
 
-	private static final Map<Integer, Instrumentation> HEALTH_INSTRUMENTATIONS = new HashMap<>();
+	private static final Map<Integer, Instrumentation> HEALTH_INSTRUMENTATIONS = new ConcurrentHashMap<>();
 
 	public static Collection<Instrumentation> getHealthInstrumentations() {
 		return HEALTH_INSTRUMENTATIONS.values();
@@ -37,16 +37,24 @@ public final class InstrumentationManager {
 
 	public static void addHealthInstrumentation(Instrumentation instrumentation) {
 		if (null != instrumentation) {
-			HEALTH_INSTRUMENTATIONS.computeIfPresent(instrumentation.hashCode(),
-					(k, v) -> {
-						if (instrumentation.getActuator() != null) {
-							instrumentation.getActuator().stop();
-						}
-						throw new IllegalArgumentException(
-								"The current actuator exists, please confirm if there is a repeat operation!!!");
-					});
+			HEALTH_INSTRUMENTATIONS.compute(instrumentation.hashCode(), (k, v) -> {
+				if (v != null) {
+					if (instrumentation.getActuator() != null) {
+						instrumentation.getActuator().stop();
+					}
+					throw new IllegalArgumentException(
+							"The current actuator exists, please confirm if there is a repeat operation!!!");
+				}
+				return instrumentation;
+			});
 		}
 
 	}
 
+	public static void removeHealthInstrumentation(Instrumentation instrumentation) {
+		if (null != instrumentation) {
+			HEALTH_INSTRUMENTATIONS.remove(instrumentation.hashCode(), instrumentation);
+		}
+	}
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Creates binding metrics backed by the Micrometer {@link MeterRegistry} of the
+ * application, or {@link RocketMQBindingMetrics#NOOP} if there is none.
+ *
+ * @author agent
+ */
+public class MicrometerBindingMetricsFactory implements RocketMQBindingMetricsFactory {
+
+	/**
+	 * The prefix of all meter names.
+	 */
+	public static final String METER_PREFIX = "spring.cloud.stream.rocketmq.";
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public MicrometerBindingMetricsFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public RocketMQBindingMetrics createProducerMetrics(String bindingName,
+			String topic) {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		if (registry == null) {
+			return RocketMQBindingMetrics.NOOP;
+		}
+		return new MicrometerProducerMetrics(registry, tags(bindingName, topic));
+	}
+
+	@Override
+	public RocketMQBindingMetrics createConsumerMetrics(String bindingName,
+			String topic, String group) {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		if (registry == null) {
+			return RocketMQBindingMetrics.NOOP;
+		}
+		return new MicrometerConsumerMetrics(registry,
+				tags(bindingName, topic).and("group", group));
+	}
+
+	private static Tags tags(String bindingName, String topic) {
+		return Tags.of("binding", String.valueOf(bindingName), "topic", topic);
+	}
+
+}
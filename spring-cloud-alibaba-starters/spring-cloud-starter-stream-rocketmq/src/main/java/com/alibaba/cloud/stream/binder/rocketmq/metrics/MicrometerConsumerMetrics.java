@@ -0,0 +1,219 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageExt;
+
+/**
+ * Micrometer meters of a consumer binding. The lag of each queue is taken from the max
+ * offset the client attaches to every pulled message.
+ *
+ * @author agent
+ */
+class MicrometerConsumerMetrics implements RocketMQBindingMetrics {
+
+	private final MeterRegistry registry;
+
+	private final Tags tags;
+
+	private final Timer consumeSuccessTimer;
+
+	private final Timer consumeFailureTimer;
+
+	private final DistributionSummary batchSize;
+
+	private final Counter retries;
+
+	private final Counter redeliveries;
+
+	private final Counter deadLetters;
+
+	/**
+	 * Lag holders of each queue, indexed by broker name and queue id.
+	 */
+	private final Map<String, AtomicReferenceArray<AtomicLong>> queueLags = new ConcurrentHashMap<>();
+
+	private AtomicInteger concurrency;
+
+	private Counter concurrencyIncreases;
+
+	private Counter concurrencyDecreases;
+
+	private volatile Counter deduplicationHits;
+
+	private volatile Counter deduplicationMisses;
+
+	MicrometerConsumerMetrics(MeterRegistry registry, Tags tags) {
+		this.registry = registry;
+		this.tags = tags;
+		this.consumeSuccessTimer = consumeTimer("success");
+		this.consumeFailureTimer = consumeTimer("failure");
+		this.batchSize = DistributionSummary
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX
+						+ "consume.batch.size")
+				.description("Number of messages consumed at once").tags(tags)
+				.register(registry);
+		this.retries = Counter
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "consume.retries")
+				.description("Consumptions retried locally").tags(tags)
+				.register(registry);
+		this.redeliveries = Counter
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX
+						+ "consume.redeliveries")
+				.description("Messages redelivered by the broker").tags(tags)
+				.register(registry);
+		this.deadLetters = Counter
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "consume.dlq")
+				.description("Messages sent to the dead letter queue").tags(tags)
+				.register(registry);
+	}
+
+	private Timer consumeTimer(String result) {
+		return Timer.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "consume")
+				.description("Latency of consuming messages").tags(tags)
+				.tag("result", result).publishPercentileHistogram().register(registry);
+	}
+
+	@Override
+	public void recordReceived(MessageExt messageExt) {
+		if (messageExt.getReconsumeTimes() > 0) {
+			redeliveries.increment();
+		}
+		String maxOffset = messageExt.getProperty(MessageConst.PROPERTY_MAX_OFFSET);
+		if (maxOffset != null) {
+			queueLag(messageExt.getBrokerName(), messageExt.getQueueId())
+					.set(Math.max(0, Long.parseLong(maxOffset)
+							- messageExt.getQueueOffset() - 1));
+		}
+	}
+
+	@Override
+	public void recordConsume(long startNanos, int batchSize, boolean success) {
+		(success ? consumeSuccessTimer : consumeFailureTimer)
+				.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+		this.batchSize.record(batchSize);
+	}
+
+	@Override
+	public void recordRetry() {
+		retries.increment();
+	}
+
+	@Override
+	public void recordDeadLetter() {
+		deadLetters.increment();
+	}
+
+	@Override
+	public synchronized void recordConcurrency(int concurrency, boolean increased) {
+		if (this.concurrency == null) {
+			this.concurrency = new AtomicInteger();
+			Gauge.builder(MicrometerBindingMetricsFactory.METER_PREFIX
+					+ "consumer.concurrency", this.concurrency, AtomicInteger::doubleValue)
+					.description("Size of the consume thread pool").tags(tags)
+					.register(registry);
+			this.concurrencyIncreases = concurrencyAdjustments("up");
+			this.concurrencyDecreases = concurrencyAdjustments("down");
+		}
+		this.concurrency.set(concurrency);
+		(increased ? concurrencyIncreases : concurrencyDecreases).increment();
+	}
+
+	@Override
+	public void recordDeduplication(boolean duplicate) {
+		// registering twice on a race returns the same meter
+		if (duplicate) {
+			if (deduplicationHits == null) {
+				deduplicationHits = deduplicationLookups("hit");
+			}
+			deduplicationHits.increment();
+		}
+		else {
+			if (deduplicationMisses == null) {
+				deduplicationMisses = deduplicationLookups("miss");
+			}
+			deduplicationMisses.increment();
+		}
+	}
+
+	private Counter deduplicationLookups(String result) {
+		return Counter
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "consume.dedup")
+				.description("Lookups of the de-duplication cache").tags(tags)
+				.tag("result", result).register(registry);
+	}
+
+	private Counter concurrencyAdjustments(String direction) {
+		return Counter
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX
+						+ "consumer.concurrency.adjustments")
+				.description("Adjustments of the consume thread pool size").tags(tags)
+				.tag("direction", direction).register(registry);
+	}
+
+	private AtomicLong queueLag(String brokerName, int queueId) {
+		AtomicReferenceArray<AtomicLong> lags = queueLags.get(brokerName);
+		if (lags != null && queueId < lags.length()) {
+			AtomicLong lag = lags.get(queueId);
+			if (lag != null) {
+				return lag;
+			}
+		}
+		return registerQueueLag(brokerName, queueId);
+	}
+
+	private synchronized AtomicLong registerQueueLag(String brokerName, int queueId) {
+		AtomicReferenceArray<AtomicLong> lags = queueLags.get(brokerName);
+		if (lags == null || queueId >= lags.length()) {
+			AtomicReferenceArray<AtomicLong> grown = new AtomicReferenceArray<>(
+					Math.max(queueId + 1, lags == null ? 8 : lags.length() * 2));
+			for (int i = 0; lags != null && i < lags.length(); i++) {
+				grown.set(i, lags.get(i));
+			}
+			lags = grown;
+			queueLags.put(brokerName, lags);
+		}
+		AtomicLong lag = lags.get(queueId);
+		if (lag == null) {
+			lag = new AtomicLong();
+			Gauge
+					.builder(MicrometerBindingMetricsFactory.METER_PREFIX
+							+ "consumer.lag", lag, AtomicLong::doubleValue)
+					.description("Messages behind the max offset of the queue")
+					.tags(tags).tag("broker", brokerName)
+					.tag("queue", String.valueOf(queueId)).register(registry);
+			lags.set(queueId, lag);
+		}
+		return lag;
+	}
+
+}
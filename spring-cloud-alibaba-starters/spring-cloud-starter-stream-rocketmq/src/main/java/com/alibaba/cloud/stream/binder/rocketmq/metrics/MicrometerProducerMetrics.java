@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.rocketmq.client.producer.SendStatus;
+
+/**
+ * Micrometer meters of a producer binding.
+ *
+ * @author agent
+ */
+class MicrometerProducerMetrics implements RocketMQBindingMetrics {
+
+	private final MeterRegistry registry;
+
+	private final Tags tags;
+
+	private final Timer sendTimer;
+
+	private final Map<SendStatus, Counter> sendFailures = new EnumMap<>(
+			SendStatus.class);
+
+	private final Counter sendExceptions;
+
+	private volatile Counter spoolAccepted;
+
+	private volatile Counter spoolRejected;
+
+	private volatile Counter spoolReplayed;
+
+	MicrometerProducerMetrics(MeterRegistry registry, Tags tags) {
+		this.registry = registry;
+		this.tags = tags;
+		this.sendTimer = Timer
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "send")
+				.description("Latency of sending messages").tags(tags)
+				.publishPercentileHistogram().register(registry);
+		for (SendStatus sendStatus : SendStatus.values()) {
+			if (sendStatus != SendStatus.SEND_OK) {
+				sendFailures.put(sendStatus,
+						sendFailureCounter(registry, tags, sendStatus.name()));
+			}
+		}
+		this.sendExceptions = sendFailureCounter(registry, tags, "EXCEPTION");
+	}
+
+	private static Counter sendFailureCounter(MeterRegistry registry, Tags tags,
+			String status) {
+		return Counter
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "send.failures")
+				.description("Messages not sent successfully, by send status")
+				.tags(tags).tag("status", status).register(registry);
+	}
+
+	@Override
+	public void recordSend(long startNanos, SendStatus sendStatus) {
+		sendTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+		Counter counter = sendFailures.get(sendStatus);
+		if (counter != null) {
+			counter.increment();
+		}
+	}
+
+	@Override
+	public void recordSendFailure() {
+		sendExceptions.increment();
+	}
+
+	@Override
+	public void registerQueueSkew(DoubleSupplier skew) {
+		Gauge.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "send.queue.skew",
+				skew, DoubleSupplier::getAsDouble)
+				.description("Ratio of the busiest queue to the mean").tags(tags)
+				.strongReference(true).register(registry);
+	}
+
+	@Override
+	public void recordSpooled(boolean accepted) {
+		// registering twice on a race returns the same meter
+		if (accepted) {
+			if (spoolAccepted == null) {
+				spoolAccepted = spoolAppends("accepted");
+			}
+			spoolAccepted.increment();
+		}
+		else {
+			if (spoolRejected == null) {
+				spoolRejected = spoolAppends("rejected");
+			}
+			spoolRejected.increment();
+		}
+	}
+
+	@Override
+	public void recordReplayed() {
+		if (spoolReplayed == null) {
+			spoolReplayed = Counter
+					.builder(MicrometerBindingMetricsFactory.METER_PREFIX
+							+ "spool.replayed")
+					.description("Spooled messages sent again").tags(tags)
+					.register(registry);
+		}
+		spoolReplayed.increment();
+	}
+
+	@Override
+	public void registerSpoolSize(DoubleSupplier bytes) {
+		Gauge.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "spool.size",
+				bytes, DoubleSupplier::getAsDouble)
+				.description("Bytes of messages waiting in the local spool")
+				.baseUnit("bytes").tags(tags).strongReference(true)
+				.register(registry);
+	}
+
+	private Counter spoolAppends(String result) {
+		return Counter
+				.builder(MicrometerBindingMetricsFactory.METER_PREFIX + "spool.appends")
+				.description("Messages appended to the local spool").tags(tags)
+				.tag("result", result).register(registry);
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.metrics;
+
+import java.util.function.DoubleSupplier;
+
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.message.MessageExt;
+
+/**
+ * Records the meters of a producer or consumer binding. Implementations must not
+ * allocate on the recording methods, they are called for every message.
+ *
+ * @author agent
+ */
+public interface RocketMQBindingMetrics {
+
+	/**
+	 * Records nothing.
+	 */
+	RocketMQBindingMetrics NOOP = new RocketMQBindingMetrics() {
+	};
+
+	/**
+	 * Record a completed send.
+	 * @param startNanos {@link System#nanoTime()} before sending
+	 * @param sendStatus the status of the send result
+	 */
+	default void recordSend(long startNanos, SendStatus sendStatus) {
+	}
+
+	/**
+	 * Record a send that failed with an exception.
+	 */
+	default void recordSendFailure() {
+	}
+
+	/**
+	 * Expose the imbalance of the queues messages are sent to.
+	 * @param skew the ratio of the busiest queue to the mean
+	 */
+	default void registerQueueSkew(DoubleSupplier skew) {
+	}
+
+	/**
+	 * Record a message appended to the local spool of a producer.
+	 * @param accepted false if the spool was full
+	 */
+	default void recordSpooled(boolean accepted) {
+	}
+
+	/**
+	 * Record a spooled message sent again.
+	 */
+	default void recordReplayed() {
+	}
+
+	/**
+	 * Expose the size of the messages waiting in the local spool of a producer.
+	 * @param bytes the size in bytes
+	 */
+	default void registerSpoolSize(DoubleSupplier bytes) {
+	}
+
+	/**
+	 * Record a message handed to the consumer, with the lag of its queue.
+	 * @param messageExt the received message
+	 */
+	default void recordReceived(MessageExt messageExt) {
+	}
+
+	/**
+	 * Record the consumption of a batch of messages.
+	 * @param startNanos {@link System#nanoTime()} before consuming
+	 * @param batchSize the number of messages
+	 * @param success whether the batch was consumed successfully
+	 */
+	default void recordConsume(long startNanos, int batchSize, boolean success) {
+	}
+
+	/**
+	 * Record a local retry of a failed consumption. Messages redelivered by the broker
+	 * are counted by {@link #recordReceived(MessageExt)}.
+	 */
+	default void recordRetry() {
+	}
+
+	/**
+	 * Record a message that will be sent to the dead letter queue.
+	 */
+	default void recordDeadLetter() {
+	}
+
+	/**
+	 * Record a change of the consume thread pool size by the adaptive concurrency.
+	 * @param concurrency the new size
+	 * @param increased whether the size increased
+	 */
+	default void recordConcurrency(int concurrency, boolean increased) {
+	}
+
+	/**
+	 * Record a lookup of the de-duplication cache.
+	 * @param duplicate whether the message was consumed before
+	 */
+	default void recordDeduplication(boolean duplicate) {
+	}
+
+}
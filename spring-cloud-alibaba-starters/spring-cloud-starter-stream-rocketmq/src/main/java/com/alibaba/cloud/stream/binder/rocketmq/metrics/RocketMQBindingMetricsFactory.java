@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.metrics;
+
+/**
+ * Creates the {@link RocketMQBindingMetrics} of each binding.
+ *
+ * @author agent
+ */
+public interface RocketMQBindingMetricsFactory {
+
+	/**
+	 * Creates {@link RocketMQBindingMetrics#NOOP}.
+	 */
+	RocketMQBindingMetricsFactory NOOP = new RocketMQBindingMetricsFactory() {
+
+		@Override
+		public RocketMQBindingMetrics createProducerMetrics(String bindingName,
+				String topic) {
+			return RocketMQBindingMetrics.NOOP;
+		}
+
+		@Override
+		public RocketMQBindingMetrics createConsumerMetrics(String bindingName,
+				String topic, String group) {
+			return RocketMQBindingMetrics.NOOP;
+		}
+
+	};
+
+	RocketMQBindingMetrics createProducerMetrics(String bindingName, String topic);
+
+	RocketMQBindingMetrics createConsumerMetrics(String bindingName, String topic,
+			String group);
+
+}
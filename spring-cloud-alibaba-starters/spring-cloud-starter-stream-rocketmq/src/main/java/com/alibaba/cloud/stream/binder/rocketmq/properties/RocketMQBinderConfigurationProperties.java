@@ -16,6 +16,9 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq.properties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -26,4 +29,19 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "spring.cloud.stream.rocketmq.binder")
 public class RocketMQBinderConfigurationProperties extends RocketMQCommonProperties {
 
+	/**
+	 * The payload types decoded by the payload codecs, by the schema id of the
+	 * MQ_SCHEMA_ID header. Producers write the schema id of a registered type, or the
+	 * class name of any other type.
+	 */
+	private Map<String, Class<?>> schemaTypes = new HashMap<>();
+
+	public Map<String, Class<?>> getSchemaTypes() {
+		return schemaTypes;
+	}
+
+	public void setSchemaTypes(Map<String, Class<?>> schemaTypes) {
+		this.schemaTypes = schemaTypes;
+	}
+
 }
@@ -92,6 +92,13 @@ public class RocketMQCommonProperties implements Serializable {
 
 	private String customizedTraceTopic;
 
+	/**
+	 * Share one client instance, with its connections and scheduled tasks, among the
+	 * bindings connecting to the same name server with the same namespace,
+	 * credentials and client settings. Set on the binder, it applies to all bindings.
+	 */
+	private boolean shareClientInstance = false;
+
 	public boolean getEnabled() {
 		return enabled;
 	}
@@ -211,4 +218,12 @@ public class RocketMQCommonProperties implements Serializable {
 	public void setUnitName(String unitName) {
 		this.unitName = unitName;
 	}
+
+	public boolean getShareClientInstance() {
+		return shareClientInstance;
+	}
+
+	public void setShareClientInstance(boolean shareClientInstance) {
+		this.shareClientInstance = shareClientInstance;
+	}
 }
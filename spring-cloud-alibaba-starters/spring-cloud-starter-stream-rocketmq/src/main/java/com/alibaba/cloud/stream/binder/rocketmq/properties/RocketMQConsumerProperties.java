@@ -17,7 +17,10 @@
 package com.alibaba.cloud.stream.binder.rocketmq.properties;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
+import com.alibaba.cloud.stream.binder.rocketmq.extend.DeduplicationStore;
 import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyContext;
 import org.apache.rocketmq.client.consumer.listener.ConsumeOrderlyContext;
 import org.apache.rocketmq.client.consumer.listener.MessageListenerConcurrently;
@@ -128,6 +131,10 @@ public class RocketMQConsumerProperties extends RocketMQCommonProperties {
 
 	private Pull pull = new Pull();
 
+	private Deduplication deduplication = new Deduplication();
+
+	private RateLimit rateLimit = new RateLimit();
+
 	public String getMessageModel() {
 		return messageModel;
 	}
@@ -228,6 +235,22 @@ public class RocketMQConsumerProperties extends RocketMQCommonProperties {
 		return this;
 	}
 
+	public Deduplication getDeduplication() {
+		return deduplication;
+	}
+
+	public void setDeduplication(Deduplication deduplication) {
+		this.deduplication = deduplication;
+	}
+
+	public RateLimit getRateLimit() {
+		return rateLimit;
+	}
+
+	public void setRateLimit(RateLimit rateLimit) {
+		this.rateLimit = rateLimit;
+	}
+
 	public int getConsumeMaxSpan() {
 		return consumeMaxSpan;
 	}
@@ -300,10 +323,76 @@ public class RocketMQConsumerProperties extends RocketMQCommonProperties {
 		private long pullInterval = 0;
 
 		/**
-		 * Batch consumption size.
+		 * Batch consumption size, only used if {@link #virtualThreads} or
+		 * {@link #keyOrderedLanes} consume a batch in parallel; the pull batch size if
+		 * 1. Other bindings consume one message at a time.
 		 */
 		private int consumeMessageBatchMaxSize = 1;
 
+		/**
+		 * Resize the consume thread pool between {@link #adaptiveMinConcurrency} and
+		 * {@link #adaptiveMaxConcurrency} by the consume latency, the cached messages
+		 * against {@code pullThresholdForQueue} and the host CPU load, instead of fixing
+		 * it to the {@code concurrency} of the binding.
+		 */
+		private boolean adaptiveConcurrency = false;
+
+		/**
+		 * Lower bound of the consume thread pool size when adaptive.
+		 */
+		private int adaptiveMinConcurrency = 1;
+
+		/**
+		 * Upper bound of the consume thread pool size when adaptive, at most 999.
+		 */
+		private int adaptiveMaxConcurrency = 64;
+
+		/**
+		 * Interval in milliseconds between two adjustments of the consume thread pool.
+		 */
+		private long adaptiveIntervalMillis = 5000;
+
+		/**
+		 * The consume thread pool shrinks while the host CPU load, from 0 to 1, is above
+		 * this threshold.
+		 */
+		private double adaptiveCpuThreshold = 0.8;
+
+		/**
+		 * Consume the messages of a batch in parallel on virtual threads (platform
+		 * threads if the JVM has no virtual threads), see
+		 * {@link #consumeMessageBatchMaxSize}. The consume thread waits for its batch, as
+		 * the status of the batch is only known once all its messages are consumed.
+		 * Ignored if {@link #orderly}.
+		 */
+		private boolean virtualThreads = false;
+
+		/**
+		 * Maximum number of messages consumed at once on virtual threads by a binding.
+		 */
+		private int virtualThreadConcurrency = 256;
+
+		/**
+		 * If {@link #orderly}, consume the messages of a batch in this many lanes by the
+		 * hash of their key, see {@link #consumeMessageBatchMaxSize}. The order is kept
+		 * per key rather than per queue, and the queue offset advances once every lane
+		 * consumed its messages. Lanes run on virtual threads if
+		 * {@link #virtualThreads} and available, otherwise on pooled platform threads,
+		 * capped by {@link #keyOrderedLaneConcurrency}. 0 or 1 disables it.
+		 */
+		private int keyOrderedLanes = 0;
+
+		/**
+		 * Maximum number of {@link #keyOrderedLanes} consumed at once by a binding.
+		 */
+		private int keyOrderedLaneConcurrency = 64;
+
+		/**
+		 * The header holding the key of {@link #keyOrderedLanes}, the message keys if
+		 * empty.
+		 */
+		private String keyOrderedHeader;
+
 		public boolean getOrderly() {
 			return orderly;
 		}
@@ -368,6 +457,86 @@ public class RocketMQConsumerProperties extends RocketMQCommonProperties {
 			this.consumeMessageBatchMaxSize = consumeMessageBatchMaxSize;
 		}
 
+		public boolean getAdaptiveConcurrency() {
+			return adaptiveConcurrency;
+		}
+
+		public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+			this.adaptiveConcurrency = adaptiveConcurrency;
+		}
+
+		public int getAdaptiveMinConcurrency() {
+			return adaptiveMinConcurrency;
+		}
+
+		public void setAdaptiveMinConcurrency(int adaptiveMinConcurrency) {
+			this.adaptiveMinConcurrency = adaptiveMinConcurrency;
+		}
+
+		public int getAdaptiveMaxConcurrency() {
+			return adaptiveMaxConcurrency;
+		}
+
+		public void setAdaptiveMaxConcurrency(int adaptiveMaxConcurrency) {
+			this.adaptiveMaxConcurrency = adaptiveMaxConcurrency;
+		}
+
+		public long getAdaptiveIntervalMillis() {
+			return adaptiveIntervalMillis;
+		}
+
+		public void setAdaptiveIntervalMillis(long adaptiveIntervalMillis) {
+			this.adaptiveIntervalMillis = adaptiveIntervalMillis;
+		}
+
+		public double getAdaptiveCpuThreshold() {
+			return adaptiveCpuThreshold;
+		}
+
+		public void setAdaptiveCpuThreshold(double adaptiveCpuThreshold) {
+			this.adaptiveCpuThreshold = adaptiveCpuThreshold;
+		}
+
+		public boolean getVirtualThreads() {
+			return virtualThreads;
+		}
+
+		public void setVirtualThreads(boolean virtualThreads) {
+			this.virtualThreads = virtualThreads;
+		}
+
+		public int getVirtualThreadConcurrency() {
+			return virtualThreadConcurrency;
+		}
+
+		public void setVirtualThreadConcurrency(int virtualThreadConcurrency) {
+			this.virtualThreadConcurrency = virtualThreadConcurrency;
+		}
+
+		public int getKeyOrderedLanes() {
+			return keyOrderedLanes;
+		}
+
+		public void setKeyOrderedLanes(int keyOrderedLanes) {
+			this.keyOrderedLanes = keyOrderedLanes;
+		}
+
+		public int getKeyOrderedLaneConcurrency() {
+			return keyOrderedLaneConcurrency;
+		}
+
+		public void setKeyOrderedLaneConcurrency(int keyOrderedLaneConcurrency) {
+			this.keyOrderedLaneConcurrency = keyOrderedLaneConcurrency;
+		}
+
+		public String getKeyOrderedHeader() {
+			return keyOrderedHeader;
+		}
+
+		public void setKeyOrderedHeader(String keyOrderedHeader) {
+			this.keyOrderedHeader = keyOrderedHeader;
+		}
+
 	}
 
 	public static class Pull implements Serializable {
@@ -401,6 +570,12 @@ public class RocketMQConsumerProperties extends RocketMQCommonProperties {
 
 		private long pullThresholdForAll = 1000L;
 
+		/**
+		 * Interval in milliseconds for flushing the offsets of acknowledged messages.
+		 * The offset of a queue only advances over contiguous acknowledged messages.
+		 */
+		private long commitIntervalMillis = 1000L;
+
 		public long getPollTimeoutMillis() {
 			return pollTimeoutMillis;
 		}
@@ -451,6 +626,131 @@ public class RocketMQConsumerProperties extends RocketMQCommonProperties {
 			this.pullThresholdForAll = pullThresholdForAll;
 		}
 
+		public long getCommitIntervalMillis() {
+			return commitIntervalMillis;
+		}
+
+		public void setCommitIntervalMillis(long commitIntervalMillis) {
+			this.commitIntervalMillis = commitIntervalMillis;
+		}
+
+	}
+
+
+	public static class Deduplication implements Serializable {
+
+		/**
+		 * Whether to skip push messages already consumed within the window, e.g.
+		 * redelivered after a rebalance or a lost offset commit.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * The user property identifying a message, the message id if empty.
+		 */
+		private String keyHeader;
+
+		/**
+		 * How long a consumed message is remembered, in milliseconds.
+		 */
+		private long windowMillis = 10 * 60 * 1000L;
+
+		/**
+		 * The number of messages remembered in memory, older ones are evicted first.
+		 */
+		private int capacity = 65536;
+
+		/**
+		 * The bean name of a {@link DeduplicationStore} backing the memory cache.
+		 */
+		private String store;
+
+		public boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getKeyHeader() {
+			return keyHeader;
+		}
+
+		public void setKeyHeader(String keyHeader) {
+			this.keyHeader = keyHeader;
+		}
+
+		public long getWindowMillis() {
+			return windowMillis;
+		}
+
+		public void setWindowMillis(long windowMillis) {
+			this.windowMillis = windowMillis;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public String getStore() {
+			return store;
+		}
+
+		public void setStore(String store) {
+			this.store = store;
+		}
+
+	}
+
+
+	public static class RateLimit implements Serializable {
+
+		/**
+		 * Messages consumed per second by the binding, 0 for no limit. Pulling stops
+		 * while the limit is exceeded, messages already pulled are still consumed.
+		 */
+		private double permitsPerSecond = 0;
+
+		/**
+		 * Messages consumed at once after an idle period, one second of permits if 0.
+		 */
+		private int burst = 0;
+
+		/**
+		 * Messages consumed per second for each tag, pulling of all tags stops while
+		 * the limit of one is exceeded.
+		 */
+		private Map<String, Double> tagPermitsPerSecond = new HashMap<>();
+
+		public double getPermitsPerSecond() {
+			return permitsPerSecond;
+		}
+
+		public void setPermitsPerSecond(double permitsPerSecond) {
+			this.permitsPerSecond = permitsPerSecond;
+		}
+
+		public int getBurst() {
+			return burst;
+		}
+
+		public void setBurst(int burst) {
+			this.burst = burst;
+		}
+
+		public Map<String, Double> getTagPermitsPerSecond() {
+			return tagPermitsPerSecond;
+		}
+
+		public void setTagPermitsPerSecond(Map<String, Double> tagPermitsPerSecond) {
+			this.tagPermitsPerSecond = tagPermitsPerSecond;
+		}
+
 	}
 
 }
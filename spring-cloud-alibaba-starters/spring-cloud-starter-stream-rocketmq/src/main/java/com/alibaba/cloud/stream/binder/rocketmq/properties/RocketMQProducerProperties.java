@@ -16,6 +16,8 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq.properties;
 
+import java.io.Serializable;
+
 /**
  * Extended producer properties for RocketMQ binder.
  *
@@ -34,6 +36,19 @@ public class RocketMQProducerProperties extends RocketMQCommonProperties {
 	 */
 	private int compressMsgBodyThreshold = 1024 * 4;
 
+	/**
+	 * Codec of the binder level compression, one of LZ4, ZSTD or ZLIB. Message bodies
+	 * larger than {@link #compressMsgBodyThreshold} are compressed by the binder instead
+	 * of the zlib compression of the client, and the codec is recorded in a user
+	 * property. Disabled by default.
+	 */
+	private String compressionType;
+
+	/**
+	 * Compression level of the binder level compression.
+	 */
+	private int compressionLevel = 5;
+
 	/**
 	 * Maximum number of retry to perform internally before claiming sending failure in
 	 * synchronous mode.
@@ -70,8 +85,40 @@ public class RocketMQProducerProperties extends RocketMQCommonProperties {
 
 	private String transactionListener;
 
+	/**
+	 * Minimum number of threads checking the state of local transactions.
+	 */
+	private int checkThreadPoolMinSize = 1;
+
+	/**
+	 * Maximum number of threads checking the state of local transactions.
+	 */
+	private int checkThreadPoolMaxSize = 1;
+
+	/**
+	 * Maximum number of transaction check requests waiting for a check thread.
+	 */
+	private int checkRequestHoldMax = 2000;
+
 	private String messageQueueSelector;
 
+	/**
+	 * Select the queue of a message by consistent hashing of its key when no
+	 * messageQueueSelector is set, so that a change of the queue count only moves
+	 * few keys.
+	 */
+	private boolean consistentHashing = false;
+
+	/**
+	 * Number of nodes of each queue on the consistent hash ring.
+	 */
+	private int consistentHashVirtualNodes = 160;
+
+	/**
+	 * The header holding the consistent hash key, the message keys if empty.
+	 */
+	private String consistentHashKeyHeader;
+
 	private String errorMessageStrategy;
 
 	private String sendFailureChannel;
@@ -80,6 +127,8 @@ public class RocketMQProducerProperties extends RocketMQCommonProperties {
 
 	private String sendMessageHook;
 
+	private Spool spool = new Spool();
+
 	public int getSendMsgTimeout() {
 		return sendMsgTimeout;
 	}
@@ -96,6 +145,22 @@ public class RocketMQProducerProperties extends RocketMQCommonProperties {
 		this.compressMsgBodyThreshold = compressMsgBodyThreshold;
 	}
 
+	public String getCompressionType() {
+		return compressionType;
+	}
+
+	public void setCompressionType(String compressionType) {
+		this.compressionType = compressionType;
+	}
+
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	public void setCompressionLevel(int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
 	public int getRetryTimesWhenSendFailed() {
 		return retryTimesWhenSendFailed;
 	}
@@ -160,6 +225,30 @@ public class RocketMQProducerProperties extends RocketMQCommonProperties {
 		this.transactionListener = transactionListener;
 	}
 
+	public int getCheckThreadPoolMinSize() {
+		return checkThreadPoolMinSize;
+	}
+
+	public void setCheckThreadPoolMinSize(int checkThreadPoolMinSize) {
+		this.checkThreadPoolMinSize = checkThreadPoolMinSize;
+	}
+
+	public int getCheckThreadPoolMaxSize() {
+		return checkThreadPoolMaxSize;
+	}
+
+	public void setCheckThreadPoolMaxSize(int checkThreadPoolMaxSize) {
+		this.checkThreadPoolMaxSize = checkThreadPoolMaxSize;
+	}
+
+	public int getCheckRequestHoldMax() {
+		return checkRequestHoldMax;
+	}
+
+	public void setCheckRequestHoldMax(int checkRequestHoldMax) {
+		this.checkRequestHoldMax = checkRequestHoldMax;
+	}
+
 	public String getMessageQueueSelector() {
 		return messageQueueSelector;
 	}
@@ -168,6 +257,30 @@ public class RocketMQProducerProperties extends RocketMQCommonProperties {
 		this.messageQueueSelector = messageQueueSelector;
 	}
 
+	public boolean getConsistentHashing() {
+		return consistentHashing;
+	}
+
+	public void setConsistentHashing(boolean consistentHashing) {
+		this.consistentHashing = consistentHashing;
+	}
+
+	public int getConsistentHashVirtualNodes() {
+		return consistentHashVirtualNodes;
+	}
+
+	public void setConsistentHashVirtualNodes(int consistentHashVirtualNodes) {
+		this.consistentHashVirtualNodes = consistentHashVirtualNodes;
+	}
+
+	public String getConsistentHashKeyHeader() {
+		return consistentHashKeyHeader;
+	}
+
+	public void setConsistentHashKeyHeader(String consistentHashKeyHeader) {
+		this.consistentHashKeyHeader = consistentHashKeyHeader;
+	}
+
 	public String getErrorMessageStrategy() {
 		return errorMessageStrategy;
 	}
@@ -200,6 +313,101 @@ public class RocketMQProducerProperties extends RocketMQCommonProperties {
 		this.sendMessageHook = sendMessageHook;
 	}
 
+	public Spool getSpool() {
+		return spool;
+	}
+
+	public void setSpool(Spool spool) {
+		this.spool = spool;
+	}
+
+	public static class Spool implements Serializable {
+
+		/**
+		 * Whether to keep the messages which cannot be sent because the brokers are
+		 * unreachable in a local spool, and send them again in order later.
+		 * Transactional producers are not spooled.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * The directory of the spools, each binding uses a sub directory named after
+		 * it. Required, it must be on a persistent file system.
+		 */
+		private String directory;
+
+		/**
+		 * Size of a segment file of the spool, larger messages are not spooled.
+		 */
+		private int segmentSize = 64 * 1024 * 1024;
+
+		/**
+		 * Maximum size of the messages waiting in the spool, messages are rejected
+		 * once it is reached.
+		 */
+		private long maxSize = 1024L * 1024 * 1024;
+
+		/**
+		 * Interval in milliseconds between attempts to send the spooled messages.
+		 */
+		private long replayIntervalMillis = 1000L;
+
+		/**
+		 * Attempts to send a spooled message before it is dropped and sent to the
+		 * error channel.
+		 */
+		private int maxReplayAttempts = 300;
+
+		public boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public int getSegmentSize() {
+			return segmentSize;
+		}
+
+		public void setSegmentSize(int segmentSize) {
+			this.segmentSize = segmentSize;
+		}
+
+		public long getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(long maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public long getReplayIntervalMillis() {
+			return replayIntervalMillis;
+		}
+
+		public void setReplayIntervalMillis(long replayIntervalMillis) {
+			this.replayIntervalMillis = replayIntervalMillis;
+		}
+
+		public int getMaxReplayAttempts() {
+			return maxReplayAttempts;
+		}
+
+		public void setMaxReplayAttempts(int maxReplayAttempts) {
+			this.maxReplayAttempts = maxReplayAttempts;
+		}
+
+	}
+
 	public enum ProducerType {
 
 		/**
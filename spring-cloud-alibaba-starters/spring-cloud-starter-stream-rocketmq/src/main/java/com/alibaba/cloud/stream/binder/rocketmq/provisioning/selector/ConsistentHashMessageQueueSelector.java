@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.provisioning.selector;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.cloud.stream.binder.rocketmq.utils.RocketMQUtils;
+import org.apache.rocketmq.client.producer.MessageQueueSelector;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageQueue;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Selects the queue of a message by consistent hashing of its key, so that a change
+ * of the queue count only moves the keys of the added or removed queues.
+ * <p>
+ * Each queue is placed on a ring of 64-bit hashes by a number of virtual nodes, a key
+ * goes to the first node at or after its hash. The ring is rebuilt when the queues
+ * of the topic route change, detected by the hash code of the queue list given on
+ * each send. Messages without a key are spread round robin.
+ *
+ * @author agent
+ */
+public class ConsistentHashMessageQueueSelector implements MessageQueueSelector {
+
+	private final int virtualNodes;
+
+	private final String keyHeader;
+
+	private final AtomicInteger roundRobin = new AtomicInteger();
+
+	private volatile Ring ring;
+
+	/**
+	 * @param virtualNodes the number of nodes of each queue on the ring
+	 * @param keyHeader the user property holding the key, the message keys if empty
+	 */
+	public ConsistentHashMessageQueueSelector(int virtualNodes, String keyHeader) {
+		this.virtualNodes = Math.max(1, virtualNodes);
+		this.keyHeader = StringUtils.hasText(keyHeader) ? keyHeader : null;
+	}
+
+	@Override
+	public MessageQueue select(List<MessageQueue> mqs, Message msg, Object arg) {
+		Ring ring = this.ring;
+		int hashCode = mqs.hashCode();
+		if (ring == null || ring.hashCode != hashCode
+				|| ring.counts.length() != mqs.size()) {
+			ring = new Ring(mqs, hashCode, virtualNodes);
+			this.ring = ring;
+		}
+		String key = keyHeader == null ? msg.getKeys() : msg.getUserProperty(keyHeader);
+		int index = StringUtils.hasLength(key) ? ring.indexOf(RocketMQUtils.hash64(key))
+				: Math.floorMod(roundRobin.getAndIncrement(), mqs.size());
+		ring.counts.incrementAndGet(index);
+		return mqs.get(index);
+	}
+
+	/**
+	 * The imbalance of the messages sent to the queues since the queues last changed.
+	 * @return the ratio of the busiest queue to the mean, 1 when balanced
+	 */
+	public double getSkew() {
+		Ring ring = this.ring;
+		if (ring == null) {
+			return 1;
+		}
+		long max = 0;
+		long total = 0;
+		for (int i = 0; i < ring.counts.length(); i++) {
+			long count = ring.counts.get(i);
+			max = Math.max(max, count);
+			total += count;
+		}
+		return total == 0 ? 1 : (double) max * ring.counts.length() / total;
+	}
+
+	private static final class Ring {
+
+		private final int hashCode;
+
+		/**
+		 * The sorted hashes of the nodes.
+		 */
+		private final long[] points;
+
+		/**
+		 * The queue index of each node.
+		 */
+		private final int[] queues;
+
+		private final AtomicLongArray counts;
+
+		private Ring(List<MessageQueue> mqs, int hashCode, int virtualNodes) {
+			this.hashCode = hashCode;
+			this.counts = new AtomicLongArray(mqs.size());
+			int size = mqs.size() * virtualNodes;
+			long[] nodes = new long[size];
+			for (int i = 0; i < mqs.size(); i++) {
+				MessageQueue mq = mqs.get(i);
+				// Placed by broker and queue id, the topic may carry a namespace.
+				String prefix = mq.getBrokerName() + "#" + mq.getQueueId() + "#";
+				for (int node = 0; node < virtualNodes; node++) {
+					nodes[i * virtualNodes + node] = RocketMQUtils
+							.hash64(prefix + node);
+				}
+			}
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> Long.compare(nodes[a], nodes[b]));
+			this.points = new long[size];
+			this.queues = new int[size];
+			for (int i = 0; i < size; i++) {
+				points[i] = nodes[order[i]];
+				queues[i] = order[i] / virtualNodes;
+			}
+		}
+
+		private int indexOf(long hash) {
+			int index = Arrays.binarySearch(points, hash);
+			if (index < 0) {
+				index = -index - 1;
+			}
+			return queues[index == points.length ? 0 : index];
+		}
+
+	}
+
+}
@@ -17,6 +17,7 @@
 package com.alibaba.cloud.stream.binder.rocketmq.provisioning.selector;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.rocketmq.client.producer.MessageQueueSelector;
 import org.apache.rocketmq.common.message.Message;
@@ -38,8 +39,12 @@ public class PartitionMessageQueueSelector implements MessageQueueSelector {
 	public MessageQueue select(List<MessageQueue> mqs, Message msg, Object arg) {
 		int partition = 0;
 		try {
-			partition = Math.abs(
-					Integer.parseInt(msg.getProperty(BinderHeaders.PARTITION_HEADER)));
+			// The message headers are given as the argument, with the partition
+			// still a number.
+			Object header = arg instanceof Map ? ((Map<?, ?>) arg)
+					.get(BinderHeaders.PARTITION_HEADER) : null;
+			partition = Math.abs(header instanceof Number ? ((Number) header).intValue()
+					: Integer.parseInt(msg.getProperty(BinderHeaders.PARTITION_HEADER)));
 			if (partition >= mqs.size()) {
 				LOGGER.warn(
 						"the partition '{}' is greater than the number of queues '{}'.",
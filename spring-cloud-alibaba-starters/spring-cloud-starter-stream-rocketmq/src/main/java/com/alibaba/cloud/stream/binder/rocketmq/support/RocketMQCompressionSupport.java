@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq.support;
+
+import java.io.IOException;
+
+import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst.Headers;
+import org.apache.rocketmq.common.compression.CompressionType;
+import org.apache.rocketmq.common.compression.CompressorFactory;
+import org.apache.rocketmq.common.message.Message;
+
+import org.springframework.messaging.MessagingException;
+import org.springframework.util.StringUtils;
+
+/**
+ * Binder level payload compression. Unlike the zlib compression of the RocketMQ client
+ * (see {@code compressMsgBodyThreshold}), the codec is configurable and is recorded in
+ * the {@link Headers#COMPRESSION_TYPE} user property, so that the inbound adapters can
+ * decompress the payload transparently.
+ *
+ * @author agent
+ */
+public final class RocketMQCompressionSupport {
+
+	private RocketMQCompressionSupport() {
+	}
+
+	/**
+	 * Resolve the configured compression type.
+	 * @param compressionType name of the codec, eg: LZ4, ZSTD, ZLIB
+	 * @return compression type, or null if the binder level compression is disabled
+	 */
+	public static CompressionType getCompressionType(String compressionType) {
+		if (!StringUtils.hasText(compressionType)
+				|| "none".equalsIgnoreCase(compressionType.trim())) {
+			return null;
+		}
+		return CompressionType.of(compressionType);
+	}
+
+	/**
+	 * Compress the body of the message if it is larger than the threshold and the
+	 * compressed body is actually smaller.
+	 * @param message RocketMQ message
+	 * @param compressionType codec to use
+	 * @param threshold body size in bytes from which the body is compressed
+	 * @param level compression level of the codec
+	 */
+	public static void compress(Message message, CompressionType compressionType,
+			int threshold, int level) {
+		byte[] body = message.getBody();
+		if (compressionType == null || body == null || body.length <= threshold) {
+			return;
+		}
+		try {
+			byte[] compressed = CompressorFactory.getCompressor(compressionType)
+					.compress(body, level);
+			if (compressed.length < body.length) {
+				message.setBody(compressed);
+				message.putUserProperty(Headers.COMPRESSION_TYPE,
+						compressionType.name());
+			}
+		}
+		catch (IOException e) {
+			throw new MessagingException(
+					"compress message body with " + compressionType + " failed.", e);
+		}
+	}
+
+	/**
+	 * Decompress the body of a message compressed by
+	 * {@link #compress(Message, CompressionType, int, int)}.
+	 * @param body message body
+	 * @param compressionType value of the {@link Headers#COMPRESSION_TYPE} property
+	 * @return the decompressed body, or the body itself if it is not compressed
+	 */
+	public static byte[] decompress(byte[] body, String compressionType) {
+		if (compressionType == null || body == null) {
+			return body;
+		}
+		try {
+			return CompressorFactory.getCompressor(CompressionType.of(compressionType))
+					.decompress(body);
+		}
+		catch (IOException e) {
+			throw new MessagingException(
+					"decompress message body with " + compressionType + " failed.", e);
+		}
+	}
+
+}
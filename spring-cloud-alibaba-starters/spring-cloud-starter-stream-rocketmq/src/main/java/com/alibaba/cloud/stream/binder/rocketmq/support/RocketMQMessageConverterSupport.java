@@ -17,12 +17,15 @@
 package com.alibaba.cloud.stream.binder.rocketmq.support;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
 
 import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst;
 import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst.Headers;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.PayloadCodecMessageConverter;
 import com.alibaba.cloud.stream.binder.rocketmq.convert.RocketMQMessageConverter;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.RocketMQPayloadCodec;
 import com.alibaba.cloud.stream.binder.rocketmq.custom.RocketMQBeanContainerCache;
 import org.apache.rocketmq.common.message.MessageConst;
 import org.apache.rocketmq.common.message.MessageExt;
@@ -30,10 +33,13 @@ import org.apache.rocketmq.common.message.MessageExt;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * @author zkzlx
@@ -43,13 +49,21 @@ public final class RocketMQMessageConverterSupport {
 	private RocketMQMessageConverterSupport() {
 	}
 
+	private static final MimeType DEFAULT_STRING_CONTENT_TYPE = new MimeType(
+			MimeTypeUtils.TEXT_PLAIN, StandardCharsets.UTF_8);
+
 	private static final CompositeMessageConverter MESSAGE_CONVERTER = RocketMQBeanContainerCache
 			.getBean(RocketMQMessageConverter.DEFAULT_NAME,
 					CompositeMessageConverter.class,
 					new RocketMQMessageConverter().getMessageConverter());
 
+	private static final PayloadCodecMessageConverter PAYLOAD_CODEC_CONVERTER = findPayloadCodecConverter(
+			MESSAGE_CONVERTER);
+
 	public static Message convertMessage2Spring(MessageExt message) {
-		MessageBuilder messageBuilder = MessageBuilder.withPayload(message.getBody())
+		byte[] body = RocketMQCompressionSupport.decompress(message.getBody(),
+				message.getProperty(Headers.COMPRESSION_TYPE));
+		MessageBuilder messageBuilder = MessageBuilder.withPayload(body)
 				.setHeader(toRocketHeaderKey(Headers.KEYS), message.getKeys())
 				.setHeader(toRocketHeaderKey(Headers.TAGS), message.getTags())
 				.setHeader(toRocketHeaderKey(Headers.TOPIC), message.getTopic())
@@ -76,6 +90,7 @@ public final class RocketMQMessageConverterSupport {
 		if (!CollectionUtils.isEmpty(properties)) {
 			properties.forEach((key, val) -> {
 				if (!MessageConst.STRING_HASH_SET.contains(key)
+						&& !Headers.COMPRESSION_TYPE.equals(key)
 						&& !MessageHeaders.ID.equals(key)
 						&& !MessageHeaders.TIMESTAMP.equals(key)) {
 					messageBuilder.setHeader(key, val);
@@ -86,6 +101,35 @@ public final class RocketMQMessageConverterSupport {
 
 	public static org.apache.rocketmq.common.message.Message convertMessage2MQ(
 			String destination, Message<?> source) {
+		// Raw payloads would come back unchanged from the converter, so skip the
+		// conversion and the rebuild of the message headers.
+		Object payload = source.getPayload();
+		if (payload instanceof byte[] bytes) {
+			return getAndWrapMessage(destination, source.getHeaders(), bytes,
+					MimeTypeUtils.APPLICATION_OCTET_STREAM);
+		}
+		if (payload instanceof String text) {
+			MimeType contentType = getContentType(source.getHeaders());
+			if (contentType == null || MimeTypeUtils.TEXT_PLAIN.includes(contentType)) {
+				Charset charset = contentType != null && contentType.getCharset() != null
+						? contentType.getCharset() : StandardCharsets.UTF_8;
+				return getAndWrapMessage(destination, source.getHeaders(),
+						text.getBytes(charset), DEFAULT_STRING_CONTENT_TYPE);
+			}
+		}
+		if (PAYLOAD_CODEC_CONVERTER != null) {
+			RocketMQPayloadCodec codec = PAYLOAD_CODEC_CONVERTER
+					.getCodec(getContentType(source.getHeaders()));
+			if (codec != null && codec.supports(payload.getClass())) {
+				org.apache.rocketmq.common.message.Message rocketMsg = getAndWrapMessage(
+						destination, source.getHeaders(), codec.encode(payload), null);
+				if (rocketMsg != null) {
+					rocketMsg.putUserProperty(Headers.SCHEMA_ID,
+							PAYLOAD_CODEC_CONVERTER.getSchemaId(payload.getClass()));
+				}
+				return rocketMsg;
+			}
+		}
 		Message<?> message = MESSAGE_CONVERTER.toMessage(source.getPayload(),
 				source.getHeaders());
 		assert message != null;
@@ -95,9 +139,27 @@ public final class RocketMQMessageConverterSupport {
 		return doConvert(destination, message);
 	}
 
+	private static PayloadCodecMessageConverter findPayloadCodecConverter(
+			CompositeMessageConverter compositeMessageConverter) {
+		for (MessageConverter converter : compositeMessageConverter.getConverters()) {
+			if (converter instanceof PayloadCodecMessageConverter payloadCodecConverter) {
+				return payloadCodecConverter;
+			}
+			if (converter instanceof CompositeMessageConverter composite) {
+				PayloadCodecMessageConverter nested = findPayloadCodecConverter(composite);
+				if (nested != null) {
+					return nested;
+				}
+			}
+		}
+		return null;
+	}
+
 	private static org.apache.rocketmq.common.message.Message doConvert(String topic,
 			Message<?> message) {
-		Charset charset = Charset.defaultCharset();
+		MimeType contentType = getContentType(message.getHeaders());
+		Charset charset = contentType != null && contentType.getCharset() != null
+				? contentType.getCharset() : StandardCharsets.UTF_8;
 		Object payloadObj = message.getPayload();
 		byte[] payloads;
 		try {
@@ -122,11 +184,23 @@ public final class RocketMQMessageConverterSupport {
 		catch (Exception e) {
 			throw new RuntimeException("convert to RocketMQ message failed.", e);
 		}
-		return getAndWrapMessage(topic, message.getHeaders(), payloads);
+		return getAndWrapMessage(topic, message.getHeaders(), payloads, null);
+	}
+
+	private static MimeType getContentType(MessageHeaders headers) {
+		Object value = headers.get(MessageHeaders.CONTENT_TYPE);
+		if (value instanceof MimeType mimeType) {
+			return mimeType;
+		}
+		if (value instanceof String text) {
+			return MimeTypeUtils.parseMimeType(text);
+		}
+		return null;
 	}
 
 	private static org.apache.rocketmq.common.message.Message getAndWrapMessage(
-			String topic, MessageHeaders headers, byte[] payloads) {
+			String topic, MessageHeaders headers, byte[] payloads,
+			MimeType defaultContentType) {
 		if (topic == null || topic.length() < 1) {
 			return null;
 		}
@@ -171,20 +245,37 @@ public final class RocketMQMessageConverterSupport {
 					.getOrDefault(RocketMQConst.PROPERTY_WAIT_STORE_MSG_OK, "true");
 			rocketMsg.setWaitStoreMsgOK(
 					Boolean.parseBoolean(String.valueOf(waitStoreMsgOkObj)));
-			headers.entrySet().stream()
-					.filter(entry -> !Objects.equals(entry.getKey(), Headers.FLAG))
-					.forEach(entry -> {
-						if (!MessageConst.STRING_HASH_SET.contains(entry.getKey())) {
-							String val = String.valueOf(entry.getValue());
-							// Remove All blank header(rocketmq not support).
-							if (org.apache.commons.lang3.StringUtils.isNotBlank(val)) {
-								rocketMsg.putUserProperty(entry.getKey(), val);
-							}
-						}
-					});
+			putUserProperties(headers, rocketMsg);
+			if (defaultContentType != null
+					&& !headers.containsKey(MessageHeaders.CONTENT_TYPE)) {
+				rocketMsg.putUserProperty(MessageHeaders.CONTENT_TYPE,
+						defaultContentType.toString());
+			}
 
 		}
 		return rocketMsg;
 	}
 
+	/**
+	 * Copy the Spring message headers to the user properties of the RocketMQ message,
+	 * skipping the RocketMQ system properties and blank values (not supported by
+	 * RocketMQ).
+	 * @param headers the Spring message headers
+	 * @param rocketMsg the RocketMQ message
+	 */
+	public static void putUserProperties(MessageHeaders headers,
+			org.apache.rocketmq.common.message.Message rocketMsg) {
+		for (Map.Entry<String, Object> entry : headers.entrySet()) {
+			String key = entry.getKey();
+			if (Headers.FLAG.equals(key) || MessageConst.STRING_HASH_SET.contains(key)) {
+				continue;
+			}
+			Object value = entry.getValue();
+			String val = value instanceof String text ? text : String.valueOf(value);
+			if (StringUtils.hasText(val)) {
+				rocketMsg.putUserProperty(key, val);
+			}
+		}
+	}
+
 }
@@ -16,6 +16,8 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq.utils;
 
+import java.nio.charset.StandardCharsets;
+
 import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQBinderConfigurationProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQCommonProperties;
@@ -26,6 +28,7 @@ import org.apache.rocketmq.client.consumer.MessageSelector;
 import org.apache.rocketmq.common.UtilAll;
 import org.apache.rocketmq.remoting.RPCHook;
 
+import org.springframework.util.DigestUtils;
 
 /**
  * @author <a href="mailto:fangjian0423@gmail.com">Jim</a>
@@ -67,6 +70,9 @@ public final class RocketMQUtils {
 		if (StringUtils.isEmpty(mqProperties.getUnitName())) {
 			mqProperties.setUnitName(binderConfigurationProperties.getUnitName());
 		}
+		if (binderConfigurationProperties.getShareClientInstance()) {
+			mqProperties.setShareClientInstance(true);
+		}
 		mqProperties.setNameServer(getNameServerStr(mqProperties.getNameServer()));
 		return mqProperties;
 	}
@@ -84,6 +90,25 @@ public final class RocketMQUtils {
 		return instanceName.toString();
 	}
 
+	/**
+	 * The instance name of the client shared by all bindings with the same client
+	 * settings, as clients with the same instance name share one client instance.
+	 * @param mqProperties the properties of a binding
+	 * @return the shared instance name
+	 */
+	public static String getSharedInstanceName(RocketMQCommonProperties mqProperties) {
+		String settings = String.join("|", mqProperties.getNameServer(),
+				mqProperties.getNamespace(), mqProperties.getAccessKey(),
+				mqProperties.getSecretKey(), mqProperties.getAccessChannel(),
+				String.valueOf(mqProperties.getUseTLS()),
+				String.valueOf(mqProperties.getVipChannelEnabled()),
+				String.valueOf(mqProperties.getPollNameServerInterval()),
+				String.valueOf(mqProperties.getHeartbeatBrokerInterval()),
+				String.valueOf(mqProperties.getPersistConsumerOffsetInterval()));
+		return "SHARED|" + DigestUtils.md5DigestAsHex(
+				settings.getBytes(StandardCharsets.UTF_8)) + "|" + UtilAll.getPid();
+	}
+
 	public static String getNameServerStr(String nameServer) {
 		if (StringUtils.isEmpty(nameServer)) {
 			return RocketMQConst.DEFAULT_NAME_SERVER;
@@ -100,6 +125,26 @@ public final class RocketMQUtils {
 		return MessageSelector.byTag(expression);
 	}
 
+	/**
+	 * 64-bit FNV-1a over the chars of a string, finalized by the MurmurHash3 mixer to
+	 * spread close strings. Never 0, which callers may use as an empty marker.
+	 * @param value not null
+	 * @return the hash
+	 */
+	public static long hash64(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash == 0 ? 1 : hash;
+	}
+
 	/**
 	 * generate anonymous group.
 	 * @param destination not null
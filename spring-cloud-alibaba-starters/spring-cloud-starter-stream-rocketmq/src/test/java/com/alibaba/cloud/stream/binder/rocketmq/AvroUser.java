@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificRecordBase;
+
+/**
+ * An Avro record in the shape of the classes generated by the Avro compiler.
+ *
+ * @author agent
+ */
+public class AvroUser extends SpecificRecordBase {
+
+	public static final Schema SCHEMA$ = new Schema.Parser().parse(
+			"{\"type\":\"record\",\"name\":\"AvroUser\",\"namespace\":\"com.alibaba.cloud.stream.binder.rocketmq\","
+					+ "\"fields\":[{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"age\",\"type\":\"int\"}]}");
+
+	private static final SpecificData MODEL$ = new SpecificData();
+
+	private static final BinaryMessageEncoder<AvroUser> ENCODER = new BinaryMessageEncoder<>(
+			MODEL$, SCHEMA$);
+
+	private static final BinaryMessageDecoder<AvroUser> DECODER = new BinaryMessageDecoder<>(
+			MODEL$, SCHEMA$);
+
+	private CharSequence name;
+
+	private int age;
+
+	public AvroUser() {
+	}
+
+	public AvroUser(CharSequence name, int age) {
+		this.name = name;
+		this.age = age;
+	}
+
+	public static AvroUser fromByteBuffer(ByteBuffer buffer) throws IOException {
+		return DECODER.decode(buffer);
+	}
+
+	public ByteBuffer toByteBuffer() throws IOException {
+		return ENCODER.encode(this);
+	}
+
+	public CharSequence getName() {
+		return name;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	@Override
+	public SpecificData getSpecificData() {
+		return MODEL$;
+	}
+
+	@Override
+	public Schema getSchema() {
+		return SCHEMA$;
+	}
+
+	@Override
+	public Object get(int field) {
+		return switch (field) {
+		case 0 -> name;
+		case 1 -> age;
+		default -> throw new IndexOutOfBoundsException("Invalid index: " + field);
+		};
+	}
+
+	@Override
+	public void put(int field, Object value) {
+		switch (field) {
+		case 0 -> name = (CharSequence) value;
+		case 1 -> age = (Integer) value;
+		default -> throw new IndexOutOfBoundsException("Invalid index: " + field);
+		}
+	}
+
+}
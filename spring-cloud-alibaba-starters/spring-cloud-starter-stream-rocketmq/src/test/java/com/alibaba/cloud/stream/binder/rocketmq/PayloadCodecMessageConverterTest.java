@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst.Headers;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.AvroPayloadCodec;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.PayloadCodecMessageConverter;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.ProtobufPayloadCodec;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.RocketMQPayloadCodec;
+import com.google.protobuf.StringValue;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class PayloadCodecMessageConverterTest {
+
+	private static final MimeType TEXT_CODEC = new MimeType("application", "x-text");
+
+	private final PayloadCodecMessageConverter converter = new PayloadCodecMessageConverter(
+			List.of(new TextCodec(), new ProtobufPayloadCodec(), new AvroPayloadCodec()),
+			Map.of("text-v1", Text.class, "string-value", StringValue.class, "user-v1",
+					AvroUser.class));
+
+	@Test
+	public void selectCodecByContentType() {
+		Message<?> message = converter.toMessage(new Text("hello"), new MessageHeaders(
+				Collections.singletonMap(MessageHeaders.CONTENT_TYPE, TEXT_CODEC)));
+		assertThat(message).isNotNull();
+		assertThat((byte[]) message.getPayload())
+				.isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
+		assertThat(converter.toMessage(new Text("hello"), new MessageHeaders(
+				Collections.singletonMap(MessageHeaders.CONTENT_TYPE, "application/json"))))
+						.isNull();
+		assertThat(converter.toMessage(new Text("hello"), null)).isNull();
+	}
+
+	@Test
+	public void decodeBySchemaId() {
+		Message<byte[]> message = MessageBuilder
+				.withPayload("hello".getBytes(StandardCharsets.UTF_8))
+				.setHeader(MessageHeaders.CONTENT_TYPE, TEXT_CODEC.toString())
+				.setHeader(Headers.SCHEMA_ID, converter.getSchemaId(Text.class))
+				.build();
+		assertThat(message.getHeaders().get(Headers.SCHEMA_ID)).isEqualTo("text-v1");
+		assertThat(converter.fromMessage(message, Text.class))
+				.isEqualTo(new Text("hello"));
+		assertThat(converter.fromMessage(message, Object.class))
+				.isEqualTo(new Text("hello"));
+	}
+
+	@Test
+	public void ignoreUnregisteredSchemaId() {
+		Message<byte[]> message = MessageBuilder
+				.withPayload("hello".getBytes(StandardCharsets.UTF_8))
+				.setHeader(MessageHeaders.CONTENT_TYPE, TEXT_CODEC.toString())
+				.setHeader(Headers.SCHEMA_ID, Text.class.getName()).build();
+		// a class name is not a schema id unless it is registered
+		assertThat(converter.fromMessage(message, Object.class)).isNull();
+		assertThat(converter.fromMessage(message, Object.class)).isNull();
+		assertThat(converter.fromMessage(message, Text.class))
+				.isEqualTo(new Text("hello"));
+	}
+
+	@Test
+	public void protobufRoundTrip() {
+		StringValue value = StringValue.of("hello");
+		Message<?> message = converter.toMessage(value,
+				new MessageHeaders(Collections.singletonMap(MessageHeaders.CONTENT_TYPE,
+						ProtobufPayloadCodec.PROTOBUF)));
+		assertThat(message).isNotNull();
+		assertThat((byte[]) message.getPayload()).isEqualTo(value.toByteArray());
+
+		Message<?> received = MessageBuilder.fromMessage(message)
+				.setHeader(Headers.SCHEMA_ID, converter.getSchemaId(StringValue.class))
+				.build();
+		assertThat(converter.fromMessage(received, StringValue.class)).isEqualTo(value);
+		assertThat(converter.fromMessage(received, Object.class)).isEqualTo(value);
+	}
+
+	@Test
+	public void avroRoundTrip() {
+		Message<?> message = converter.toMessage(new AvroUser("alice", 42),
+				new MessageHeaders(Collections.singletonMap(MessageHeaders.CONTENT_TYPE,
+						AvroPayloadCodec.AVRO)));
+		assertThat(message).isNotNull();
+
+		Message<?> received = MessageBuilder.fromMessage(message)
+				.setHeader(Headers.SCHEMA_ID, converter.getSchemaId(AvroUser.class))
+				.build();
+		AvroUser user = (AvroUser) converter.fromMessage(received, Object.class);
+		assertThat(user.getName().toString()).isEqualTo("alice");
+		assertThat(user.getAge()).isEqualTo(42);
+	}
+
+	public record Text(String value) {
+	}
+
+	static class TextCodec implements RocketMQPayloadCodec {
+
+		@Override
+		public MimeType getMimeType() {
+			return TEXT_CODEC;
+		}
+
+		@Override
+		public boolean supports(Class<?> clazz) {
+			return Text.class.equals(clazz);
+		}
+
+		@Override
+		public byte[] encode(Object payload) {
+			return ((Text) payload).value().getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public Object decode(byte[] payload, Class<?> targetClass) {
+			return new Text(new String(payload, StandardCharsets.UTF_8));
+		}
+
+	}
+
+}
@@ -16,13 +16,20 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq;
 
+import java.util.Map;
+
+import com.alibaba.cloud.stream.binder.rocketmq.autoconfigurate.ExtendedBindingHandlerMappingsProviderConfiguration;
 import com.alibaba.cloud.stream.binder.rocketmq.autoconfigurate.RocketMQBinderAutoConfiguration;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.PayloadCodecMessageConverter;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.RocketMQMessageConverter;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQBinderConfigurationProperties;
 import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQExtendedBindingProperties;
+import com.google.protobuf.StringValue;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.messaging.converter.CompositeMessageConverter;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -68,4 +75,25 @@ public class RocketMQAutoConfigurationTests {
 		});
 	}
 
+	@Test
+	public void testSchemaTypes() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations
+						.of(ExtendedBindingHandlerMappingsProviderConfiguration.class))
+				.withPropertyValues(
+						"spring.cloud.stream.rocketmq.binder.schema-types.greeting-v1="
+								+ StringValue.class.getName())
+				.run(context -> {
+					CompositeMessageConverter converter = context.getBean(
+							RocketMQMessageConverter.DEFAULT_NAME,
+							CompositeMessageConverter.class);
+					assertThat(converter.getConverters()).filteredOn(
+							PayloadCodecMessageConverter.class::isInstance)
+							.singleElement()
+							.extracting(c -> ((PayloadCodecMessageConverter) c)
+									.getSchemaTypes())
+							.isEqualTo(Map.of("greeting-v1", StringValue.class));
+				});
+	}
+
 }
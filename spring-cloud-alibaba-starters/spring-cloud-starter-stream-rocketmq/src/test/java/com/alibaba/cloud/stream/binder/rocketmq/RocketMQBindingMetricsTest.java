@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.util.Collections;
+
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.MicrometerBindingMetricsFactory;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.message.MessageAccessor;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class RocketMQBindingMetricsTest {
+
+	private static final String PREFIX = MicrometerBindingMetricsFactory.METER_PREFIX;
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final MicrometerBindingMetricsFactory factory = new MicrometerBindingMetricsFactory(
+			new StaticListableBeanFactory(Collections.singletonMap("registry",
+					registry)).getBeanProvider(MeterRegistry.class));
+
+	@Test
+	public void producerMetrics() {
+		RocketMQBindingMetrics metrics = factory.createProducerMetrics("output",
+				"topic");
+		metrics.recordSend(System.nanoTime(), SendStatus.SEND_OK);
+		metrics.recordSend(System.nanoTime(), SendStatus.FLUSH_DISK_TIMEOUT);
+		metrics.recordSendFailure();
+		assertThat(registry.get(PREFIX + "send").tag("binding", "output").timer()
+				.count()).isEqualTo(2);
+		assertThat(registry.get(PREFIX + "send.failures")
+				.tag("status", "FLUSH_DISK_TIMEOUT").counter().count()).isEqualTo(1);
+		assertThat(registry.get(PREFIX + "send.failures").tag("status", "EXCEPTION")
+				.counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void consumerMetrics() {
+		RocketMQBindingMetrics metrics = factory.createConsumerMetrics("input",
+				"topic", "group");
+		MessageExt messageExt = new MessageExt();
+		messageExt.setBrokerName("broker");
+		messageExt.setQueueId(3);
+		messageExt.setQueueOffset(10);
+		messageExt.setReconsumeTimes(1);
+		MessageAccessor.putProperty(messageExt, MessageConst.PROPERTY_MAX_OFFSET, "15");
+		metrics.recordReceived(messageExt);
+		metrics.recordConsume(System.nanoTime(), 1, false);
+		metrics.recordRetry();
+		metrics.recordRetry();
+		metrics.recordDeadLetter();
+		assertThat(registry.get(PREFIX + "consumer.lag").tag("broker", "broker")
+				.tag("queue", "3").gauge().value()).isEqualTo(4);
+		assertThat(registry.get(PREFIX + "consume").tag("result", "failure").timer()
+				.count()).isEqualTo(1);
+		assertThat(registry.get(PREFIX + "consume.redeliveries").counter().count())
+				.isEqualTo(1);
+		assertThat(registry.get(PREFIX + "consume.retries").counter().count())
+				.isEqualTo(2);
+		assertThat(registry.get(PREFIX + "consume.dlq").counter().count())
+				.isEqualTo(1);
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.RocketMQConsumeExecutor;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author agent
+ */
+public class RocketMQConsumeExecutorTest {
+
+	@Test
+	public void consumeBatchInParallel() {
+		List<MessageExt> messageExtList = Arrays.asList(new MessageExt(),
+				new MessageExt(), new MessageExt());
+		CountDownLatch started = new CountDownLatch(messageExtList.size());
+		RocketMQConsumeExecutor executor = new RocketMQConsumeExecutor("test", 3);
+		MessageExt failed = executor.consume(messageExtList, messageExt -> {
+			started.countDown();
+			// every handler waits for the others, so they must run at once
+			if (!started.await(10, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("not consumed in parallel");
+			}
+		});
+		assertThat(failed).isNull();
+	}
+
+	@Test
+	public void returnFailedMessage() {
+		List<MessageExt> messageExtList = Arrays.asList(new MessageExt(),
+				new MessageExt());
+		RocketMQConsumeExecutor executor = new RocketMQConsumeExecutor("test", 1);
+		MessageExt failed = executor.consume(messageExtList, messageExt -> {
+			if (messageExt == messageExtList.get(1)) {
+				throw new IllegalStateException("failed");
+			}
+		});
+		assertThat(failed).isSameAs(messageExtList.get(1));
+	}
+
+	@Test
+	public void consumeByKeyInOrder() {
+		List<MessageExt> messageExtList = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			MessageExt messageExt = new MessageExt();
+			messageExt.setKeys("key-" + (i % 3));
+			messageExt.setQueueOffset(i);
+			messageExtList.add(messageExt);
+		}
+		Map<String, List<Long>> consumed = new ConcurrentHashMap<>();
+		RocketMQConsumeExecutor executor = new RocketMQConsumeExecutor("test", 4);
+		MessageExt failed = executor.consumeByKey(messageExtList, 4, MessageExt::getKeys,
+				messageExt -> consumed.computeIfAbsent(messageExt.getKeys(),
+						key -> Collections.synchronizedList(new ArrayList<>()))
+						.add(messageExt.getQueueOffset()));
+		assertThat(failed).isNull();
+		assertThat(consumed).hasSize(3);
+		consumed.forEach((key, offsets) -> assertThat(offsets).isSorted());
+		assertThat(consumed.values().stream().mapToInt(List::size).sum())
+				.isEqualTo(20);
+	}
+
+	@Test
+	public void laneStopsAtFailure() {
+		List<MessageExt> messageExtList = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			MessageExt messageExt = new MessageExt();
+			messageExt.setKeys("key");
+			messageExt.setQueueOffset(i);
+			messageExtList.add(messageExt);
+		}
+		List<Long> consumed = Collections.synchronizedList(new ArrayList<>());
+		RocketMQConsumeExecutor executor = new RocketMQConsumeExecutor("test", 2);
+		MessageExt failed = executor.consumeByKey(messageExtList, 2, MessageExt::getKeys,
+				messageExt -> {
+					if (messageExt.getQueueOffset() == 1) {
+						throw new IllegalStateException("failed");
+					}
+					consumed.add(messageExt.getQueueOffset());
+				});
+		assertThat(failed).isSameAs(messageExtList.get(1));
+		assertThat(consumed).containsExactly(0L);
+	}
+
+	@Test
+	public void interruptWaitsForDispatchedLanes() throws Exception {
+		List<MessageExt> messageExtList = Arrays.asList(new MessageExt(),
+				new MessageExt());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean finished = new AtomicBoolean();
+		RocketMQConsumeExecutor executor = new RocketMQConsumeExecutor("test", 1);
+		Thread consumer = Thread.currentThread();
+		Thread interrupter = new Thread(() -> {
+			try {
+				started.await();
+				consumer.interrupt();
+				Thread.sleep(200);
+				release.countDown();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		interrupter.start();
+		MessageExt failed = executor.consume(messageExtList, messageExt -> {
+			started.countDown();
+			release.await();
+			finished.set(true);
+		});
+		// the second lane is never dispatched, the first one is waited for
+		assertThat(Thread.interrupted()).isTrue();
+		assertThat(finished).isTrue();
+		assertThat(failed).isSameAs(messageExtList.get(1));
+		interrupter.join();
+	}
+
+	@Test
+	public void rejectAfterShutdown() {
+		RocketMQConsumeExecutor executor = new RocketMQConsumeExecutor("test", 2);
+		executor.shutdown();
+		assertThatThrownBy(() -> executor.consume(
+				Arrays.asList(new MessageExt(), new MessageExt()), messageExt -> {
+				})).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	public void consumeOnPlatformThreads() {
+		RocketMQConsumeExecutor executor = new RocketMQConsumeExecutor("test", 2, false);
+		List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+		MessageExt failed = executor.consume(
+				Arrays.asList(new MessageExt(), new MessageExt()),
+				messageExt -> threadNames.add(Thread.currentThread().getName()));
+		executor.shutdown();
+		assertThat(executor.isVirtual()).isFalse();
+		assertThat(failed).isNull();
+		assertThat(threadNames).hasSize(2)
+				.allMatch(name -> name.startsWith("RocketMQConsume_test_"));
+	}
+
+}
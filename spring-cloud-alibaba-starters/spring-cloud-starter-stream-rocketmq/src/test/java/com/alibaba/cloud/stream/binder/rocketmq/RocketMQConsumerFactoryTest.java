@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.RocketMQConsumerFactory;
+import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class RocketMQConsumerFactoryTest {
+
+	@Test
+	public void consumeOneMessageAtATimeByDefault() {
+		RocketMQConsumerProperties consumerProperties = consumerProperties();
+		consumerProperties.getPush().setConsumeMessageBatchMaxSize(8);
+
+		assertThat(initPushConsumer(consumerProperties).getConsumeMessageBatchMaxSize())
+				.isEqualTo(1);
+	}
+
+	@Test
+	public void consumeBatchesOnVirtualThreads() {
+		RocketMQConsumerProperties consumerProperties = consumerProperties();
+		consumerProperties.getPush().setVirtualThreads(true);
+		assertThat(initPushConsumer(consumerProperties).getConsumeMessageBatchMaxSize())
+				.isEqualTo(consumerProperties.getPullBatchSize());
+
+		consumerProperties.getPush().setConsumeMessageBatchMaxSize(8);
+		assertThat(initPushConsumer(consumerProperties).getConsumeMessageBatchMaxSize())
+				.isEqualTo(8);
+	}
+
+	@Test
+	public void consumeBatchesInKeyOrderedLanes() {
+		RocketMQConsumerProperties consumerProperties = consumerProperties();
+		consumerProperties.getPush().setOrderly(true);
+		consumerProperties.getPush().setVirtualThreads(true);
+		assertThat(initPushConsumer(consumerProperties).getConsumeMessageBatchMaxSize())
+				.isEqualTo(1);
+
+		consumerProperties.getPush().setKeyOrderedLanes(4);
+		assertThat(initPushConsumer(consumerProperties).getConsumeMessageBatchMaxSize())
+				.isEqualTo(consumerProperties.getPullBatchSize());
+	}
+
+	private static DefaultMQPushConsumer initPushConsumer(
+			RocketMQConsumerProperties consumerProperties) {
+		return RocketMQConsumerFactory.initPushConsumer(
+				new ExtendedConsumerProperties<>(consumerProperties));
+	}
+
+	private static RocketMQConsumerProperties consumerProperties() {
+		RocketMQConsumerProperties consumerProperties = new RocketMQConsumerProperties();
+		consumerProperties.setNameServer("127.0.0.1:9876");
+		consumerProperties.setGroup("group");
+		consumerProperties.setEnableMsgTrace(false);
+		return consumerProperties;
+	}
+
+}
@@ -16,12 +16,26 @@
 
 package com.alibaba.cloud.stream.binder.rocketmq;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.cloud.stream.binder.rocketmq.constant.RocketMQConst;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.PayloadCodecMessageConverter;
+import com.alibaba.cloud.stream.binder.rocketmq.convert.ProtobufPayloadCodec;
+import com.alibaba.cloud.stream.binder.rocketmq.support.RocketMQCompressionSupport;
 import com.alibaba.cloud.stream.binder.rocketmq.support.RocketMQMessageConverterSupport;
+import com.google.protobuf.StringValue;
+import org.apache.rocketmq.common.compression.CompressionType;
+import org.apache.rocketmq.common.message.MessageAccessor;
 import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageExt;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -44,4 +58,73 @@ public class RocketMQMessageConverterSupportTest {
 		assertThat(testProp).isNull();
 		assertThat(tagProp).isEqualTo("a");
 	}
+
+	@Test
+	public void convertMessage2MQRawPayloadTest() {
+		byte[] payload = "msg".getBytes(StandardCharsets.UTF_8);
+		Message<byte[]> message = MessageBuilder.withPayload(payload)
+				.setHeader(MessageConst.PROPERTY_KEYS, "k1")
+				.setHeader("test", "v1")
+				.build();
+		org.apache.rocketmq.common.message.Message rkmqMsg =
+				RocketMQMessageConverterSupport.convertMessage2MQ("test", message);
+		assertThat(rkmqMsg.getBody()).isSameAs(payload);
+		assertThat(rkmqMsg.getKeys()).isEqualTo("k1");
+		assertThat(rkmqMsg.getProperty("test")).isEqualTo("v1");
+		assertThat(rkmqMsg.getProperty(MessageHeaders.CONTENT_TYPE))
+				.isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE);
+
+		rkmqMsg = RocketMQMessageConverterSupport.convertMessage2MQ("test",
+				MessageBuilder.withPayload("\u6d88\u606f").build());
+		assertThat(new String(rkmqMsg.getBody(), StandardCharsets.UTF_8))
+				.isEqualTo("\u6d88\u606f");
+		assertThat(rkmqMsg.getProperty(MessageHeaders.CONTENT_TYPE))
+				.isEqualTo("text/plain;charset=UTF-8");
+	}
+
+	@Test
+	public void convertMessage2MQPayloadCodecTest() {
+		StringValue value = StringValue.of("msg");
+		Message<StringValue> message = MessageBuilder.withPayload(value)
+				.setHeader(MessageHeaders.CONTENT_TYPE, ProtobufPayloadCodec.PROTOBUF)
+				.build();
+		org.apache.rocketmq.common.message.Message rkmqMsg =
+				RocketMQMessageConverterSupport.convertMessage2MQ("test", message);
+		assertThat(rkmqMsg.getBody()).isEqualTo(value.toByteArray());
+		assertThat(rkmqMsg.getProperty(RocketMQConst.Headers.SCHEMA_ID))
+				.isEqualTo(StringValue.class.getName());
+
+		MessageExt messageExt = new MessageExt();
+		messageExt.setBody(rkmqMsg.getBody());
+		MessageAccessor.setProperties(messageExt, rkmqMsg.getProperties());
+		PayloadCodecMessageConverter converter = new PayloadCodecMessageConverter(
+				List.of(new ProtobufPayloadCodec()),
+				Map.of(StringValue.class.getName(), StringValue.class));
+		assertThat(converter.fromMessage(
+				RocketMQMessageConverterSupport.convertMessage2Spring(messageExt),
+				Object.class)).isEqualTo(value);
+	}
+
+	@Test
+	public void compressionRoundTripTest() {
+		byte[] payload = "msg,".repeat(1024).getBytes(StandardCharsets.UTF_8);
+		for (CompressionType compressionType : CompressionType.values()) {
+			org.apache.rocketmq.common.message.Message rkmqMsg =
+					RocketMQMessageConverterSupport.convertMessage2MQ("test",
+							MessageBuilder.withPayload(payload).build());
+			RocketMQCompressionSupport.compress(rkmqMsg, compressionType, 1024, 5);
+			assertThat(rkmqMsg.getBody().length).isLessThan(payload.length);
+			assertThat(rkmqMsg.getProperty(RocketMQConst.Headers.COMPRESSION_TYPE))
+					.isEqualTo(compressionType.name());
+
+			MessageExt messageExt = new MessageExt();
+			messageExt.setBody(rkmqMsg.getBody());
+			MessageAccessor.setProperties(messageExt, rkmqMsg.getProperties());
+			Message<?> message = RocketMQMessageConverterSupport
+					.convertMessage2Spring(messageExt);
+			assertThat((byte[]) message.getPayload()).isEqualTo(payload);
+			assertThat(message.getHeaders())
+					.doesNotContainKey(RocketMQConst.Headers.COMPRESSION_TYPE);
+		}
+	}
 }
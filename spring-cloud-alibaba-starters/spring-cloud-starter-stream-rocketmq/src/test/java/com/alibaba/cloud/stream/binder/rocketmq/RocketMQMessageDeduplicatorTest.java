@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import com.alibaba.cloud.stream.binder.rocketmq.extend.DeduplicationStore;
+import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.RocketMQMessageDeduplicator;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class RocketMQMessageDeduplicatorTest {
+
+	@Test
+	public void skipConsumedMessagesWithinWindow() {
+		RocketMQMessageDeduplicator deduplicator = new RocketMQMessageDeduplicator(16,
+				60_000, null, null, RocketMQBindingMetrics.NOOP);
+		for (int i = 0; i < 16; i++) {
+			MessageExt messageExt = message("msg-" + i);
+			assertThat(deduplicator.isDuplicate(messageExt)).isFalse();
+			deduplicator.markConsumed(messageExt);
+		}
+		for (int i = 0; i < 16; i++) {
+			assertThat(deduplicator.isDuplicate(message("msg-" + i))).isTrue();
+		}
+		assertThat(deduplicator.isDuplicate(message("msg-16"))).isFalse();
+
+		RocketMQMessageDeduplicator expired = new RocketMQMessageDeduplicator(16, -1,
+				null, null, RocketMQBindingMetrics.NOOP);
+		expired.markConsumed(message("msg-0"));
+		assertThat(expired.isDuplicate(message("msg-0"))).isFalse();
+	}
+
+	@Test
+	public void fallBackToStoreByKeyHeader() {
+		DeduplicationStore store = mock(DeduplicationStore.class);
+		when(store.contains("order-1")).thenReturn(true);
+		RocketMQMessageDeduplicator deduplicator = new RocketMQMessageDeduplicator(16,
+				60_000, "orderId", store, RocketMQBindingMetrics.NOOP);
+		MessageExt first = message("msg-0");
+		first.putUserProperty("orderId", "order-1");
+		MessageExt second = message("msg-1");
+		second.putUserProperty("orderId", "order-2");
+
+		assertThat(deduplicator.isDuplicate(first)).isTrue();
+		assertThat(deduplicator.isDuplicate(second)).isFalse();
+		deduplicator.markConsumed(second);
+		verify(store).put("order-2", 60_000);
+		assertThat(deduplicator.isDuplicate(message("msg-2"))).isFalse();
+	}
+
+	private static MessageExt message(String msgId) {
+		MessageExt messageExt = new MessageExt();
+		messageExt.setMsgId(msgId);
+		return messageExt;
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.util.Collections;
+
+import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.pull.RocketMQOffsetTracker;
+import org.apache.rocketmq.client.consumer.DefaultLitePullConsumer;
+import org.apache.rocketmq.client.consumer.store.OffsetStore;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author agent
+ */
+public class RocketMQOffsetTrackerTest {
+
+	private final MessageQueue messageQueue = new MessageQueue("topic", "broker", 0);
+
+	@Test
+	public void commitContiguousAcksOnly() {
+		OffsetStore offsetStore = mock(OffsetStore.class);
+		DefaultLitePullConsumer consumer = new DefaultLitePullConsumer("group");
+		consumer.setOffsetStore(offsetStore);
+		RocketMQOffsetTracker offsetTracker = new RocketMQOffsetTracker(consumer,
+				Long.MAX_VALUE);
+		offsetTracker.start();
+		try {
+			for (long offset = 10; offset < 15; offset++) {
+				offsetTracker.register(messageQueue, offset);
+			}
+			offsetTracker.ack(messageQueue, 12);
+			offsetTracker.ack(messageQueue, 11);
+			offsetTracker.flush();
+			verify(offsetStore, never()).updateOffset(any(), anyLong(), anyBoolean());
+
+			offsetTracker.ack(messageQueue, 10);
+			offsetTracker.flush();
+			verify(offsetStore).updateOffset(messageQueue, 13, true);
+
+			offsetTracker.ack(messageQueue, 14);
+			offsetTracker.ack(messageQueue, 13);
+			offsetTracker.flush();
+			verify(offsetStore).updateOffset(messageQueue, 15, true);
+		}
+		finally {
+			offsetTracker.shutdown();
+		}
+	}
+
+	@Test
+	public void requeueKeepsMessagePending() {
+		OffsetStore offsetStore = mock(OffsetStore.class);
+		DefaultLitePullConsumer consumer = new DefaultLitePullConsumer("group");
+		consumer.setOffsetStore(offsetStore);
+		RocketMQOffsetTracker offsetTracker = new RocketMQOffsetTracker(consumer,
+				Long.MAX_VALUE);
+		offsetTracker.start();
+		try {
+			MessageExt messageExt = new MessageExt();
+			messageExt.setQueueOffset(0);
+			offsetTracker.register(messageQueue, 0);
+			offsetTracker.register(messageQueue, 1);
+			offsetTracker.ack(messageQueue, 1);
+			offsetTracker.requeue(messageQueue, messageExt);
+			offsetTracker.flush();
+			verify(offsetStore, never()).updateOffset(any(), anyLong(), anyBoolean());
+
+			RocketMQOffsetTracker.TrackedMessage requeued = offsetTracker
+					.pollRequeued();
+			assertThat(requeued.messageExt()).isSameAs(messageExt);
+			assertThat(offsetTracker.pollRequeued()).isNull();
+			offsetTracker.ack(requeued.messageQueue(), 0);
+			offsetTracker.flush();
+			verify(offsetStore).updateOffset(messageQueue, 2, true);
+		}
+		finally {
+			offsetTracker.shutdown();
+		}
+	}
+
+	@Test
+	public void skipFilteredOffsets() {
+		OffsetStore offsetStore = mock(OffsetStore.class);
+		DefaultLitePullConsumer consumer = new DefaultLitePullConsumer("group");
+		consumer.setOffsetStore(offsetStore);
+		RocketMQOffsetTracker offsetTracker = new RocketMQOffsetTracker(consumer,
+				Long.MAX_VALUE);
+		offsetTracker.start();
+		try {
+			offsetTracker.register(messageQueue, 0);
+			offsetTracker.register(messageQueue, 5);
+			offsetTracker.ack(messageQueue, 0);
+			offsetTracker.flush();
+			verify(offsetStore).updateOffset(messageQueue, 5, true);
+
+			offsetTracker.ack(messageQueue, 5);
+			offsetTracker.register(messageQueue, 9);
+			offsetTracker.ack(messageQueue, 9);
+			offsetTracker.flush();
+			verify(offsetStore).updateOffset(messageQueue, 10, true);
+		}
+		finally {
+			offsetTracker.shutdown();
+		}
+	}
+
+	@Test
+	public void forgetRevokedQueues() {
+		OffsetStore offsetStore = mock(OffsetStore.class);
+		DefaultLitePullConsumer consumer = new DefaultLitePullConsumer("group");
+		consumer.setOffsetStore(offsetStore);
+		RocketMQOffsetTracker offsetTracker = new RocketMQOffsetTracker(consumer,
+				Long.MAX_VALUE);
+		offsetTracker.start();
+		try {
+			MessageExt messageExt = new MessageExt();
+			messageExt.setQueueOffset(1);
+			offsetTracker.register(messageQueue, 0);
+			offsetTracker.register(messageQueue, 1);
+			offsetTracker.ack(messageQueue, 0);
+			offsetTracker.requeue(messageQueue, messageExt);
+			offsetTracker.retain(Collections.emptySet());
+			offsetTracker.flush();
+			verify(offsetStore, never()).updateOffset(any(), anyLong(), anyBoolean());
+			assertThat(offsetTracker.pollRequeued()).isNull();
+
+			offsetTracker.ack(messageQueue, 1);
+			offsetTracker.requeue(messageQueue, messageExt);
+			offsetTracker.flush();
+			verify(offsetStore, never()).updateOffset(any(), anyLong(), anyBoolean());
+			assertThat(offsetTracker.pollRequeued()).isNull();
+
+			// reassigned, the queue is pulled again from its committed offset
+			offsetTracker.retain(Collections.singleton(messageQueue));
+			offsetTracker.register(messageQueue, 0);
+			offsetTracker.ack(messageQueue, 0);
+			offsetTracker.flush();
+			verify(offsetStore).updateOffset(messageQueue, 1, true);
+		}
+		finally {
+			offsetTracker.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import com.alibaba.cloud.stream.binder.rocketmq.integration.outbound.RocketMQProduceFactory;
+import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQProducerProperties;
+import org.apache.rocketmq.client.producer.DefaultMQProducer;
+import org.apache.rocketmq.client.producer.TransactionMQProducer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class RocketMQProduceFactoryTest {
+
+	private final List<DefaultMQProducer> producers = new ArrayList<>();
+
+	@AfterEach
+	public void releaseProducers() {
+		producers.forEach(
+				producer -> RocketMQProduceFactory.shutdownRocketMQProducer(producer, false));
+	}
+
+	@Test
+	public void shareClientInstanceWithDistinctGroups() {
+		DefaultMQProducer first = initProducer("first", producerProperties(true));
+		DefaultMQProducer second = initProducer("second", producerProperties(true));
+		DefaultMQProducer own = initProducer("own", producerProperties(false));
+
+		assertThat(first.getProducerGroup()).isEqualTo("shared-group");
+		assertThat(second.getInstanceName()).isNotEqualTo(first.getInstanceName());
+		assertThat(second.getProducerGroup()).isEqualTo("shared-group");
+		assertThat(own.getInstanceName()).isNotEqualTo(first.getInstanceName());
+		assertThat(own.getProducerGroup()).isEqualTo("shared-group");
+
+		RocketMQProducerProperties otherGroup = producerProperties(true);
+		otherGroup.setGroup("other-group");
+		assertThat(initProducer("other", otherGroup).getInstanceName())
+				.isEqualTo(first.getInstanceName());
+	}
+
+	@Test
+	public void shutdownReleasesSharedGroup() {
+		DefaultMQProducer first = initProducer("first", producerProperties(true));
+		RocketMQProduceFactory.shutdownRocketMQProducer(first, false);
+		DefaultMQProducer second = initProducer("second", producerProperties(true));
+		// a second release of the first producer keeps the group of the second
+		RocketMQProduceFactory.shutdownRocketMQProducer(first, false);
+		DefaultMQProducer third = initProducer("third", producerProperties(true));
+
+		assertThat(second.getInstanceName()).isEqualTo(first.getInstanceName());
+		assertThat(third.getInstanceName()).isNotEqualTo(first.getInstanceName());
+	}
+
+	@Test
+	public void sizeTransactionCheckExecutor() {
+		RocketMQProducerProperties producerProperties = producerProperties(false);
+		producerProperties.setProducerType("Trans");
+		producerProperties.setCheckThreadPoolMinSize(2);
+		producerProperties.setCheckThreadPoolMaxSize(4);
+		producerProperties.setCheckRequestHoldMax(100);
+		DefaultMQProducer producer = initProducer("trans", producerProperties);
+
+		assertThat(producer).isInstanceOf(TransactionMQProducer.class);
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ((TransactionMQProducer) producer)
+				.getExecutorService();
+		assertThat(executor.getCorePoolSize()).isEqualTo(2);
+		assertThat(executor.getMaximumPoolSize()).isEqualTo(4);
+		assertThat(executor.getQueue().remainingCapacity()).isEqualTo(100);
+		executor.shutdown();
+	}
+
+	private DefaultMQProducer initProducer(String topic,
+			RocketMQProducerProperties producerProperties) {
+		DefaultMQProducer producer = RocketMQProduceFactory.initRocketMQProducer(topic,
+				producerProperties);
+		producers.add(producer);
+		return producer;
+	}
+
+	private static RocketMQProducerProperties producerProperties(
+			boolean shareClientInstance) {
+		RocketMQProducerProperties producerProperties = new RocketMQProducerProperties();
+		producerProperties.setNameServer("127.0.0.1:9876");
+		producerProperties.setGroup("shared-group");
+		producerProperties.setEnableMsgTrace(false);
+		producerProperties.setShareClientInstance(shareClientInstance);
+		return producerProperties;
+	}
+
+}
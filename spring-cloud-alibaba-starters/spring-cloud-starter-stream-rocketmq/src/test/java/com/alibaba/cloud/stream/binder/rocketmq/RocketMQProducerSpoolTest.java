@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.cloud.stream.binder.rocketmq.integration.outbound.RocketMQProducerSpool;
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import org.apache.rocketmq.client.exception.MQBrokerException;
+import org.apache.rocketmq.client.exception.MQClientException;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.protocol.ResponseCode;
+import org.apache.rocketmq.remoting.exception.RemotingConnectException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author agent
+ */
+public class RocketMQProducerSpoolTest {
+
+	@TempDir
+	File directory;
+
+	@Test
+	public void replayInOrderAcrossSegmentsAndRestarts() throws Exception {
+		RocketMQProducerSpool spool = new RocketMQProducerSpool(directory, 256, 4096, 3,
+				RocketMQBindingMetrics.NOOP);
+		for (int i = 0; i < 10; i++) {
+			assertThat(spool.append(message("message-" + i))).isTrue();
+		}
+		List<String> sent = new ArrayList<>();
+		spool.replay(message -> {
+			if (sent.size() == 4) {
+				throw new RemotingConnectException("broker");
+			}
+			sent.add(new String(message.getBody(), StandardCharsets.UTF_8));
+		}, RocketMQProducerSpoolTest::failDropped);
+		assertThat(sent).hasSize(4);
+		assertThat(spool.isEmpty()).isFalse();
+		spool.shutdown();
+
+		spool = new RocketMQProducerSpool(directory, 256, 4096, 3,
+				RocketMQBindingMetrics.NOOP);
+		spool.replay(message -> {
+			assertThat(message.getKeys()).isEqualTo("key");
+			assertThat(message.getUserProperty("user")).isEqualTo("value");
+			sent.add(new String(message.getBody(), StandardCharsets.UTF_8));
+		}, RocketMQProducerSpoolTest::failDropped);
+		assertThat(sent).containsExactly("message-0", "message-1", "message-2",
+				"message-3", "message-4", "message-5", "message-6", "message-7",
+				"message-8", "message-9");
+		assertThat(spool.isEmpty()).isTrue();
+		assertThat(directory.list((dir, name) -> name.endsWith(".spool"))).hasSize(1);
+		spool.shutdown();
+	}
+
+	@Test
+	public void rejectWhenFull() throws Exception {
+		RocketMQProducerSpool spool = new RocketMQProducerSpool(directory, 256, 256, 3,
+				RocketMQBindingMetrics.NOOP);
+		int appended = 0;
+		while (spool.append(message("message-" + appended))) {
+			appended++;
+		}
+		assertThat(appended).isGreaterThan(0);
+		assertThat(spool.append(message(new String(new byte[300])))).isFalse();
+		spool.shutdown();
+	}
+
+	@Test
+	public void dropPoisonMessages() throws Exception {
+		RocketMQProducerSpool spool = new RocketMQProducerSpool(directory, 256, 4096, 3,
+				RocketMQBindingMetrics.NOOP);
+		spool.append(message("illegal"));
+		spool.append(message("busy"));
+		spool.append(message("message"));
+		List<String> sent = new ArrayList<>();
+		List<String> dropped = new ArrayList<>();
+		RocketMQProducerSpool.Sender sender = message -> {
+			String body = new String(message.getBody(), StandardCharsets.UTF_8);
+			if (body.equals("illegal")) {
+				throw new MQBrokerException(ResponseCode.MESSAGE_ILLEGAL, "illegal");
+			}
+			if (body.equals("busy")) {
+				throw new MQBrokerException(ResponseCode.SYSTEM_BUSY, "busy");
+			}
+			sent.add(body);
+		};
+		RocketMQProducerSpool.DropHandler dropHandler = (message, cause) -> dropped
+				.add(new String(message.getBody(), StandardCharsets.UTF_8));
+		for (int round = 0; round < 3; round++) {
+			spool.replay(sender, dropHandler);
+		}
+		assertThat(dropped).containsExactly("illegal", "busy");
+		assertThat(sent).containsExactly("message");
+		assertThat(spool.isEmpty()).isTrue();
+		spool.shutdown();
+	}
+
+	@Test
+	public void transientFailures() {
+		assertThat(RocketMQProducerSpool.isTransient(
+				new MQBrokerException(ResponseCode.SERVICE_NOT_AVAILABLE, "busy")))
+						.isTrue();
+		assertThat(RocketMQProducerSpool.isTransient(
+				new MQBrokerException(ResponseCode.NO_PERMISSION, "no permission")))
+						.isFalse();
+		assertThat(RocketMQProducerSpool.isTransient(new MQClientException("failed",
+				new MQBrokerException(ResponseCode.TOPIC_NOT_EXIST, "no topic"))))
+						.isFalse();
+		assertThat(RocketMQProducerSpool.isTransient(
+				new MQClientException("failed", new RemotingConnectException("broker"))))
+						.isTrue();
+	}
+
+	@Test
+	public void lockDirectoryOnce() throws Exception {
+		RocketMQProducerSpool spool = new RocketMQProducerSpool(directory, 256, 4096, 3,
+				RocketMQBindingMetrics.NOOP);
+		assertThatThrownBy(() -> new RocketMQProducerSpool(directory, 256, 4096, 3,
+				RocketMQBindingMetrics.NOOP)).isInstanceOf(IOException.class);
+		spool.shutdown();
+		new RocketMQProducerSpool(directory, 256, 4096, 3, RocketMQBindingMetrics.NOOP)
+				.shutdown();
+	}
+
+	private static void failDropped(Message message, Throwable cause) {
+		throw new AssertionError("Dropped " + message, cause);
+	}
+
+	private static Message message(String body) {
+		Message message = new Message("topic", "tag", "key",
+				body.getBytes(StandardCharsets.UTF_8));
+		message.putUserProperty("user", "value");
+		return message;
+	}
+
+}
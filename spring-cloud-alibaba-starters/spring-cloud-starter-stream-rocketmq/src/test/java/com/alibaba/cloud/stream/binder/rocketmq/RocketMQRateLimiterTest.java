@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq;
+
+import java.util.Collections;
+
+import com.alibaba.cloud.stream.binder.rocketmq.integration.inbound.RocketMQRateLimiter;
+import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class RocketMQRateLimiterTest {
+
+	@Test
+	public void delayPullingWhileInDebt() {
+		RocketMQConsumerProperties.RateLimit rateLimit = new RocketMQConsumerProperties.RateLimit();
+		RocketMQRateLimiter rateLimiter = new RocketMQRateLimiter(() -> rateLimit);
+		assertThat(rateLimiter.isEnabled()).isFalse();
+
+		rateLimit.setPermitsPerSecond(10);
+		rateLimiter = new RocketMQRateLimiter(() -> rateLimit);
+		assertThat(rateLimiter.isEnabled()).isTrue();
+		for (int i = 0; i < 10; i++) {
+			rateLimiter.acquire(message("a"));
+		}
+		assertThat(rateLimiter.getDelayMillis()).isLessThanOrEqualTo(1);
+		for (int i = 0; i < 10; i++) {
+			rateLimiter.acquire(message("a"));
+		}
+		assertThat(rateLimiter.getDelayMillis()).isBetween(800L, 1000L);
+	}
+
+	@Test
+	public void limitTagsSeparately() {
+		RocketMQConsumerProperties.RateLimit rateLimit = new RocketMQConsumerProperties.RateLimit();
+		rateLimit.setBurst(1);
+		rateLimit.setTagPermitsPerSecond(Collections.singletonMap("slow", 1.0));
+		RocketMQRateLimiter rateLimiter = new RocketMQRateLimiter(() -> rateLimit);
+		for (int i = 0; i < 100; i++) {
+			rateLimiter.acquire(message("fast"));
+		}
+		assertThat(rateLimiter.getDelayMillis()).isZero();
+
+		rateLimiter.acquire(message("slow"));
+		rateLimiter.acquire(message("slow"));
+		assertThat(rateLimiter.getDelayMillis()).isBetween(500L, 1000L);
+	}
+
+	private static MessageExt message(String tags) {
+		MessageExt messageExt = new MessageExt();
+		messageExt.setTags(tags);
+		return messageExt;
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.stream.binder.rocketmq.integration.inbound;
+
+import com.alibaba.cloud.stream.binder.rocketmq.metrics.RocketMQBindingMetrics;
+import com.alibaba.cloud.stream.binder.rocketmq.properties.RocketMQConsumerProperties;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class RocketMQConcurrencyControllerTest {
+
+	private static final double IDLE_CPU = 0.1;
+
+	private static final double BUSY_CPU = 0.9;
+
+	private static final double MID_BACKLOG = (RocketMQConcurrencyController.LOW_BACKLOG
+			+ RocketMQConcurrencyController.HIGH_BACKLOG) / 2;
+
+	@Test
+	public void scaleUpOnHighBacklog() {
+		RocketMQConcurrencyController controller = controller(1, 4, 32);
+		assertThat(controller.decide(RocketMQConcurrencyController.HIGH_BACKLOG,
+				IDLE_CPU, 1000)).isEqualTo(5);
+		assertThat(controller(1, 16, 32).decide(1, IDLE_CPU, 1000)).isEqualTo(20);
+		// the CPU load is unknown on some platforms
+		assertThat(controller.decide(1, -1, -1)).isEqualTo(5);
+	}
+
+	@Test
+	public void scaleDownOnLowBacklog() {
+		RocketMQConcurrencyController controller = controller(1, 16, 32);
+		assertThat(controller.decide(RocketMQConcurrencyController.LOW_BACKLOG / 2,
+				IDLE_CPU, 1000)).isEqualTo(15);
+		assertThat(controller.decide(0, IDLE_CPU, -1)).isEqualTo(15);
+	}
+
+	@Test
+	public void scaleDownOnHighCpuLoad() {
+		RocketMQConcurrencyController controller = controller(1, 16, 32);
+		// the CPU threshold wins over the backlog
+		assertThat(controller.decide(1, BUSY_CPU, 1000)).isEqualTo(12);
+		assertThat(controller(1, 3, 32).decide(MID_BACKLOG, BUSY_CPU, 1000))
+				.isEqualTo(2);
+	}
+
+	@Test
+	public void keepBetweenThresholds() {
+		assertThat(controller(1, 8, 32).decide(MID_BACKLOG, IDLE_CPU, 1000))
+				.isEqualTo(8);
+	}
+
+	@Test
+	public void clampToMaxConcurrency() {
+		assertThat(controller(1, 8, 8).decide(1, IDLE_CPU, 1000)).isEqualTo(8);
+		assertThat(controller(1, 30, 32).decide(1, IDLE_CPU, 1000)).isEqualTo(32);
+	}
+
+	@Test
+	public void clampToMinConcurrency() {
+		assertThat(controller(2, 2, 8).decide(0, IDLE_CPU, 1000)).isEqualTo(2);
+		assertThat(controller(4, 5, 8).decide(1, BUSY_CPU, 1000)).isEqualTo(4);
+		// a min above the max is lowered to the max
+		assertThat(controller(20, 8, 8).decide(0, BUSY_CPU, 1000)).isEqualTo(8);
+	}
+
+	private static RocketMQConcurrencyController controller(int minConcurrency,
+			int concurrency, int maxConcurrency) {
+		RocketMQConsumerProperties.Push push = new RocketMQConsumerProperties.Push();
+		push.setAdaptiveMinConcurrency(minConcurrency);
+		push.setAdaptiveCpuThreshold(0.8);
+		// sized the way RocketMQConsumerFactory#initPushConsumer does
+		DefaultMQPushConsumer consumer = new DefaultMQPushConsumer("group");
+		consumer.setConsumeThreadMin(concurrency);
+		consumer.setConsumeThreadMax(maxConcurrency + 1);
+		return new RocketMQConcurrencyController(consumer, push,
+				RocketMQBindingMetrics.NOOP);
+	}
+
+}
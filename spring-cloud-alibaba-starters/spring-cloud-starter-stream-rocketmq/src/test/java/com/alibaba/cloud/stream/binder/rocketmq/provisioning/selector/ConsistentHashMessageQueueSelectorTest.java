@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.stream.binder.rocketmq.provisioning.selector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ */
+public class ConsistentHashMessageQueueSelectorTest {
+
+	@Test
+	public void moveFewKeysWhenQueuesChange() {
+		ConsistentHashMessageQueueSelector selector = new ConsistentHashMessageQueueSelector(
+				160, null);
+		List<MessageQueue> eight = queues(8);
+		List<MessageQueue> nine = queues(9);
+		int keys = 10000;
+		int moved = 0;
+		for (int i = 0; i < keys; i++) {
+			Message message = message("key-" + i);
+			MessageQueue before = selector.select(eight, message, null);
+			assertThat(selector.select(queues(8), message, null)).isEqualTo(before);
+			if (!selector.select(nine, message, null).equals(before)) {
+				moved++;
+			}
+		}
+		// about one ninth of the keys move to the new queue, modulo would move most
+		assertThat(moved).isBetween(keys / 20, keys / 5);
+	}
+
+	@Test
+	public void reportSkew() {
+		ConsistentHashMessageQueueSelector selector = new ConsistentHashMessageQueueSelector(
+				160, "orderId");
+		List<MessageQueue> queues = queues(4);
+		Message message = message(null);
+		message.putUserProperty("orderId", "order-1");
+		for (int i = 0; i < 100; i++) {
+			selector.select(queues, message, null);
+		}
+		assertThat(selector.getSkew()).isEqualTo(4.0);
+		for (int i = 0; i < 300; i++) {
+			selector.select(queues, message(null), null);
+		}
+		assertThat(selector.getSkew()).isEqualTo(175 / 100.0);
+	}
+
+	private static List<MessageQueue> queues(int count) {
+		List<MessageQueue> queues = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			queues.add(new MessageQueue("topic", "broker", i));
+		}
+		return queues;
+	}
+
+	private static Message message(String keys) {
+		Message message = new Message("topic", new byte[0]);
+		if (keys != null) {
+			message.setKeys(keys);
+		}
+		return message;
+	}
+
+}